@@ -0,0 +1,242 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static Helpers.Utility.log;
+import static Helpers.Utility.warning;
+
+/**
+ * This class learns how long the waits of the web element classes take, e.g. how long a locator takes to find its
+ * web element, and derives from it the timeouts of these waits.  A wait that usually takes 2 seconds then fails
+ * after 10 seconds instead of 120 when its web element is really missing.
+ * <p>
+ * For each wait, identified by a key such as the locator, the class keeps the last {@link #MAX_SAMPLES} durations
+ * of the waits that succeeded.  Once it has {@link #MIN_SAMPLES} of them, the timeout of the wait is their 99th
+ * percentile times {@link #SAFETY_FACTOR}, but at least {@link #FLOOR_SECONDS} and at most the timeout given by the
+ * caller; before that, it is the timeout given by the caller:
+ * <pre>
+ *   int timeOutSeconds = AdaptiveTimeouts.getTimeout(key, ELEMENTTIMEOUT);
+ *   long startTime = System.nanoTime();
+ *   ... wait for at most timeOutSeconds ...
+ *   if (found) {
+ *       AdaptiveTimeouts.record(key, System.nanoTime() - startTime);
+ *   }
+ * </pre>
+ * The durations are kept across runs in the file set by the system property "element.timeouts.file", by default
+ * element-timeouts.properties in the working directory.  The file is read on first use and written by
+ * {@link #save()}.  Delete it to forget the history, e.g. after a change that makes the application slower.
+ * <p>
+ * Set {@link Globals#adaptiveTimeouts} to {@code false} to always use the timeouts given by the callers.
+ */
+public final class AdaptiveTimeouts {
+
+    // - - - - - Class attributes - - - - -
+
+    /** The number of successful waits needed before the timeout of a wait is derived from their durations. */
+    public static final int MIN_SAMPLES = 5;
+    /** The number of the most recent durations kept for each wait. */
+    public static final int MAX_SAMPLES = 100;
+    /** The factor applied to the 99th percentile of the durations of a wait to get its timeout. */
+    public static final double SAFETY_FACTOR = 3;
+    /** The minimum derived timeout, in seconds. */
+    public static final int FLOOR_SECONDS = 10;
+
+    private static final String FILE_PROPERTY = "element.timeouts.file";
+    private static final String DEFAULT_FILE = "element-timeouts.properties";
+
+    // the durations of the successful waits, in milliseconds, by key; null until the file is read
+    private static Map<String, LinkedList<Long>> samples = null;
+    private static boolean changed = false;
+
+    private AdaptiveTimeouts() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method returns the timeout of a wait.
+     *
+     * @param key             the key of the wait, e.g. the locator of the web element
+     * @param defaultSeconds  the timeout of the wait when it has no history; it is also the maximum timeout
+     * @return                the timeout of the wait, in seconds
+     */
+    public static synchronized int getTimeout(String key, int defaultSeconds) {
+        if (!Globals.adaptiveTimeouts || defaultSeconds <= FLOOR_SECONDS) {
+            return defaultSeconds;
+        }
+
+        List<Long> durations = samplesFor(key, false);
+        if (durations == null || durations.size() < MIN_SAMPLES) {
+            return defaultSeconds;
+        }
+
+        List<Long> sorted = new ArrayList<Long>(durations);
+        Collections.sort(sorted);
+        long p99Millis = sorted.get((int) Math.ceil(0.99 * sorted.size()) - 1);
+
+        int timeout = (int) Math.ceil(p99Millis * SAFETY_FACTOR / 1000);
+        return Math.min(Math.max(timeout, FLOOR_SECONDS), defaultSeconds);
+    }
+
+    /**
+     * This method returns the timeout of the search of a web element by its locator.  See
+     * {@link #getTimeout(String, int)}.
+     *
+     * @param element         the web element
+     * @param defaultSeconds  the timeout of the search when it has no history; it is also the maximum timeout
+     * @return                the timeout of the search, in seconds
+     */
+    public static int getTimeout(BaseElement element, int defaultSeconds) {
+        return getTimeout(element.getLocator().toString(), defaultSeconds);
+    }
+
+    /**
+     * This method returns the key of a wait done by a method of a web element, e.g.
+     * "Table::waitForLoaded(By.id: volumesTable)".
+     *
+     * @param element  the web element
+     * @param method   the name of the method that waits
+     * @return         the key of the wait
+     */
+    public static String keyOf(BaseElement element, String method) {
+        return element.getName() + "::" + method + "(" + element.getLocator() + ")";
+    }
+
+    /**
+     * This method records the duration of a wait that succeeded.
+     *
+     * @param key           the key of the wait, e.g. the locator of the web element
+     * @param elapsedNanos  the duration of the wait, in nanoseconds
+     */
+    public static synchronized void record(String key, long elapsedNanos) {
+        if (!Globals.adaptiveTimeouts) {
+            return;
+        }
+
+        LinkedList<Long> durations = samplesFor(key, true);
+        durations.add(TimeUnit.MILLISECONDS.convert(elapsedNanos, TimeUnit.NANOSECONDS));
+        if (durations.size() > MAX_SAMPLES) {
+            durations.removeFirst();
+        }
+        changed = true;
+    }
+
+    /**
+     * This method records the duration of the search of a web element by its locator.
+     *
+     * @param element       the web element
+     * @param elapsedNanos  the duration of the search, in nanoseconds
+     */
+    public static void record(BaseElement element, long elapsedNanos) {
+        record(element.getLocator().toString(), elapsedNanos);
+    }
+
+    /**
+     * This method writes the durations of the waits to the history file, if any was recorded since it was read.
+     * Failing to write the file is only logged, so that it does not fail the suite.
+     */
+    public static synchronized void save() {
+        if (!changed) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        for (Map.Entry<String, LinkedList<Long>> entry : samples.entrySet()) {
+            StringBuilder value = new StringBuilder();
+            for (Long duration : entry.getValue()) {
+                if (value.length() > 0) {
+                    value.append(',');
+                }
+                value.append(duration);
+            }
+            properties.setProperty(entry.getKey(), value.toString());
+        }
+
+        File file = getFile();
+        try {
+            OutputStream output = new FileOutputStream(file);
+            try {
+                properties.store(output, "Durations in milliseconds of the successful waits of the web element classes");
+            } finally {
+                output.close();
+            }
+            changed = false;
+            log("Durations of " + samples.size() + " waits written to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            warning("AdaptiveTimeouts::save -- Could not write " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    // Returns the durations of a wait, reading the history file first if needed; creates them if asked to.
+    private static LinkedList<Long> samplesFor(String key, boolean create) {
+        if (samples == null) {
+            samples = load();
+        }
+        LinkedList<Long> durations = samples.get(key);
+        if (durations == null && create) {
+            durations = new LinkedList<Long>();
+            samples.put(key, durations);
+        }
+        return durations;
+    }
+
+    private static Map<String, LinkedList<Long>> load() {
+        Map<String, LinkedList<Long>> returnValue = new HashMap<String, LinkedList<Long>>();
+        File file = getFile();
+        if (!file.isFile()) {
+            return returnValue;
+        }
+
+        Properties properties = new Properties();
+        try {
+            InputStream input = new FileInputStream(file);
+            try {
+                properties.load(input);
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            warning("AdaptiveTimeouts::load -- Could not read " + file.getAbsolutePath() + ", using the default timeouts: " + e.getMessage());
+            return returnValue;
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            LinkedList<Long> durations = new LinkedList<Long>();
+            for (String duration : properties.getProperty(key).split(",")) {
+                try {
+                    durations.add(Long.parseLong(duration.trim()));
+                } catch (NumberFormatException e) {
+                    // skip a value edited by hand
+                }
+            }
+            returnValue.put(key, durations);
+        }
+        return returnValue;
+    }
+
+    private static File getFile() {
+        String fileName = System.getProperty(FILE_PROPERTY);
+        if (fileName == null || fileName.isEmpty()) {
+            return new File(System.getProperty("user.dir"), DEFAULT_FILE);
+        }
+        return new File(fileName);
+    }
+}
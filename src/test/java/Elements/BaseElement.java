@@ -6,7 +6,9 @@ package Elements;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Action;
 import org.openqa.selenium.interactions.Actions;
@@ -16,11 +18,15 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.JavascriptExecutor;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static Elements.Globals.ELEMENTTIMEOUT;
 import static Elements.Globals.browser;
 import static Helpers.Utility.log;
+import static Helpers.Utility.sleep;
+import static Helpers.Utility.warning;
 
 
 /**
@@ -33,10 +39,94 @@ public class BaseElement {
 
     private By locator;
 
+    // the web element found the last time this element was located, and the last snapshot taken by getState();
+    // see getCachedWebElement() and getFreshState().  They are replaced together, so that a screen object shared by
+    // the threads of a parallel run never mixes the web element of one browser with another.
+    private volatile Located located = null;
+
     protected static final String PRESENT = "present";
     protected static final String VISIBLE = "visible";
     protected static final String CLICKABLE = "clickable";
 
+    // The polling intervals of waitForElement(), in milliseconds: the first poll is quick, then the interval grows
+    // up to the polling interval of a WebDriverWait.
+    private static final long FIRSTPOLLINTERVAL = 50;
+    private static final long MAXPOLLINTERVAL = 500;
+    // the number of polls in a row that must find the page quiet, without the element, before a negative check stops
+    private static final int QUIETPOLLS = 2;
+
+    /**
+     * The script that checks, in a single execution, whether a web element is ready to be returned by
+     * {@link #waitForElement(By, int, String)}.  It expects the web element as <code>arguments[0]</code>,
+     * and returns whether it is visible (an approximation of {@link WebElement#isDisplayed()}), whether it is
+     * enabled (the same check as {@link #isEnabled()}), and whether it is ready: visible, and clickable if it
+     * is enabled, like the conditions waited for by the former implementation.  It also returns whether the web
+     * element is still in the page, which {@link #getWebElement(String, int)} uses to validate a cached element.
+     */
+    private static final String READINESS_SCRIPT;
+
+    /**
+     * The script that reads, in a single execution, the state of a web element returned by {@link #getState()}.
+     * It expects the web element as <code>arguments[0]</code>, and returns the values read by the constructor of
+     * {@link ElementState}.
+     */
+    private static final String STATE_SCRIPT;
+
+    // the functions shared by the scripts above: the visibility heuristic, and the same enabled check as isEnabled()
+    private static final String ELEMENT_FUNCTIONS =
+            "function isVisible(el) {\n" +
+            "  var rects = el.getClientRects();\n" +
+            "  if (rects.length === 0) { return false; }\n" +
+            "  var style = window.getComputedStyle(el);\n" +
+            "  if (style.visibility === 'hidden' || style.visibility === 'collapse') { return false; }\n" +
+            "  for (var e = el; e && e.nodeType === 1; e = e.parentElement) {\n" +
+            "    if (window.getComputedStyle(e).opacity === '0') { return false; }\n" +
+            "  }\n" +
+            "  for (var i = 0; i < rects.length; i++) { if (rects[i].width > 0 && rects[i].height > 0) { return true; } }\n" +
+            "  return el.children.length > 0;\n" +
+            "}\n" +
+            "function classNameOf(el) {\n" +
+            "  return (typeof el.className === 'string') ? el.className : (el.getAttribute('class') || '');\n" +
+            "}\n" +
+            "function isEnabled(el) {\n" +
+            "  var className = classNameOf(el);\n" +
+            "  return className.indexOf('x-item-disabled') < 0 && className.indexOf('hp-disabled') < 0 &&\n" +
+            "         !el.hasAttribute('disabled');\n" +
+            "}\n";
+
+    static {
+        READINESS_SCRIPT =
+                "var el = arguments[0];\n" +
+                ELEMENT_FUNCTIONS +
+                "var enabled = isEnabled(el);\n" +
+                "var visible = isVisible(el);\n" +
+                "return { connected: document.documentElement.contains(el), visible: visible, enabled: enabled,\n" +
+                "         ready: visible && (!enabled || el.disabled !== true) };\n";
+
+        STATE_SCRIPT =
+                "var el = arguments[0];\n" +
+                ELEMENT_FUNCTIONS +
+                "var tag = el.tagName.toLowerCase();\n" +
+                "var type = (el.getAttribute('type') || '').toLowerCase();\n" +
+                "var checkable = tag === 'input' && (type === 'checkbox' || type === 'radio');\n" +
+                "var data = {};\n" +
+                "for (var i = 0; i < el.attributes.length; i++) {\n" +
+                "  var a = el.attributes[i];\n" +
+                "  if (a.name.indexOf('data-') === 0) { data[a.name] = a.value; }\n" +
+                "}\n" +
+                "var text = (typeof el.innerText === 'string') ? el.innerText : el.textContent;\n" +
+                "return {\n" +
+                "  displayed: isVisible(el),\n" +
+                "  enabled: isEnabled(el),\n" +
+                "  className: classNameOf(el),\n" +
+                "  text: (text || '').replace(/^\\s+|\\s+$/g, ''),\n" +
+                "  value: (typeof el.value === 'string') ? el.value : el.getAttribute('value'),\n" +
+                "  checked: (checkable && el.checked) || el.getAttribute('aria-checked') === 'true',\n" +
+                "  selected: (checkable && el.checked) || (tag === 'option' && el.selected),\n" +
+                "  data: data\n" +
+                "};\n";
+    }
+
     // - - - - - Constructors - - - - -
 
     /**
@@ -93,20 +183,33 @@ public class BaseElement {
      * @return       a boolean 'true' if the web element is enabled, 'false' otherwise.
      */
     public boolean isEnabled () {
-        // declaring local variables
-        boolean isEnabled = false;
+        Instrumentation.Operation operation = Instrumentation.start(this, "isEnabled");
+        try {
+            // declaring local variables
+            boolean isEnabled = false;
 
-        // first, check to see if the web element's locator is stubbed -- if so, then print out a message and return true
-        if (isStubbed()) {
-            isEnabled = true;
-            log("=== This web element's locator is currently stubbed out. Return value = '" + isEnabled + "' ===");
-        } else {
-            // getting the web element with the default timeout
-            WebElement webElement = getWebElement(VISIBLE);
-            isEnabled = isWebElementEnabled(webElement);
-        }
+            // first, check to see if the web element's locator is stubbed -- if so, then print out a message and return true
+            if (isStubbed()) {
+                isEnabled = true;
+                log("=== This web element's locator is currently stubbed out. Return value = '" + isEnabled + "' ===");
+            } else {
+                ElementState freshState = getFreshState();
+                if (freshState != null && freshState.isDisplayed()) {
+                    return freshState.isEnabled();
+                }
 
-        return isEnabled;
+                // getting the web element with the default timeout
+                WebElement webElement = getWebElement(VISIBLE);
+                isEnabled = isWebElementEnabled(webElement);
+            }
+
+            return isEnabled;
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
+        }
     }
 
     private <T extends WebElement> boolean isWebElementEnabled(T webElement) {
@@ -128,17 +231,43 @@ public class BaseElement {
     }
 
     public boolean isDisplayed() {
-        WebElement el = this.getWebElement(this.VISIBLE);
-        if (el != null) {
-            return el.isDisplayed();
-        }
-        else {
-            return false;
+        Instrumentation.Operation operation = Instrumentation.start(this, "isDisplayed");
+        try {
+            ElementState freshState = getFreshState();
+            if (freshState != null && freshState.isDisplayed()) {
+                return true;
+            }
+
+            WebElement el = this.getWebElement(this.VISIBLE);
+            if (el != null) {
+                return el.isDisplayed();
+            }
+            else {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
         }
     }
 
+    /**
+     * This method checks whether the web element is hidden or absent.  It waits for at most the specified timeout
+     * for the web element to be displayed, but stops waiting as soon as the page is quiet (see {@link PageQuiescence}).
+     *
+     * @param timeout  [INT] the maximum number of seconds to wait for the web element to be displayed
+     * @return         a boolean 'true' if the web element is not displayed, 'false' otherwise.
+     */
     public boolean isHidden(int timeout) {
-        WebElement el = this.getWebElement(this.VISIBLE, timeout);
+        WebElement el;
+        try {
+            el = this.getWebElementUnlessQuiet(this.VISIBLE, timeout);
+        } catch (NoSuchElementException e) {
+            // not displayed before the timeout, or while the page is quiet
+            return true;
+        }
         if (el != null) {
             return !el.isDisplayed();
         } else {
@@ -189,31 +318,80 @@ public class BaseElement {
      * <b><u>NOTE:</u></b>  It's important to note that just because the web element exists, doesn't always mean it's enabled.
      * For example, if the web element is a button, the button may exist, but the button could be disabled.
      * </p>
+     * <p>
+     * This method always waits for the full timeOutSeconds, since many callers use it to wait for a web element that
+     * is expected to appear.  To check that a web element is absent, use {@link #isAbsent(int)} instead.
+     * </p>
      *
      * @param timeOutSeconds     [INT] the maximum number of seconds to wait before timing out
      * @return                   a boolean value 'true' if the web element exists, 'false' otherwise.
      */
     public boolean exists (int timeOutSeconds) {
-        // declaring local variables
-        boolean returnValue = false;
+        Instrumentation.Operation operation = Instrumentation.start(this, "exists");
+        try {
+            // declaring local variables
+            boolean returnValue = false;
 
-        // first, check to see if the web element's locator is stubbed -- if so, then print out a message and return true
-        if (isStubbed()) {
-            returnValue = true;
-            log("=== This web element's locator is currently stubbed out. ===");
-        } else {
-            try{
-                // getting the web element with the specified timeout
-                getWebElement(timeOutSeconds);
-                // no exception; the web element was found
+            // first, check to see if the web element's locator is stubbed -- if so, then print out a message and return true
+            if (isStubbed()) {
                 returnValue = true;
-            } catch (NoSuchElementException e) {
-                // cannot find the web element
-                returnValue = false;
+                log("=== This web element's locator is currently stubbed out. ===");
+            } else {
+                try{
+                    // getting the web element with the specified timeout
+                    getWebElement(timeOutSeconds);
+                    // no exception; the web element was found
+                    returnValue = true;
+                } catch (NoSuchElementException e) {
+                    // cannot find the web element
+                    returnValue = false;
+                }
             }
+
+            return returnValue;
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
         }
+    }
 
-        return returnValue;
+    /**
+     * This method is a negative check: it checks that the web element is not displayed on the screen, e.g. a popup
+     * that may or may not be shown.  It keeps checking until the web element is displayed, or until the timeOutSeconds
+     * has been reached.  If the web element is not displayed and the page is quiet (see {@link PageQuiescence}), it
+     * returns 'true' without waiting for the timeOutSeconds, as the web element is not going to appear; see
+     * {@link Globals#fastNegativeChecks}.
+     * <p>
+     * <b><u>NOTE:</u></b>  The quiet check does not see the rendering driven by a WebSocket or a timer, so this method
+     * is not meant to wait for a web element that is expected to appear; use {@link #exists(int)} for that.
+     * </p>
+     *
+     * @param timeOutSeconds     [INT] the maximum number of seconds to wait for the web element
+     * @return                   a boolean value 'true' if the web element is not displayed, 'false' otherwise.
+     */
+    public boolean isAbsent (int timeOutSeconds) {
+        Instrumentation.Operation operation = Instrumentation.start(this, "isAbsent");
+        try {
+            if (isStubbed()) {
+                log("=== This web element's locator is currently stubbed out. ===");
+                return false;
+            }
+            try {
+                // getting the web element with the specified timeout, unless the page is quiet without it
+                getWebElementUnlessQuiet(null, timeOutSeconds);
+                return false;
+            } catch (NoSuchElementException e) {
+                // not displayed before the timeout, or while the page is quiet
+                return true;
+            }
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
+        }
     }
 
 
@@ -249,17 +427,205 @@ public class BaseElement {
      * <p>
      * <b>Note:</b> This method does not check whether the locator of this web element is stubbed out or not.
      * Thus, it is the responsibility of the caller NOT to call this method if the locator is stubbed out.
+     * <p>
+     * Once the locator has a history, the default timeout {@link Globals#ELEMENTTIMEOUT} is shortened to the one
+     * derived by {@link AdaptiveTimeouts}; a timeout chosen by the caller is kept as is.
      *
      * @param   timeOutSeconds     [INT] the maximum number of seconds to wait before timing out
      * @return  a {@link WebElement} representing the located web element
      * @throws NoSuchElementException if the web element does not exist and/or is not displayed after timeout
      */
     protected WebElement getWebElement (int timeOutSeconds) {
-       return findElement(timeOutSeconds);
+        Instrumentation.Operation operation = Instrumentation.start(this, "getWebElement");
+        try {
+            WebElement returnValue = getCachedWebElement(null);
+            if (returnValue == null) {
+                // the default timeout is shortened when the history of the locator shows that it is usually found sooner
+                long startTime = System.nanoTime();
+                returnValue = findElement(adaptiveTimeout(timeOutSeconds));
+                AdaptiveTimeouts.record(this, System.nanoTime() - startTime);
+                cacheWebElement(returnValue, null);
+            }
+            return returnValue;
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
+        }
     }
 
     protected WebElement getWebElement (String expectedElementState, int timeOutSeconds) {
-        return findElement(expectedElementState, timeOutSeconds);
+        Instrumentation.Operation operation = Instrumentation.start(this, "getWebElement");
+        try {
+            WebElement returnValue = getCachedWebElement(expectedElementState);
+            if (returnValue == null) {
+                // the default timeout is shortened when the history of the locator shows that it is usually found sooner
+                long startTime = System.nanoTime();
+                returnValue = findElement(expectedElementState, adaptiveTimeout(timeOutSeconds));
+                AdaptiveTimeouts.record(this, System.nanoTime() - startTime);
+                cacheWebElement(returnValue, expectedElementState);
+            }
+            return returnValue;
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
+        }
+    }
+
+    /**
+     * This method is the same as {@link #getWebElement(String, int)}, except that it stops waiting for the web element
+     * when it is not in the expected state and the page is quiet (see {@link PageQuiescence}).  It is meant for the
+     * negative checks, e.g. {@link #isAbsent(int)}, which would otherwise wait out their timeout when the web element is
+     * legitimately absent.
+     *
+     * @param expectedElementState  the expected state, e.g. {@link #VISIBLE}; {@code null} for a displayed web element
+     * @param timeOutSeconds        [INT] the maximum number of seconds to wait before timing out
+     * @return  a {@link WebElement} representing the located web element
+     * @throws NoSuchElementException if the web element is not in the expected state after timeout, or while the
+     *                                page is quiet
+     */
+    protected WebElement getWebElementUnlessQuiet (String expectedElementState, int timeOutSeconds) {
+        WebElement returnValue = getCachedWebElement(expectedElementState);
+        if (returnValue == null) {
+            long startTime = System.nanoTime();
+            returnValue = waitForElement(this.getLocator(), adaptiveTimeout(timeOutSeconds),
+                    expectedElementState, Globals.fastNegativeChecks);
+            AdaptiveTimeouts.record(this, System.nanoTime() - startTime);
+            cacheWebElement(returnValue, expectedElementState);
+        }
+        return returnValue;
+    }
+
+    // The timeout of a wait for this web element: the one derived by AdaptiveTimeouts if the caller uses the default
+    // timeout, and the caller's timeout otherwise, e.g. exists(600) while a long operation runs.
+    private int adaptiveTimeout(int timeOutSeconds) {
+        if (timeOutSeconds != ELEMENTTIMEOUT) {
+            return timeOutSeconds;
+        }
+        return AdaptiveTimeouts.getTimeout(this, timeOutSeconds);
+    }
+
+    /**
+     * This method forgets the {@link WebElement} kept by this element, so that the next call to
+     * {@link #getWebElement(int)} locates it again.  A subclass should call it when it knows that the web element
+     * was replaced, e.g. after an action that redraws it.
+     * <p>
+     * The kept web element is also forgotten when the browser navigates to a new page (see
+     * {@link Browser#invalidateElements()}), and when it is no longer in the page.
+     */
+    public void invalidate() {
+        this.located = null;
+    }
+
+    /**
+     * This method reads the state of this web element in a single script execution: whether it is displayed and
+     * enabled, its CSS classes, text and value, whether it is checked or selected, and its data-* attributes.
+     * It waits for the web element to be present, with the default timeout, but not for it to be displayed.
+     * <p>
+     * Until the snapshot is older than {@link Globals#stateMaxAge}, the getters of this web element, e.g.
+     * {@link #isEnabled()} or {@link #hasCSSClass(String)}, return its values instead of querying the browser.
+     * Call this method again, or {@link #invalidate()}, after an action that changes the web element.
+     *
+     * @return  a snapshot of the state of this web element
+     * @throws NoSuchElementException if the web element does not exist after timeout
+     */
+    public ElementState getState() {
+        Instrumentation.Operation operation = Instrumentation.start(this, "getState");
+        try {
+            if (isStubbed()) {
+                log("=== This web element's locator is currently stubbed out.  Returning a displayed and enabled state. ===");
+                return ElementState.stubbed();
+            }
+
+            ElementState state = RetryPolicy.STALE_ELEMENT.call("BaseElement::getState", new RetryPolicy.Attempt<ElementState>() {
+                public ElementState run() {
+                    WebElement webElement = getWebElement(PRESENT);
+                    try {
+                        return new ElementState(ElementUtil.<Map<String, Object>>scriptResult(browser().executeScript(STATE_SCRIPT, webElement)));
+                    } catch (StaleElementReferenceException e) {
+                        // the web element was replaced since it was located
+                        invalidate();
+                        throw e;
+                    }
+                }
+            });
+            // getWebElement() has just located the web element in the current browser
+            Located lastLocated = this.located;
+            if (lastLocated != null && lastLocated.browser == browser()) {
+                this.located = lastLocated.withState(state);
+            }
+            return state;
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
+        }
+    }
+
+    /**
+     * This method is to be used by the getters of a subclass to reuse the last snapshot taken by {@link #getState()}.
+     *
+     * @return  the last snapshot, if it is fresh (see {@link ElementState#isFresh()}); {@code null} otherwise
+     */
+    protected ElementState getFreshState() {
+        Located lastLocated = this.located;
+        if (lastLocated != null && lastLocated.browser == browser() && lastLocated.state != null
+                && lastLocated.state.isFresh()) {
+            return lastLocated.state;
+        }
+        return null;
+    }
+
+    // Returns the web element found the last time this element was located, if it is still in the page and in the
+    // expected state; null otherwise.  The check is a single execution of READINESS_SCRIPT, instead of the locator
+    // search and the readiness check done by waitForElement().
+    //
+    // Note that a cached web element is reused as long as it is in the page, even if the locator would now find
+    // another web element first; call invalidate() after an action that adds a web element matching the locator
+    // before this one.
+    private WebElement getCachedWebElement(String expectedElementState) {
+        Located lastLocated = this.located;
+        if (lastLocated == null) {
+            return null;
+        }
+        // the web element was located by another thread, in its own browser
+        if (lastLocated.browser != browser()) {
+            return null;
+        }
+        if (lastLocated.navigation != browser().getNavigationCount()) {
+            invalidate();
+            return null;
+        }
+        WebElement element = lastLocated.element;
+        // an element located only for its presence may not be visible yet
+        if (PRESENT.equals(lastLocated.expectedState) && !PRESENT.equals(expectedElementState)) {
+            return null;
+        }
+
+        try {
+            Map<String, Object> state = ElementUtil.scriptResult(browser().executeScript(READINESS_SCRIPT, element));
+            if (!Boolean.TRUE.equals(state.get("connected"))) {
+                invalidate();
+                return null;
+            }
+            if (PRESENT.equals(expectedElementState) || Boolean.TRUE.equals(state.get("ready"))) {
+                return element;
+            }
+            // the element is in the page, but not ready yet; wait for it
+            return null;
+        } catch (WebDriverException e) {
+            // stale element, or the script cannot run in this page; locate the element again
+            invalidate();
+            return null;
+        }
+    }
+
+    private void cacheWebElement(WebElement element, String expectedElementState) {
+        this.located = new Located(browser(), browser().getNavigationCount(), element, expectedElementState, null);
     }
 
 
@@ -285,7 +651,7 @@ public class BaseElement {
      */
     protected WebElement findElement () {
         // find this web element using the locator
-        return browser.findElement(this.locator);
+        return browser().findElement(this.locator);
     }
 
     /**
@@ -336,8 +702,107 @@ public class BaseElement {
 
 
     protected WebElement waitForElement(By by, int timeoutInSeconds, String expectedElementState) {
+        return waitForElement(by, timeoutInSeconds, expectedElementState, false);
+    }
+
+    private WebElement waitForElement(By by, int timeoutInSeconds, String expectedElementState, boolean untilQuiet) {
+        // PROCEDURE:
+        //      each poll locates the element once, then checks its visibility and its enabled state in a single
+        // script execution (see READINESS_SCRIPT).  The first polls are quick, and the polling interval grows up to
+        // the one of a WebDriverWait, so an element that is already there is returned after two round trips.
+        //      when untilQuiet is set, a poll that does not find the element ready also checks whether the page is
+        // quiet; after QUIETPOLLS such polls in a row, the element is not going to appear and the wait stops.
+        long endTime = System.nanoTime() + TimeUnit.NANOSECONDS.convert(timeoutInSeconds, TimeUnit.SECONDS);
+        long pollInterval = FIRSTPOLLINTERVAL;
+        WebElement element = null;
+        boolean ready = false;
+        int quietPolls = 0;
+
+        try {
+            while (true) {
+                List<WebElement> elements = browser().findElements(by);
+                element = elements.isEmpty() ? null : elements.get(0);
+
+                if (element != null) {
+                    // if expected state is PRESENT return presence of element (may be disabled)
+                    if (PRESENT.equals(expectedElementState)) {
+                        return element;
+                    }
+
+                    try {
+                        Map<String, Object> state = ElementUtil.scriptResult(browser().executeScript(READINESS_SCRIPT, element));
+                        ready = Boolean.TRUE.equals(state.get("ready"));
+                    } catch (StaleElementReferenceException e) {
+                        // the element was replaced after it was located; locate it again
+                        ready = false;
+                    } catch (WebDriverException e) {
+                        // the readiness script cannot run in this page; wait the former way
+                        warning("BaseElement:waitForElement() - could not run the readiness script, waiting with a WebDriverWait instead: " + e.getMessage());
+                        int remaining = (int) TimeUnit.SECONDS.convert(endTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        return waitForElement_original(by, Math.max(remaining, 1), expectedElementState);
+                    }
+                    if (ready) {
+                        return element;
+                    }
+                }
+
+                if (untilQuiet) {
+                    quietPolls = PageQuiescence.isQuiet() ? quietPolls + 1 : 0;
+                    if (quietPolls >= QUIETPOLLS) {
+                        break;
+                    }
+                }
+
+                long remaining = TimeUnit.MILLISECONDS.convert(endTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (remaining <= 0) {
+                    break;
+                }
+                sleep(Math.min(pollInterval, remaining), TimeUnit.MILLISECONDS);
+                pollInterval = Math.min(pollInterval * 2, MAXPOLLINTERVAL);
+            }
+
+            // the script only approximates the visibility check of WebDriver; let WebDriver have the last word
+            if (element != null && element.isDisplayed()) {
+                log("BaseElement:waitForElement() - " + by + " is displayed according to WebDriver, but not according to the readiness script.");
+                return element;
+            }
+        } catch (StaleElementReferenceException e) {
+            // the element was replaced while WebDriver was checking it; report it as not found
+        } catch (NoSuchElementException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new NoSuchElementException("BaseElement:waitForElement() - exception occurred:", e);
+        }
+
+        String elemClassName = this.getClass().getSimpleName();
+        String errMsg = "BaseElement:waitForElement() - timed out (" + timeoutInSeconds + " seconds) in waiting for "
+                + elemClassName + "(" + by.toString() + ") ";
+        if (quietPolls >= QUIETPOLLS) {
+            errMsg = "BaseElement:waitForElement() - the page is quiet, stopped waiting for "
+                    + elemClassName + "(" + by.toString() + ") ";
+        }
+        if (expectedElementState == CLICKABLE) {
+            errMsg += "to be present and clickable.";
+        } else {
+            errMsg += "to be present.";
+        }
+        throw new NoSuchElementException(errMsg);
+    }
+
+    /**
+     * This method waits for the given element with a {@link WebDriverWait}: first until it is present in the DOM,
+     * then until it is visible, and clickable if it is enabled.  It is the implementation of
+     * {@link #waitForElement(By, int, String)} used when the readiness script cannot be run.
+     *
+     * @param by                    the locator of the element
+     * @param timeoutInSeconds      the maximum number of seconds to wait
+     * @param expectedElementState  {@link #PRESENT} to only wait for the element to be present
+     * @return                      the element
+     * @throws NoSuchElementException if the element is not present, visible or clickable before the timeout
+     */
+    protected WebElement waitForElement_original(By by, int timeoutInSeconds, String expectedElementState) {
         try {
-            WebDriverWait wait_givenTimeout = new WebDriverWait(browser.driver, timeoutInSeconds);
+            WebDriverWait wait_givenTimeout = new WebDriverWait(browser().driver, timeoutInSeconds);
 
             // wait if any persence of the element is found in the DOM
             WebElement element = wait_givenTimeout.until(ExpectedConditions.presenceOfElementLocated(by));
@@ -385,7 +850,7 @@ public class BaseElement {
             webElement = getWebElement();
 
             // setting up the cursor movement action
-            builder = new Actions(browser.driver);
+            builder = new Actions(browser().driver);
             builder.moveToElement(webElement);
 
             // building and executing the cursor movement action
@@ -410,7 +875,7 @@ public class BaseElement {
             webElement = getWebElement();
 
             // setting up the cursor movement action
-            builder = new Actions(browser.driver);
+            builder = new Actions(browser().driver);
             builder.moveToElement(webElement,xOffset,yOffset);
 
             // building and executing the cursor movement action
@@ -428,58 +893,52 @@ public class BaseElement {
      *         <code>false</code> otherwise
      */
     public boolean hasCSSClass(String cssClassName) {
-        // first, check to see if the web element's locator is stubbed -- if so, then print out a message and return true
-        if (isStubbed()) {
-            log("=== This web element's locator is currently stubbed out. ===");
-            return true;
-        } else {
-            return ElementUtil.hasCSSClass(getWebElement(), cssClassName);
+        Instrumentation.Operation operation = Instrumentation.start(this, "hasCSSClass");
+        try {
+            // first, check to see if the web element's locator is stubbed -- if so, then print out a message and return true
+            if (isStubbed()) {
+                log("=== This web element's locator is currently stubbed out. ===");
+                return true;
+            } else {
+                ElementState freshState = getFreshState();
+                if (freshState != null && freshState.isDisplayed()) {
+                    return freshState.hasClass(cssClassName);
+                }
+                return ElementUtil.hasCSSClass(getWebElement(), cssClassName);
+            }
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
         }
     }
 
 
-    protected void clickWebElement (WebElement webElement) {
-        // declaring local variables
-        boolean itemFound = false;
-        boolean done = false;
-        long startTime;
-        int elapsedTime = 0;
-        startTime = System.nanoTime();
-
-        int timeOutSeconds = 30; // TODO CRAIG
-
-
-        // set start time
-        while (done == false) {
-
-            try {
-                webElement.click();
-                done = true;
-                itemFound = true;
-            } catch (Exception e) {
-
+    protected void clickWebElement (final WebElement webElement) {
+        Instrumentation.Operation operation = Instrumentation.start(this, "clickWebElement");
+        try {
+            // the click may change the state of the web element
+            Located lastLocated = this.located;
+            if (lastLocated != null) {
+                this.located = lastLocated.withState(null);
             }
 
-
-            if (itemFound == false) {
-
-                // get elapsed Time
-                elapsedTime = (int) TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
-
-                // If it has reached the timeout, stop checking; otherwise sleep and try again
-                if (elapsedTime >= timeOutSeconds) {
-                    done = true;
-                    break;
-                } else {
-                    // sleep(2, TimeUnit.SECONDS);
-                }
+            // the click is retried, with a growing wait between the attempts, until it succeeds or for at most 30 seconds
+            try {
+                RetryPolicy.CLICK.run("BaseElement::clickWebElement", new Runnable() {
+                    public void run() {
+                        webElement.click();
+                    }
+                });
+            } catch (WebDriverException e) {
+                throw new NoSuchElementException("*** FAILURE:  clickWebElement():  clicking on element failed", e);
             }
-        }
-
-        if (itemFound == false) {
-
-            throw new NoSuchElementException("*** FAILURE:  clickWebElement():  clicking on element failed");
-
+        } catch (RuntimeException e) {
+            operation.fail();
+            throw e;
+        } finally {
+            operation.stop();
         }
     }
 
@@ -494,7 +953,7 @@ public class BaseElement {
     public Boolean waitForElementTextToBe(By i, int timeoutInSeconds, String expectedElementText) {
         boolean gotElementWithText =false;
         try {
-            WebDriverWait wait_givenTimeout = new WebDriverWait(browser.driver, timeoutInSeconds);
+            WebDriverWait wait_givenTimeout = new WebDriverWait(browser().driver, timeoutInSeconds);
 
             // now wait and verify that the item is visible and clickable in the UI
             return wait_givenTimeout.until(ExpectedConditions.textToBePresentInElement(i, expectedElementText));
@@ -516,8 +975,30 @@ public class BaseElement {
             log("=== This web element's locator is currently stubbed out. The cursor will not be moved. ===");
         } else {
             // getting the web element with the default timeout
-            ((JavascriptExecutor) browser.driver).executeScript("$('" + cssLocator + "')[0].scrollIntoView(true);$('" + cssLocator + "').mouseenter();");
+            ((JavascriptExecutor) browser().driver).executeScript("$('" + cssLocator + "')[0].scrollIntoView(true);$('" + cssLocator + "').mouseenter();");
         }
     }
 
+
+    // The web element found the last time an element was located, in a browser and a page, with the expected state
+    // it was located with, and the last snapshot of its state; null if getState() was not called since.
+    private static final class Located {
+        final Browser browser;
+        final int navigation;
+        final WebElement element;
+        final String expectedState;
+        final ElementState state;
+
+        Located(Browser browser, int navigation, WebElement element, String expectedState, ElementState state) {
+            this.browser = browser;
+            this.navigation = navigation;
+            this.element = element;
+            this.expectedState = expectedState;
+            this.state = state;
+        }
+
+        Located withState(ElementState state) {
+            return new Located(this.browser, this.navigation, this.element, this.expectedState, state);
+        }
+    }
 }
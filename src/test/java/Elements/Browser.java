@@ -5,7 +5,13 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.SessionId;
 
 
 import javax.imageio.ImageIO;
@@ -15,6 +21,8 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 
 import static Helpers.Utility.fail;
@@ -52,6 +60,15 @@ public class Browser {
     private int originalHeight;
     private String locale;
     private String parentWindowHandle;
+    // the number of times the page was changed by this class; the web elements cached by the element classes are
+    // only reused while it does not change
+    private int navigationCount = 0;
+    // how the session was launched, its chromedriver service and when it started; see close()
+    private LaunchProfile launchProfile;
+    private ChromeDriverService driverService;
+    private long sessionStartTime;
+    // whether the Chrome performance log is enabled, for PageLoadReport
+    private boolean performanceLog;
 
     /**
      * Constructor for this class.  This only returns a reference to the browser class, but does not create a browser.
@@ -66,6 +83,7 @@ public class Browser {
 
     public void setDriver(WebDriver driver){
         this.driver = driver;
+        invalidateElements();
     }
 
     public WebDriver getDriver() {
@@ -98,6 +116,7 @@ public class Browser {
 
             // setting web driver for this browser based on the browser type
             this.setDriver();
+            invalidateElements();
 
             return this;
         }
@@ -125,26 +144,9 @@ public class Browser {
      */
     //------------------------------------------------------------------------------------------
     private void setDriver () throws InterruptedException {
-        // declaring local variables
-        File driverDir = null;
-        File chromePath = null;
-        File iePath = null;
-        File firefoxPath = null;
-
-        File f = new File(".");
-
-        // getting the absolute path where "devanshSelenium" is located
-        f.getAbsolutePath().toLowerCase().contains("devanshSelenium") ;
-
-
-        // check, first, to make sure that the driver directory has a value, and exists
-        if (!driverDir.exists()) {
-            // let the user know the driver path is not set
-            throw new RuntimeException("Unable to find the driver directory (" + driverDir.getAbsolutePath() + ") where the chromedriver.exe or IEDriverServer.exe resides.");
-        }
-
-                // determining which OS these tests are running on
-                chromePath = new File(driverDir.getAbsolutePath() + File.separator + "../src/test/java/drivers/chromedriver.exe");
+        // the chromedriver binary for this OS, and whether Chrome runs headless, are set by the launch profile
+        this.launchProfile = LaunchProfile.fromSystemProperties();
+        File chromePath = this.launchProfile.getDriverFile();
 
 
 //        // if rowser type is FireFox, then set the web driver to FireFox
@@ -173,21 +175,47 @@ public class Browser {
 
             // checking to see if chromePath exists
             if (chromePath.exists()) {
-                System.setProperty("webdriver.chrome.driver", chromePath.getAbsolutePath());
+                ChromeOptions options = this.launchProfile.toChromeOptions(this.browserWidth, this.browserHeight, locale);
+                DesiredCapabilities capabilities = DesiredCapabilities.chrome();
+                capabilities.setCapability(ChromeOptions.CAPABILITY, options);
+                this.performanceLog = Globals.recordPageLoads;
+                if (this.performanceLog) {
+                    LoggingPreferences logging = new LoggingPreferences();
+                    logging.enable(LogType.PERFORMANCE, Level.ALL);
+                    capabilities.setCapability(CapabilityType.LOGGING_PREFS, logging);
+                }
+                // the start-up time of each profile is reported with the latencies of the web element classes
+                Instrumentation.Operation operation = Instrumentation.start("Browser::start(" + this.launchProfile.getName() + ")");
                 try {
-                    ChromeOptions options = new ChromeOptions();
-                    if ( locale != null )
-                    {
-                        options.addArguments("–lang="+locale);
+                    try {
+                        this.driverService = this.launchProfile.createDriverService();
+                        this.driver = new CountingChromeDriver(this.driverService, capabilities);
+                    } catch (WebDriverException e) {
+                        // If opening the Chrome driver fails due to time out in communicating with the driver process,
+                        // stop that process and try again once.  The other driver processes are left alone: they may
+                        // be the sessions of BrowserPool, or of the other threads of a parallel run.
+                        log("Browser::setDriver() -- failed to open Chrome, trying again: " + e.getMessage());
+                        if (this.driverService != null) {
+                            this.driverService.stop();
+                        }
+                        Thread.sleep(1000);
+                        this.driverService = this.launchProfile.createDriverService();
+                        try {
+                            this.driver = new CountingChromeDriver(this.driverService, capabilities);
+                        } catch (WebDriverException retryException) {
+                            this.driverService.stop();
+                            this.driverService = null;
+                            throw retryException;
+                        }
                     }
-                    this.driver = new ChromeDriver(options);
-                } catch (WebDriverException e) {
-                    // If opening the Chrome driver fails due to time out in communicating with the driver process,
-                    // kill all of the existing driver processes and try again.
-                    this.killDriver();
-                    Thread.sleep(5000);
-                    this.driver = new ChromeDriver();
+                } catch (RuntimeException e) {
+                    operation.fail();
+                    throw e;
+                } finally {
+                    operation.stop();
                 }
+                this.sessionStartTime = System.nanoTime();
+                log("Browser::setDriver() -- opened Chrome with the " + this.launchProfile + " launch profile.");
             } else {
                 throw new RuntimeException(("Failed to find Chrome Selenium driver at " + chromePath.getAbsolutePath()));
             }
@@ -231,7 +259,13 @@ public class Browser {
         // in case the user is using an invalid URL, we need to give a nice message when this fails
         try {
             // navigating to the URL
+            invalidateElements();
+            // measure the screens of the page we are leaving
+            PageLoadReport.read(this);
             this.driver.get(URL);
+            // start tracking the activity of the page at once, for PageQuiescence, and its routes, for PageLoadReport
+            PageQuiescence.install(this);
+            PageLoadReport.install(this);
 
         } catch (Exception e) {
             log("============ DEBUG STATEMENTS ============");
@@ -243,31 +277,101 @@ public class Browser {
         }
     }
     /**
-     * This method kills the driver process.  For Chrome and IE, this process seems to hang around after the test finishes,
-     * and the browser is closed.  It's a good idea to use this method after you've closed the browser.
+     * This method invalidates the web elements cached by the element classes (see {@link BaseElement#invalidate()}),
+     * so that they are located again the next time they are used.  It is called when this class navigates to a new
+     * page; call it after any other action that replaces the page, e.g. clicking a link that loads a new page.
      */
-    private void killDriver () {
-        // declaring local variables
-        String driverStr="";
-        //String os = String.valueOf(OSUtil.getOS());
+    public void invalidateElements() {
+        this.navigationCount++;
+    }
 
+    /**
+     * This method returns the number of times the page was changed, as counted by {@link #invalidateElements()}.
+     *
+     * @return  the navigation count of this browser
+     */
+    public int getNavigationCount() {
+        return this.navigationCount;
+    }
 
-            if (this.browserType.equals(Browser.CHROME)) {
-                driverStr = "chromedriver.exe";
-            } else if (this.browserType.equals(Browser.IE)){
-                driverStr = "IEDriverService.exe";
-            }
+    /**
+     * This method checks whether the Chrome performance log of this browser is enabled (see
+     * {@link Globals#recordPageLoads}).
+     *
+     * @return  {@code true} if the performance log can be read
+     */
+    boolean hasPerformanceLog() {
+        return this.performanceLog && this.driver != null;
+    }
 
-            try {
-                Runtime rt = Runtime.getRuntime();
-                rt.exec("taskkill /f /im " + driverStr);
+    /**
+     * This method checks that the driver session of this browser still answers, in two WebDriver commands.  It is
+     * used by {@link BrowserPool} before handing out a session that was kept open.
+     *
+     * @return  {@code true} if the browser is open and can run a script; {@code false} otherwise
+     */
+    public boolean isHealthy() {
+        if (this.driver == null) {
+            return false;
+        }
+        try {
+            return !this.driver.getWindowHandles().isEmpty() && executeScript("return document.readyState;") != null;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
 
-            } catch (Exception e) {
-              //("ERROR:  Got an exception when trying to kill the " + driverStr + " process:");
-                e.printStackTrace();
+    /**
+     * This method brings the browser back to the state of a new session, without restarting it: it closes the windows
+     * opened since the browser was opened, clears the local and session storage of the current page, deletes the
+     * cookies, and shows a blank page at the original size.  It lets {@link BrowserPool} reuse the session for the
+     * next test.
+     *
+     * @throws WebDriverException if the browser could not be reset, e.g. because its first window was closed; the
+     *                            session should then be closed
+     */
+    public void reset() {
+        PageLoadReport.read(this);
+
+        // close the windows opened by the test, and go back to the first one
+        for (String windowHandle : this.driver.getWindowHandles()) {
+            if (!windowHandle.equals(this.parentWindowHandle)) {
+                this.driver.switchTo().window(windowHandle);
+                this.driver.close();
             }
         }
+        this.driver.switchTo().window(this.parentWindowHandle);
+
+        // the storage can only be cleared from a page of its origin, so it is cleared before leaving the page
+        try {
+            executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) { }");
+        } catch (WebDriverException e) {
+            // e.g. an alert is open; the next commands fail too if the browser is really unusable
+        }
+        this.driver.manage().deleteAllCookies();
+        this.driver.get("about:blank");
+        this.setSize(this.browserWidth, this.browserHeight);
+        invalidateElements();
+    }
 
+    /**
+     * This method closes the browser and ends its driver session.  The browser can be opened again with chrome().
+     */
+    public void close() {
+        if (this.driver == null) {
+            return;
+        }
+        PageLoadReport.read(this);
+        logSessionCpu();
+        try {
+            this.driver.quit();
+        } catch (WebDriverException e) {
+            log("Browser::close() -- exception caught when closing the browser: " + e.getMessage());
+        } finally {
+            this.driver = null;
+            invalidateElements();
+        }
+    }
 
     private static String getCurrentTimestamp(){
         //long time = Calendar.getInstance().getTimeInMillis();
@@ -293,6 +397,7 @@ public class Browser {
     /**
      * Takes a snapshot of the of the screen and saves it in a file in the <code>ServerTests/build/reports/screenshots</code> directory.
      * If there are two connected screens, the screenshot will be of the primary screen.
+     * The file is written in the background by {@link ScreenshotWriter}, so it may not exist yet when this method returns.
      * @param filename name of the snapshot file.  If a directory path is included as part of the filename, the directory path will be ignored.
      * @return path name of the snapshot file
      */
@@ -308,10 +413,6 @@ public class Browser {
         java.awt.Dimension screenSize;
         BufferedImage screenImage;
 
-        if (!screenShotDirectory.exists()) {
-            screenShotDirectory.mkdirs();
-        }
-
         //remove any directory path that might be included in the string.
         if (filename.contains(File.separator)){
             start = filename.lastIndexOf(File.separator) + + File.separator.length() ;
@@ -326,15 +427,13 @@ public class Browser {
         // setting the file name for this screen shot
         screenshotFileName = screenShotDirectory + File.separator + filename + "_" + ts + ".png";
 
-        // take the screenshot and save it to a file
+        // take the screenshot, and let ScreenshotWriter save it to a file in the background
         try{
 
                 // getting the screen shot
-                File screenshot = ((TakesScreenshot) this.driver).getScreenshotAs(OutputType.FILE);
+                byte[] screenshot = ((TakesScreenshot) this.driver).getScreenshotAs(OutputType.BYTES);
 
-                // changing the name of the screen shot to the screenshotFileName
-                screenshot.renameTo(new File(screenshotFileName));
-                log("Took screenshot and placed it in file " + screenshotFileName);
+                ScreenshotWriter.write(new File(screenshotFileName), screenshot);
 
         }catch (Exception e){
             String err = "INTERNAL LOGGING ERROR: Unable to capture screenshot.";
@@ -354,15 +453,66 @@ public class Browser {
     public WebElement findElement(final By by) {
         return this.driver.findElement(by);
     }
-}
-
-
-
-
-
 
+    /**
+     * Executes JavaScript code in the context of the currently selected frame or window.
+     * It simply redirects the call to the {@link JavascriptExecutor#executeScript executeScript}
+     * method of the underlying {@link WebDriver} instance.
+     * @param script the JavaScript code to execute
+     * @param args   the arguments to the script, available as <code>arguments[n]</code>; may be web elements
+     * @return the value returned by the script, converted as described by {@link JavascriptExecutor#executeScript}
+     */
+    public Object executeScript(String script, Object... args) {
+        return ((JavascriptExecutor) this.driver).executeScript(script, args);
+    }
 
+    /**
+     * Executes asynchronous JavaScript code in the context of the currently selected frame or window.
+     * It sets the script timeout of the underlying {@link WebDriver} instance to the specified timeout,
+     * then redirects the call to the {@link JavascriptExecutor#executeAsyncScript executeAsyncScript} method.
+     * The script signals its completion by calling the callback passed as its last argument.
+     * @param timeOutSeconds the maximum time to wait for the script to call its callback
+     * @param script the JavaScript code to execute
+     * @param args   the arguments to the script, available as <code>arguments[n]</code>; may be web elements
+     * @return the value passed by the script to its callback
+     * @throws TimeoutException thrown if the script does not call its callback before the timeout
+     */
+    public Object executeAsyncScript(int timeOutSeconds, String script, Object... args) {
+        this.driver.manage().timeouts().setScriptTimeout(timeOutSeconds, TimeUnit.SECONDS);
+        return ((JavascriptExecutor) this.driver).executeAsyncScript(script, args);
+    }
 
+    // Logs and records the CPU time used by the session, on Linux, so that the launch profiles can be compared.
+    private void logSessionCpu() {
+        if (this.driverService == null || this.driverService.getUrl() == null) {
+            return;
+        }
+        long cpuNanos = ProcessCpu.getTreeCpuNanos(this.driverService.getUrl().getPort());
+        if (cpuNanos < 0) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - this.sessionStartTime;
+        Instrumentation.recordDuration("Browser::sessionCpu(" + this.launchProfile.getName() + ")", cpuNanos);
+        log(String.format("Browser::close() -- the %s session used %.1f s of CPU in %.1f s.", this.launchProfile.getName(),
+                cpuNanos / 1e9, elapsedNanos / 1e9));
+    }
 
+    /**
+     * This driver counts the WebDriver commands it sends for {@link Instrumentation}, which measures how many of them
+     * each call of the web element classes costs.
+     */
+    private static class CountingChromeDriver extends ChromeDriver {
 
+        CountingChromeDriver(ChromeDriverService service, Capabilities capabilities) {
+            super(service, capabilities);
+        }
 
+        @Override
+        protected void log(SessionId sessionId, String commandName, Object toLog, When when) {
+            if (when == When.BEFORE) {
+                Instrumentation.countWireCall();
+            }
+            super.log(sessionId, commandName, toLog, when);
+        }
+    }
+}
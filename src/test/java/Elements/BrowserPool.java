@@ -0,0 +1,243 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.WebDriverException;
+
+import static Helpers.Utility.log;
+import static Helpers.Utility.warning;
+
+/**
+ * This class keeps Chrome sessions open between the tests, so that a test does not wait for chromedriver and Chrome
+ * to start.  A test checks a browser out, and checks it back in when it is done:
+ * <pre>
+ *   Browser browser = BrowserPool.checkout();
+ *   ...
+ *   BrowserPool.checkin(browser);
+ * </pre>
+ * A browser checked in is reset (see {@link Browser#reset()}): its extra windows are closed, and its cookies, local
+ * storage and session storage are cleared.  It is closed instead when it was marked failed by
+ * {@link #markFailed(Browser)}, when it cannot be reset, or after {@link Globals#browserMaxUses} checkouts.  A browser
+ * is health-checked (see {@link Browser#isHealthy()}) before it is checked out again.
+ * <p>
+ * {@link Globals#browserPoolSize} sessions are started in advance, in the background, and a new one is started each
+ * time one is checked out.  {@link #shutdown()} closes all the sessions.
+ */
+public final class BrowserPool {
+
+    // - - - - - Class attributes - - - - -
+
+    // the time a checkout waits for a session being started in the background, before starting one itself
+    private static final int STARTING_WAIT_SECONDS = 60;
+
+    private static final BlockingQueue<Browser> IDLE = new LinkedBlockingQueue<Browser>();
+    // the number of checkouts of each open session, checked out or idle
+    private static final Map<Browser, Integer> USES = new IdentityHashMap<Browser, Integer>();
+    private static final Set<Browser> CHECKED_OUT = Collections.newSetFromMap(new IdentityHashMap<Browser, Boolean>());
+    private static final Set<Browser> FAILED = Collections.newSetFromMap(new IdentityHashMap<Browser, Boolean>());
+    // the number of sessions being started in the background
+    private static final AtomicInteger STARTING = new AtomicInteger();
+
+    private static final ExecutorService STARTER = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "BrowserPool-starter-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private BrowserPool() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method starts sessions in the background until {@link Globals#browserPoolSize} of them are idle or being
+     * started.  It is called by each checkout; call it before the first one to have a session ready for it.
+     */
+    public static void warmUp() {
+        while (!STARTER.isShutdown() && IDLE.size() + STARTING.get() < Globals.browserPoolSize) {
+            STARTING.incrementAndGet();
+            try {
+                STARTER.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            Browser browser = open();
+                            if (browser != null && STARTER.isShutdown()) {
+                                // the pool was shut down while the session was starting
+                                discard(browser);
+                            } else if (browser != null) {
+                                IDLE.add(browser);
+                            }
+                        } finally {
+                            STARTING.decrementAndGet();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the pool is being shut down
+                STARTING.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * This method returns a browser for a test: an idle session that passes its health check, or a new one if there
+     * is none.  The browser shows a blank page, without cookies.
+     *
+     * @return  the browser, to check in with {@link #checkin(Browser)} when the test is done
+     * @throws RuntimeException if it fails to open Chrome
+     */
+    public static Browser checkout() throws InterruptedException {
+        Browser browser = takeIdle();
+        while (browser != null && !browser.isHealthy()) {
+            log("BrowserPool::checkout() -- closing a session that failed its health check");
+            discard(browser);
+            browser = takeIdle();
+        }
+        if (browser == null) {
+            browser = open();
+            if (browser == null) {
+                throw new RuntimeException("Failed to open Chrome for the browser pool");
+            }
+        }
+
+        synchronized (BrowserPool.class) {
+            USES.put(browser, USES.get(browser) + 1);
+            CHECKED_OUT.add(browser);
+        }
+        warmUp();
+        return browser;
+    }
+
+    /**
+     * This method returns a browser to the pool when a test is done with it.  The browser is reset for the next test,
+     * or closed if it was marked failed, if it cannot be reset, or if it was used {@link Globals#browserMaxUses}
+     * times.
+     *
+     * @param browser  the browser returned by {@link #checkout()}
+     */
+    public static void checkin(Browser browser) {
+        boolean recycle;
+        synchronized (BrowserPool.class) {
+            if (!CHECKED_OUT.remove(browser)) {
+                return;
+            }
+            recycle = FAILED.remove(browser) || USES.get(browser) >= Globals.browserMaxUses;
+        }
+
+        if (!recycle) {
+            try {
+                browser.reset();
+                IDLE.add(browser);
+                return;
+            } catch (WebDriverException e) {
+                log("BrowserPool::checkin() -- could not reset the browser, closing it: " + e.getMessage());
+            }
+        }
+        discard(browser);
+        warmUp();
+    }
+
+    /**
+     * This method marks a checked out browser as failed, e.g. after a test failed with it, so that it is closed
+     * instead of reset when it is checked in.
+     *
+     * @param browser  the browser returned by {@link #checkout()}
+     */
+    public static synchronized void markFailed(Browser browser) {
+        if (CHECKED_OUT.contains(browser)) {
+            FAILED.add(browser);
+        }
+    }
+
+    /**
+     * This method checks whether a browser is checked out of the pool, i.e. whether a test may still use it.
+     *
+     * @param browser  the browser
+     * @return         {@code true} if the browser was returned by {@link #checkout()} and not checked in since
+     */
+    public static synchronized boolean isCheckedOut(Browser browser) {
+        return CHECKED_OUT.contains(browser);
+    }
+
+    /**
+     * This method closes all the sessions of the pool, idle or checked out.  It is meant to be called after the suite.
+     * It stops starting sessions, and waits for the sessions being started, so that none of them is left open.
+     */
+    public static void shutdown() {
+        STARTER.shutdown();
+        try {
+            if (!STARTER.awaitTermination(STARTING_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                warning("BrowserPool::shutdown() -- " + STARTING.get() + " sessions were still starting after "
+                        + STARTING_WAIT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Browser[] browsers;
+        synchronized (BrowserPool.class) {
+            browsers = USES.keySet().toArray(new Browser[0]);
+        }
+        for (Browser browser : browsers) {
+            discard(browser);
+        }
+        IDLE.clear();
+    }
+
+    // Returns an idle session, waiting for one being started if there is none; null if there is none to wait for.
+    private static Browser takeIdle() throws InterruptedException {
+        Browser browser = IDLE.poll();
+        if (browser == null && STARTING.get() > 0) {
+            browser = IDLE.poll(STARTING_WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+        return browser;
+    }
+
+    // Opens a new session; returns null if Chrome could not be opened.
+    private static Browser open() {
+        try {
+            Browser browser = new Browser().chrome();
+            synchronized (BrowserPool.class) {
+                USES.put(browser, 0);
+            }
+            return browser;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (RuntimeException e) {
+            warning("BrowserPool::open() -- Failed to open Chrome: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void discard(Browser browser) {
+        synchronized (BrowserPool.class) {
+            USES.remove(browser);
+            CHECKED_OUT.remove(browser);
+            FAILED.remove(browser);
+        }
+        IDLE.remove(browser);
+        browser.close();
+    }
+}
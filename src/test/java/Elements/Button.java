@@ -238,6 +238,11 @@ public class Button extends BaseElement {
             returnValue = "VALUE";
             log("=== This button's locator is currently stubbed out. Returning value '" + returnValue + "' ===");
         } else {
+            ElementState freshState = getFreshState();
+            if (freshState != null && freshState.isDisplayed()) {
+                return freshState.getDataAttribute("data-tooltip");
+            }
+
             // getting the web element with the default timeout and then get its tooltip
             returnValue = getWebElement().getAttribute("data-tooltip");
         }
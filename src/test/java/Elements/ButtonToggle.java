@@ -144,7 +144,7 @@ public class ButtonToggle extends Button {
             log("=== This toggle button's locator is currently stubbed out. ===");
         } else {
 
-            webElement = browser.findElement(getLocator());
+            webElement = browser().findElement(getLocator());
             webElement.click();
         }
     }
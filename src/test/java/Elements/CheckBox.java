@@ -190,6 +190,11 @@ public class CheckBox extends BaseElement {
         if (isStubbed()) {
             log("=== This checkbox's locator is currently stubbed out. Returning value '" + returnValue + "' ===");
         } else {
+            ElementState freshState = getFreshState();
+            if (freshState != null && freshState.isDisplayed()) {
+                return freshState.isSelected();
+            }
+
             // getting the web element with the default timeout
             webElement = getWebElement();
 
@@ -0,0 +1,282 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import static Elements.Globals.browser;
+import static Helpers.Utility.warning;
+
+/**
+ * This class is a locator, or a path of nested lookups, compiled by {@link LocatorCompiler} into CSS selector steps.
+ * Its lookups run the steps inside the browser in a single script execution.  If the locator could not be compiled,
+ * or if the script fails, e.g. in a browser without {@code querySelectorAll}, the lookups fall back to the Selenium
+ * calls they replace, and give the same results.
+ * <p>
+ * Like the locators they replace, the lookups throw a {@link NoSuchElementException} when a web element is missing,
+ * and a {@link StaleElementReferenceException} when a context is no longer in the page.
+ */
+public final class CompiledLocator {
+
+    // - - - - - Class attributes - - - - -
+
+    private static final String SCRIPT =
+            "var contexts = arguments[0], hops = arguments[1], read = arguments[2], name = arguments[3];\n" +
+            "function matches(el, selector) {\n" +
+            "  var f = el.matches || el.msMatchesSelector || el.webkitMatchesSelector;\n" +
+            "  return f.call(el, selector);\n" +
+            "}\n" +
+            "function inDocumentOrder(a, b) {\n" +
+            "  return (a === b) ? 0 : ((a.compareDocumentPosition(b) & 2) ? 1 : -1);\n" +
+            "}\n" +
+            // the elements found from a single element are unique; those found from several are deduplicated with a
+            // Set, as an indexOf() per element would be quadratic in the number of elements
+            "function Collector(unique) {\n" +
+            "  this.els = [];\n" +
+            "  this.seen = (!unique && typeof Set === 'function') ? new Set() : null;\n" +
+            "  this.unique = unique;\n" +
+            "}\n" +
+            "Collector.prototype.add = function (el) {\n" +
+            "  if (this.unique) { this.els.push(el); }\n" +
+            "  else if (this.seen) { if (!this.seen.has(el)) { this.seen.add(el); this.els.push(el); } }\n" +
+            "  else if (this.els.indexOf(el) < 0) { this.els.push(el); }\n" +
+            "};\n" +
+            "function applyStep(els, step) {\n" +
+            "  var out = new Collector(els.length === 1);\n" +
+            "  for (var i = 0; i < els.length; i++) {\n" +
+            "    var el = els[i];\n" +
+            "    if (step.op === 'root') { out.add(document); }\n" +
+            "    else if (step.op === 'parent') { if (el.parentElement) { out.add(el.parentElement); } }\n" +
+            "    else if (step.op === 'children') {\n" +
+            "      for (var c = el.firstElementChild; c; c = c.nextElementSibling) {\n" +
+            "        if (matches(c, step.selector)) { out.add(c); }\n" +
+            "      }\n" +
+            "    } else {\n" +
+            "      var found = el.querySelectorAll(step.selector);\n" +
+            "      for (var j = 0; j < found.length; j++) { out.add(found[j]); }\n" +
+            "    }\n" +
+            "  }\n" +
+            "  return (els.length > 1) ? out.els.sort(inDocumentOrder) : out.els;\n" +
+            "}\n" +
+            "function resolve(context) {\n" +
+            "  var els = [context];\n" +
+            "  for (var h = 0; h < hops.length; h++) {\n" +
+            "    var next = new Collector(els.length === 1);\n" +
+            "    for (var k = 0; k < els.length; k++) {\n" +
+            "      var found = [els[k]];\n" +
+            "      for (var s = 0; s < hops[h].steps.length; s++) { found = applyStep(found, hops[h].steps[s]); }\n" +
+            "      if (hops[h].first) { found = found.slice(0, 1); }\n" +
+            "      for (var m = 0; m < found.length; m++) { next.add(found[m]); }\n" +
+            "    }\n" +
+            "    els = (els.length > 1) ? next.els.sort(inDocumentOrder) : next.els;\n" +
+            "  }\n" +
+            "  return els;\n" +
+            "}\n" +
+            // like WebElement.getText(), a web element that is not displayed has no text; innerText would return the
+            // text of an element with display:none, or with an opacity of 0
+            "function isShown(el) {\n" +
+            "  if (el.getClientRects().length === 0 || window.getComputedStyle(el).visibility !== 'visible') { return false; }\n" +
+            "  for (var e = el; e && e.nodeType === 1; e = e.parentElement) {\n" +
+            "    if (window.getComputedStyle(e).opacity === '0') { return false; }\n" +
+            "  }\n" +
+            "  return true;\n" +
+            "}\n" +
+            "function valueOf(el) {\n" +
+            "  if (read === 'text') {\n" +
+            "    if (!isShown(el)) { return ''; }\n" +
+            "    var text = (typeof el.innerText === 'string') ? el.innerText : el.textContent;\n" +
+            "    return (text || '').replace(/^\\s+|\\s+$/g, '');\n" +
+            "  }\n" +
+            "  var value = el[name === 'class' ? 'className' : name];\n" +
+            "  if (value === undefined || value === null || typeof value === 'object' || typeof value === 'function') {\n" +
+            "    value = el.getAttribute(name);\n" +
+            "  }\n" +
+            "  return (value === null || value === undefined) ? null : String(value);\n" +
+            "}\n" +
+            "if (read === 'elements') { return resolve(contexts[0] || document); }\n" +
+            "var values = [];\n" +
+            "for (var i = 0; i < contexts.length; i++) {\n" +
+            "  var els = resolve(contexts[i] || document);\n" +
+            "  values.push(els.length === 0 ? { missing: true } : { value: valueOf(els[0]) });\n" +
+            "}\n" +
+            "return values;\n";
+
+    private final By[] locators;
+    // whether the locators are a path of nested findElement() calls, instead of a single findElements()
+    private final boolean path;
+    // the compiled steps; null if the locators could not be compiled
+    private final List<Map<String, Object>> hops;
+    // set when the script cannot run in this browser, so that the next lookups fall back without trying it again
+    private volatile boolean scriptFailed = false;
+
+
+    // - - - - - Constructor - - - - -
+
+    CompiledLocator(By[] locators, boolean path, List<Map<String, Object>> hops) {
+        this.locators = locators;
+        this.path = path;
+        this.hops = hops;
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method checks whether the locator was compiled, so that its lookups run in a single script execution.
+     *
+     * @return  {@code true} if the locator was compiled; {@code false} if its lookups fall back to Selenium
+     */
+    public boolean isCompiled() {
+        return this.hops != null && !this.scriptFailed;
+    }
+
+    /**
+     * This method finds the web elements of this locator, or the web element at the end of this path, in a context.
+     *
+     * @param context  the context of the lookup, e.g. a web element or the driver
+     * @return         the web elements, in document order; empty if there is none
+     */
+    public List<WebElement> findElements(SearchContext context) {
+        if (isCompiled()) {
+            List<WebElement> returnValue = ElementUtil.scriptResult(run(toArguments(context), "elements", null));
+            if (returnValue != null) {
+                return returnValue;
+            }
+        }
+        return findElementsWithSelenium(context);
+    }
+
+    /**
+     * This method finds the first web element of this locator, or the web element at the end of this path, in a
+     * context.
+     *
+     * @param context  the context of the lookup, e.g. a web element or the driver
+     * @return         the web element
+     * @throws NoSuchElementException if there is no such web element
+     */
+    public WebElement findElement(SearchContext context) {
+        List<WebElement> webElements = findElements(context);
+        if (webElements.isEmpty()) {
+            throw new NoSuchElementException("Cannot locate an element using " + this);
+        }
+        return webElements.get(0);
+    }
+
+    /**
+     * This method returns the text of the first web element of this locator in each of the specified contexts, as
+     * {@code context.findElement(locator).getText()} does, in a single script execution.  The text is the visible
+     * text of the web element, trimmed; it is empty for a web element that is not displayed.
+     *
+     * @param contexts  the contexts of the lookups, e.g. the rows of a table
+     * @return          the texts, one per context
+     * @throws NoSuchElementException if one of the contexts has no such web element
+     */
+    public List<String> getTexts(List<WebElement> contexts) {
+        return readValues(contexts, "text", null);
+    }
+
+    /**
+     * This method returns the value of an attribute of the first web element of this locator in each of the
+     * specified contexts, as {@code context.findElement(locator).getAttribute(name)} does, in a single script
+     * execution.
+     *
+     * @param contexts  the contexts of the lookups, e.g. the rows of a table
+     * @param name      the name of the attribute, e.g. "class"
+     * @return          the values, one per context; {@code null} for a web element without the attribute
+     * @throws NoSuchElementException if one of the contexts has no such web element
+     */
+    public List<String> getAttributes(List<WebElement> contexts, String name) {
+        return readValues(contexts, "attribute", name);
+    }
+
+    @Override
+    public String toString() {
+        return (this.path ? "path " : "") + Arrays.toString(this.locators) + (isCompiled() ? " compiled to " + this.hops : "");
+    }
+
+    private List<String> readValues(List<WebElement> contexts, String read, String name) {
+        if (isCompiled() && !contexts.isEmpty()) {
+            List<Map<String, Object>> values = ElementUtil.scriptResult(run(new ArrayList<Object>(contexts), read, name));
+            if (values != null) {
+                List<String> returnValue = new ArrayList<String>();
+                for (Map<String, Object> value : values) {
+                    if (Boolean.TRUE.equals(value.get("missing"))) {
+                        throw new NoSuchElementException("Cannot locate an element using " + this);
+                    }
+                    returnValue.add((String) value.get("value"));
+                }
+                return returnValue;
+            }
+        }
+
+        List<String> returnValue = new ArrayList<String>();
+        for (WebElement context : contexts) {
+            WebElement webElement = findElement(context);
+            returnValue.add(read.equals("text") ? webElement.getText() : webElement.getAttribute(name));
+        }
+        return returnValue;
+    }
+
+    // Runs the script; returns null if it failed for another reason than a stale context, after which the lookup
+    // falls back to Selenium.  Only a script error turns the script off for the next lookups: the other failures,
+    // e.g. an alert that is open or a page being replaced, would fail the Selenium calls the same way.
+    private Object run(List<Object> contexts, String read, String name) {
+        try {
+            return browser().executeScript(SCRIPT, contexts, this.hops, read, name);
+        } catch (StaleElementReferenceException e) {
+            throw e;
+        } catch (WebDriverException e) {
+            if (isScriptError(e)) {
+                this.scriptFailed = true;
+                warning("CompiledLocator -- The lookup script failed for " + Arrays.toString(this.locators)
+                        + ", using Selenium instead: " + e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    // Whether the script itself cannot run, e.g. a step selector that this browser does not support.  Selenium 2.53
+    // has no exception of its own for a script error; the drivers report it as "javascript error".
+    static boolean isScriptError(WebDriverException e) {
+        if (e instanceof UnsupportedCommandException) {
+            return true;
+        }
+        String message = e.getMessage();
+        return message != null && message.toLowerCase().contains("javascript error");
+    }
+
+    // The script gets no context for the document.
+    private static List<Object> toArguments(SearchContext context) {
+        return (context instanceof WebElement) ? Collections.<Object>singletonList(context) : Collections.emptyList();
+    }
+
+    private List<WebElement> findElementsWithSelenium(SearchContext context) {
+        if (!this.path) {
+            return context.findElements(this.locators[0]);
+        }
+        SearchContext current = context;
+        for (int i = 0; i < this.locators.length - 1; i++) {
+            List<WebElement> webElements = current.findElements(this.locators[i]);
+            if (webElements.isEmpty()) {
+                return webElements;
+            }
+            current = webElements.get(0);
+        }
+        List<WebElement> webElements = current.findElements(this.locators[this.locators.length - 1]);
+        return webElements.isEmpty() ? webElements : new ArrayList<WebElement>(webElements.subList(0, 1));
+    }
+}
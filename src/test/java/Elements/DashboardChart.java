@@ -181,7 +181,7 @@ public class DashboardChart extends BaseElement {
             returnList = new String[]{};
         } else {
             // Obtains the chart element
-            WebElement chartLegend = browser.findElement(legendLocator);
+            WebElement chartLegend = browser().findElement(legendLocator);
 
             // Obtains all of the legend label elements
             List<WebElement> yAxisLabelElements = chartLegend.findElements(By.cssSelector("li .hp-key .hp-name"));
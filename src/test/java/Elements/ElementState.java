@@ -0,0 +1,175 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is an immutable snapshot of the state of a web element, taken with {@link BaseElement#getState()} in a
+ * single script execution.  It is meant for tests that check several properties of the same web element:
+ * <pre>
+ *   ElementState state = okButton.getState();
+ *   assert state.isDisplayed() &amp;&amp; state.isEnabled() &amp;&amp; state.hasClass("hp-primary");
+ * </pre>
+ * While the snapshot is younger than {@link Globals#stateMaxAge}, the getters of the web element classes, e.g.
+ * {@link BaseElement#isEnabled()}, return its values instead of querying the browser again.
+ * <p>
+ * The visibility and the text are computed by a script, and approximate {@link org.openqa.selenium.WebElement#isDisplayed()}
+ * and {@link org.openqa.selenium.WebElement#getText()}.
+ */
+public final class ElementState {
+
+    // - - - - - Class attributes - - - - -
+
+    private final long timestamp;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final List<String> classes;
+    private final String text;
+    private final String value;
+    private final boolean checked;
+    private final boolean selected;
+    private final Map<String, String> dataAttributes;
+
+
+    // - - - - - Constructors - - - - -
+
+    /**
+     * Constructor of a snapshot from the values returned by the state script of {@link BaseElement}.
+     *
+     * @param values  the values returned by the script
+     */
+    ElementState(Map<String, Object> values) {
+        this.timestamp = System.nanoTime();
+        this.displayed = Boolean.TRUE.equals(values.get("displayed"));
+        this.enabled = Boolean.TRUE.equals(values.get("enabled"));
+        this.text = toText(values.get("text"));
+        this.value = (values.get("value") == null) ? null : values.get("value").toString();
+        this.checked = Boolean.TRUE.equals(values.get("checked"));
+        this.selected = Boolean.TRUE.equals(values.get("selected"));
+
+        String className = toText(values.get("className")).trim();
+        this.classes = className.isEmpty()
+                ? Collections.<String>emptyList()
+                : Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(className.split("\\s+"))));
+
+        Map<String, String> data = new LinkedHashMap<String, String>();
+        Object dataValues = values.get("data");
+        if (dataValues instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) dataValues).entrySet()) {
+                data.put(entry.getKey().toString(), toText(entry.getValue()));
+            }
+        }
+        this.dataAttributes = Collections.unmodifiableMap(data);
+    }
+
+    /**
+     * This method returns the snapshot of a stubbed out web element: displayed and enabled, with the text "VALUE".
+     *
+     * @return  a snapshot for a stubbed out web element
+     */
+    static ElementState stubbed() {
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        values.put("displayed", true);
+        values.put("enabled", true);
+        values.put("text", "VALUE");
+        values.put("value", "VALUE");
+        return new ElementState(values);
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /** @return  whether the web element is displayed */
+    public boolean isDisplayed() {
+        return this.displayed;
+    }
+
+    /** @return  whether the web element is enabled, as checked by {@link BaseElement#isEnabled()} */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /** @return  the CSS classes of the web element */
+    public List<String> getClasses() {
+        return this.classes;
+    }
+
+    /**
+     * @param cssClassName  a CSS class name
+     * @return              whether the web element has the specified CSS class
+     */
+    public boolean hasClass(String cssClassName) {
+        return this.classes.contains(cssClassName);
+    }
+
+    /** @return  the visible text of the web element, trimmed */
+    public String getText() {
+        return this.text;
+    }
+
+    /** @return  the value of the web element, e.g. the content of a text field; {@code null} if it has none */
+    public String getValue() {
+        return this.value;
+    }
+
+    /** @return  whether the web element is checked: a checked check box or radio button, or aria-checked="true" */
+    public boolean isChecked() {
+        return this.checked;
+    }
+
+    /** @return  whether the web element is selected, as {@link org.openqa.selenium.WebElement#isSelected()} returns */
+    public boolean isSelected() {
+        return this.selected;
+    }
+
+    /** @return  the data-* attributes of the web element, by attribute name, e.g. "data-tooltip" */
+    public Map<String, String> getDataAttributes() {
+        return this.dataAttributes;
+    }
+
+    /**
+     * @param name  the name of the attribute, with or without the "data-" prefix
+     * @return      the value of the data-* attribute; {@code null} if the web element does not have it
+     */
+    public String getDataAttribute(String name) {
+        return this.dataAttributes.get(name.startsWith("data-") ? name : "data-" + name);
+    }
+
+    /**
+     * This method returns the time elapsed since this snapshot was taken.
+     *
+     * @return  the age of this snapshot, in milliseconds
+     */
+    public long getAge() {
+        return TimeUnit.MILLISECONDS.convert(System.nanoTime() - this.timestamp, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * This method checks whether this snapshot can still be used instead of querying the browser.
+     *
+     * @return  {@code true} if this snapshot is younger than {@link Globals#stateMaxAge}
+     */
+    public boolean isFresh() {
+        return getAge() < Globals.stateMaxAge;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementState{displayed=" + this.displayed + ", enabled=" + this.enabled + ", classes=" + this.classes
+                + ", text='" + this.text + "', value=" + this.value + ", checked=" + this.checked
+                + ", selected=" + this.selected + ", data=" + this.dataAttributes + "}";
+    }
+
+    private static String toText(Object value) {
+        return (value == null) ? "" : value.toString();
+    }
+}
@@ -150,4 +150,19 @@ public class ElementUtil
         }
         return textArray;
     }
+
+    /**
+     * This method returns a value returned by a script, e.g. by {@link Browser#executeScript(String, Object...)}, as
+     * the map or list that the script builds.  The browser returns maps, lists, strings, numbers, booleans and
+     * {@link WebElement} instances, and only the caller knows which of them its script returns, so the cast cannot
+     * be checked.
+     *
+     * @param  value  the value returned by the script, or a part of it
+     * @param  <T>    the type of the value built by the script, e.g. {@code Map<String, Object>}
+     * @return the same value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T scriptResult(Object value) {
+        return (T) value;
+    }
 }
@@ -12,12 +12,122 @@ public class Globals {
     /**
      * This global Browser object is used throughout the screen and web element classes.  Once the browser is set (in the
      * test itself, all screen and web elements classes use it.
+     * <p>
+     * It is the browser of the threads that have not bound one with {@link #bindBrowser(Browser)}; the screen and web
+     * element classes get the browser of their thread with {@link #browser()}.
      */
     public static Browser browser = new Browser();
 
+    // the browser of each thread of a parallel run; see bindBrowser()
+    private static final ThreadLocal<Browser> THREAD_BROWSER = new ThreadLocal<Browser>();
+
     /**
      * This constant is used for to wait for a maximum amount of time to see if a web element exists.  This constant
      * is also used as a maximum for waiting to see if a UI screen or panel is available.
      */
     public static final int ELEMENTTIMEOUT = 120;  // seconds
+
+    /**
+     * This variable is the maximum age of the {@link ElementState} snapshot taken by {@link BaseElement#getState()}
+     * that the getters of the web element classes reuse instead of querying the browser.  Set it to 0 to always
+     * query the browser.
+     */
+    public static long stateMaxAge = 1000;  // milliseconds
+
+    /**
+     * This variable turns on the recording of the latencies of the web element classes by {@link Instrumentation}.
+     */
+    public static boolean recordLatencies = true;
+
+    /**
+     * This variable turns on the timeouts derived by {@link AdaptiveTimeouts} from the durations of the previous
+     * waits.  Set it to {@code false} to always wait for the full timeouts, e.g. on a slower system than usual.
+     */
+    public static boolean adaptiveTimeouts = true;
+
+    /**
+     * This variable lets the negative checks of the web element classes, {@link BaseElement#isAbsent(int)} and
+     * {@link BaseElement#isHidden(int)}, stop waiting as soon as the page is quiet (see {@link PageQuiescence})
+     * without the web element.  Set it to {@code false} to always wait out their timeouts.  The positive waits, e.g.
+     * {@link BaseElement#exists(int)}, always wait out their timeouts.
+     */
+    public static boolean fastNegativeChecks = true;
+
+    /**
+     * This variable lets the web element classes and the helpers wait for the page to be quiet (see
+     * {@link PageQuiescence#settle(long)}) where they used to sleep for a fixed time to let the UI settle.  Set it to
+     * {@code false} to sleep for the fixed times again.
+     */
+    public static boolean settleOnQuiescence = true;
+
+    /**
+     * This variable turns on the page load report of {@link PageLoadReport}: the browsers opened while it is
+     * {@code true} enable the Chrome performance log, and the screens they show are measured.  It is off by default,
+     * because the performance log slows Chrome down a little.
+     */
+    public static boolean recordPageLoads = false;
+
+    /**
+     * This variable is the number of browser sessions that {@link BrowserPool} keeps started in advance, so that a
+     * test gets one without waiting for Chrome to start.  Set it to 0 to only start a session when one is needed.
+     */
+    public static int browserPoolSize = 1;
+
+    /**
+     * This variable is the number of tests after which {@link BrowserPool} closes a browser session and starts a new
+     * one, instead of resetting it for the next test.
+     */
+    public static int browserMaxUses = 20;
+
+    /**
+     * This variable lets the login of the tests restore the session kept by {@code Helpers.SessionSnapshot} after a
+     * previous login of the same user on the same server, instead of logging in through the UI.  Set it to
+     * {@code false} to always log in through the UI, e.g. to test the Log In screen itself.
+     */
+    public static boolean reuseLoginSessions = true;
+
+    /**
+     * This variable is the maximum size of the screenshots directory.  {@link ScreenshotWriter} deletes the oldest
+     * screenshots to keep the directory under it.
+     */
+    public static long screenshotDiskCap = 500L * 1024 * 1024;  // bytes
+
+
+    /**
+     * This method returns the browser used by the screen and web element classes in the current thread: the browser
+     * bound to the thread by {@link #bindBrowser(Browser)}, or the global {@link #browser} if none was.
+     *
+     * @return  the browser of the current thread
+     */
+    public static Browser browser() {
+        Browser threadBrowser = THREAD_BROWSER.get();
+        return (threadBrowser != null) ? threadBrowser : browser;
+    }
+
+    /**
+     * This method binds a browser to the current thread, so that the screen and web element classes use it in this
+     * thread.  It lets the tests run in parallel, e.g. with TestNG's parallel="methods", each thread with its own
+     * browser.
+     *
+     * @param threadBrowser  the browser of the current thread
+     */
+    public static void bindBrowser(Browser threadBrowser) {
+        THREAD_BROWSER.set(threadBrowser);
+    }
+
+    /**
+     * This method unbinds the browser of the current thread, which uses the global {@link #browser} again.
+     */
+    public static void unbindBrowser() {
+        THREAD_BROWSER.remove();
+    }
+
+    /**
+     * This method checks whether a browser was bound to the current thread by {@link #bindBrowser(Browser)}.
+     *
+     * @return  {@code true} if the current thread has its own browser
+     */
+    public static boolean hasBoundBrowser() {
+        return THREAD_BROWSER.get() != null;
+    }
 }
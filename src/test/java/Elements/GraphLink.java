@@ -13,6 +13,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 
@@ -34,7 +35,7 @@ public class GraphLink extends BaseElement {
 
 	//  - - - - - Class Methods - - - - -
 	public WebElement getDummyElement(String id) {
-		return browser.findElement(By.id(id));
+		return browser().findElement(By.id(id));
 	}
 	/**
 	 * This method returns a list switch boxes that are a part of this graph link.
@@ -175,16 +176,16 @@ public class GraphLink extends BaseElement {
 	 *
 	 * @param ele WebElement to hover over
 	 */
-	public void hoverElement(WebElement ele) {
-		int attempts = 0;
-		while(attempts < 2) {
-			try {
-				Actions action = new Actions(browser.driver);
-				action.moveToElement(ele).build().perform();
-				break;
-			} catch(Exception e) {
-			}
-			attempts++;
+	public void hoverElement(final WebElement ele) {
+		try {
+			RetryPolicy.BEST_EFFORT.run("GraphLink::hoverElement", new Runnable() {
+				public void run() {
+					Actions action = new Actions(browser().driver);
+					action.moveToElement(ele).build().perform();
+				}
+			});
+		} catch(WebDriverException e) {
+			// the hover is only cosmetic; the policy has already logged the failure
 		}
 	}
 
@@ -194,19 +195,20 @@ public class GraphLink extends BaseElement {
 	 * @return  A list of graph ports in WebElement form.
 	 */
 	public List<List<WebElement>> getPorts() {
-		List<List<WebElement>> ports = new ArrayList<List<WebElement>>();
-		int attempts = 0;
-		while(attempts < 2) {
-			try {
-				for(WebElement s : getSwitches()) {
-					ports.add(s.findElements(By.className("hp-up-port")));
+		try {
+			// each attempt builds a new list, so the ports of a switch are not added twice
+			return RetryPolicy.BEST_EFFORT.call("GraphLink::getPorts", new RetryPolicy.Attempt<List<List<WebElement>>>() {
+				public List<List<WebElement>> run() {
+					List<List<WebElement>> ports = new ArrayList<List<WebElement>>();
+					for(WebElement s : getSwitches()) {
+						ports.add(s.findElements(By.className("hp-up-port")));
+					}
+					return ports;
 				}
-				break;
-			} catch(Exception e) {
-			}
-			attempts++;
+			});
+		} catch(WebDriverException e) {
+			return new ArrayList<List<WebElement>>();
 		}
-		return ports;
 	}
 
 	/**
@@ -215,7 +217,7 @@ public class GraphLink extends BaseElement {
 	 * @return  A boolean value true if the flyout exists and is displayed.
 	 */
 	public boolean flyoutExists() {
-		if(browser.findElement(By.className("hp-flyout")) != null) {
+		if(browser().findElement(By.className("hp-flyout")) != null) {
 			return true;
 		} else {
 			return false;
@@ -230,49 +232,49 @@ public class GraphLink extends BaseElement {
 	public boolean validatePortDetails() {
 		boolean result = false;
 		if(flyoutExists()) {
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.className("hp-name")).getText() != null) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.className("hp-name")).getText() != null) {
 				result = true;
 			} else {
 				result = false;
 				log("Port ID not displayed");
 			}
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.cssSelector("label[for=rc-port-type]")).getText().equals("Protocol")) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.cssSelector("label[for=rc-port-type]")).getText().equals("Protocol")) {
 				result = true && result;
 			} else {
 				result = false;
 				log("Port type label not displayed");
 			}
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.id("rc-port-type")).getText() != null) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.id("rc-port-type")).getText() != null) {
 				result = true && result;
 			} else {
 				result = false;
 				log("Port type not displayed");
 			}
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.cssSelector("label[for=rc-port-addr]")).getText().equals("Address")) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.cssSelector("label[for=rc-port-addr]")).getText().equals("Address")) {
 				result = true && result;
 			} else {
 				result = false;
 				log("Port address label not displayed");
 			}
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.id("rc-port-addr")).getText() != null) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.id("rc-port-addr")).getText() != null) {
 				result = true && result;
 			} else {
 				result = false;
 				log("Port address not displayed");
 			}
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.cssSelector("label[for=rc-port-speed]")).getText().equals("Speed")) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.cssSelector("label[for=rc-port-speed]")).getText().equals("Speed")) {
 				result = true && result;
 			} else {
 				result = false;
 				log("Port speed label not displayed");
 			}
-			if(browser.findElement(By.className("hp-flyout")).findElement(By.id("rc-port-speed")).getText() != null) {
+			if(browser().findElement(By.className("hp-flyout")).findElement(By.id("rc-port-speed")).getText() != null) {
 				result = true && result;
 			} else {
 				result = false;
 				log("Port speed not displayed");
 			}
-			WebElement e = browser.findElement(By.id("ssmc-rc-ports-table"));
+			WebElement e = browser().findElement(By.id("ssmc-rc-ports-table"));
 			if(e != null) {
 				result = true && result;
 			} else {
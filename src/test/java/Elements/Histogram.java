@@ -0,0 +1,141 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+/**
+ * This class is a histogram of non-negative values, e.g. durations in microseconds, that is cheap enough to record
+ * every call of a web element.  The buckets are log-linear: the values 0 to 7 each have their own bucket, and each
+ * power of 2 above is split into 8 buckets, so a percentile is within 12.5% of the exact value whatever the range
+ * of the values.  The histogram only keeps the 488 bucket counters, the count, the sum and the maximum.
+ * <p>
+ * The methods are synchronized, so a histogram can be recorded by several threads.
+ */
+public final class Histogram {
+
+    // - - - - - Class attributes - - - - -
+
+    // each power of 2 is split into 2^SUB_BUCKET_BITS buckets
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method records a value.  Negative values are recorded as 0.
+     *
+     * @param value  the value to record
+     */
+    public synchronized void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        this.counts[bucketOf(value)]++;
+        this.count++;
+        this.sum += value;
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+
+    /**
+     * This method adds the values recorded by another histogram to this one.
+     *
+     * @param other  the histogram to add
+     */
+    public void add(Histogram other) {
+        long[] otherCounts;
+        long otherCount;
+        long otherSum;
+        long otherMax;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+            otherCount = other.count;
+            otherSum = other.sum;
+            otherMax = other.max;
+        }
+        synchronized (this) {
+            for (int i = 0; i < BUCKETS; i++) {
+                this.counts[i] += otherCounts[i];
+            }
+            this.count += otherCount;
+            this.sum += otherSum;
+            this.max = Math.max(this.max, otherMax);
+        }
+    }
+
+    /** @return  the number of recorded values */
+    public synchronized long getCount() {
+        return this.count;
+    }
+
+    /** @return  the sum of the recorded values */
+    public synchronized long getSum() {
+        return this.sum;
+    }
+
+    /** @return  the largest recorded value; 0 if none was recorded */
+    public synchronized long getMax() {
+        return this.max;
+    }
+
+    /** @return  the mean of the recorded values; 0 if none was recorded */
+    public synchronized double getMean() {
+        return (this.count == 0) ? 0 : (double) this.sum / this.count;
+    }
+
+    /**
+     * This method returns an estimate of a percentile of the recorded values: the upper bound of the bucket that
+     * holds it, but never more than the largest recorded value.
+     *
+     * @param percentile  the percentile, between 0 and 100, e.g. 95 for the 95th percentile
+     * @return            the estimate of the percentile; 0 if no value was recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+
+        // the rank of the value, starting with 1
+        long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * this.count);
+        rank = Math.max(rank, 1);
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    // Returns the bucket of a non-negative value.
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Returns the largest value of a bucket.
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (SUB_BUCKETS + (bucket % SUB_BUCKETS)) * width;
+        return lowerBound + width - 1;
+    }
+}
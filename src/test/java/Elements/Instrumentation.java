@@ -0,0 +1,360 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static Helpers.Utility.log;
+import static Helpers.Utility.warning;
+
+/**
+ * This class measures the calls of the web element classes.  For each operation, i.e. each (element class, method,
+ * locator), it records in {@link Histogram}s the wall time of the calls and the number of WebDriver commands they
+ * sent, and counts the retries done by {@link RetryPolicy} during the calls:
+ * <pre>
+ *   Instrumentation.Operation operation = Instrumentation.start(this, "getRowText");
+ *   try {
+ *       ...
+ *   } catch (RuntimeException e) {
+ *       operation.fail();
+ *       throw e;
+ *   } finally {
+ *       operation.stop();
+ *   }
+ * </pre>
+ * The calls that threw are recorded by {@link Operation#fail()} as a separate operation, named after the operation
+ * followed by " (failed)", so that e.g. the full timeouts of the lookups that failed do not skew the p95 and p99
+ * of the calls that succeeded.  An operation that is neither stopped nor failed is not recorded.  The WebDriver
+ * commands are counted by the driver created by {@link Browser#chrome()}; with another driver, the operations are
+ * recorded with no commands.
+ * <p>
+ * The operations are recorded for the whole suite, and for the current test of the thread, set by
+ * {@link #startTest(String)}.  {@link #export()} writes the p50, p95 and p99 of each operation, per test and for the
+ * suite, to build/reports/performance/latencies.json and latencies.csv.
+ * <p>
+ * Set {@link Globals#recordLatencies} to {@code false} to record nothing.
+ */
+public final class Instrumentation {
+
+    // - - - - - Class attributes - - - - -
+
+    private static final String REPORT_DIRECTORY = "build" + File.separator + "reports" + File.separator + "performance";
+    private static final String SUITE = "suite";
+    private static final String FAILED = " (failed)";
+
+    // the operations of the whole suite, by name
+    private static final ConcurrentMap<String, OperationStats> SUITE_STATS = new ConcurrentHashMap<String, OperationStats>();
+    // the operations of each test, by test name and operation name, in the order the tests ran
+    private static final Map<String, ConcurrentMap<String, OperationStats>> TEST_STATS = new LinkedHashMap<String, ConcurrentMap<String, OperationStats>>();
+
+    // the WebDriver commands and the retries of the thread: counting them per thread is what allows an operation
+    // to take their difference between its start and its stop
+    private static final ThreadLocal<long[]> COUNTERS = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+    private static final int WIRE_CALLS = 0;
+    private static final int RETRIES = 1;
+
+    // the operations of the current test of the thread; null outside of a test
+    private static final ThreadLocal<ConcurrentMap<String, OperationStats>> CURRENT_TEST = new ThreadLocal<ConcurrentMap<String, OperationStats>>();
+
+    private Instrumentation() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method starts measuring a call of a web element.  The operation is named after the class of the web
+     * element, the method and the locator, e.g. "Table::getRowText(By.id: volumesTable)".
+     *
+     * @param element  the web element
+     * @param method   the name of the method
+     * @return         the operation, to stop when the call returns, or to fail when it throws
+     */
+    public static Operation start(BaseElement element, String method) {
+        if (!Globals.recordLatencies) {
+            return Operation.DISABLED;
+        }
+        return new Operation(element.getName() + "::" + method + "(" + element.getLocator() + ")");
+    }
+
+    /**
+     * This method starts measuring an operation that is not a call of a web element, e.g. a navigation.
+     *
+     * @param name  the name of the operation
+     * @return      the operation, to stop when it is done
+     */
+    public static Operation start(String name) {
+        if (!Globals.recordLatencies) {
+            return Operation.DISABLED;
+        }
+        return new Operation(name);
+    }
+
+    /**
+     * This method records an operation measured by the caller, with no WebDriver commands, e.g. the CPU time used by
+     * a browser session.
+     *
+     * @param name          the name of the operation
+     * @param elapsedNanos  the measured time, in nanoseconds
+     */
+    public static void recordDuration(String name, long elapsedNanos) {
+        if (Globals.recordLatencies) {
+            record(name, elapsedNanos, 0, 0);
+        }
+    }
+
+    /**
+     * This method is called by the driver of {@link Browser} for each WebDriver command it sends.
+     */
+    static void countWireCall() {
+        COUNTERS.get()[WIRE_CALLS]++;
+    }
+
+    /**
+     * This method is called by {@link RetryPolicy} for each retry.
+     */
+    static void countRetry() {
+        COUNTERS.get()[RETRIES]++;
+    }
+
+    /**
+     * This method starts recording the operations of the current thread for a test, in addition to the suite.
+     * If a test of the same name was already recorded, e.g. a test run with several data sets, the operations are
+     * added to it.
+     *
+     * @param testName  the name of the test, e.g. "MyTest.testCreateVolume"
+     */
+    public static void startTest(String testName) {
+        ConcurrentMap<String, OperationStats> testStats;
+        synchronized (TEST_STATS) {
+            testStats = TEST_STATS.get(testName);
+            if (testStats == null) {
+                testStats = new ConcurrentHashMap<String, OperationStats>();
+                TEST_STATS.put(testName, testStats);
+            }
+        }
+        CURRENT_TEST.set(testStats);
+    }
+
+    /**
+     * This method stops recording the operations of the current thread for the test set by {@link #startTest(String)}.
+     */
+    public static void endTest() {
+        CURRENT_TEST.remove();
+    }
+
+    /**
+     * This method forgets all recorded operations.
+     */
+    public static void reset() {
+        SUITE_STATS.clear();
+        synchronized (TEST_STATS) {
+            TEST_STATS.clear();
+        }
+    }
+
+    /**
+     * This method writes the recorded operations to build/reports/performance/latencies.json and latencies.csv,
+     * under the working directory.  For each operation of the suite and of each test, it writes the count of the
+     * calls, the p50, p95, p99, maximum and mean of their wall time in milliseconds, the p50, p95, p99 and total of
+     * their WebDriver commands, and the total of their retries.  Failing to write the files is only logged, so
+     * that it does not fail the suite.
+     */
+    public static void export() {
+        File directory = new File(System.getProperty("user.dir"), REPORT_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            warning("Instrumentation::export -- Could not create the directory " + directory.getAbsolutePath());
+            return;
+        }
+
+        // the rows of the report: the suite first, then the tests in the order they ran
+        Map<String, List<Map<String, Object>>> report = new LinkedHashMap<String, List<Map<String, Object>>>();
+        report.put(SUITE, toRows(SUITE_STATS));
+        synchronized (TEST_STATS) {
+            for (Map.Entry<String, ConcurrentMap<String, OperationStats>> entry : TEST_STATS.entrySet()) {
+                report.put(entry.getKey(), toRows(entry.getValue()));
+            }
+        }
+
+        File jsonFile = new File(directory, "latencies.json");
+        File csvFile = new File(directory, "latencies.csv");
+        try {
+            writeJson(jsonFile, report);
+            writeCsv(csvFile, report);
+            log("Latencies of " + SUITE_STATS.size() + " operations written to " + jsonFile.getAbsolutePath() + " and " + csvFile.getName());
+        } catch (IOException e) {
+            warning("Instrumentation::export -- Could not write the latencies: " + e.getMessage());
+        }
+    }
+
+    private static void record(String name, long elapsedNanos, long wireCalls, long retries) {
+        statsFor(SUITE_STATS, name).record(elapsedNanos, wireCalls, retries);
+        ConcurrentMap<String, OperationStats> testStats = CURRENT_TEST.get();
+        if (testStats != null) {
+            statsFor(testStats, name).record(elapsedNanos, wireCalls, retries);
+        }
+    }
+
+    private static OperationStats statsFor(ConcurrentMap<String, OperationStats> stats, String name) {
+        OperationStats operationStats = stats.get(name);
+        if (operationStats == null) {
+            operationStats = new OperationStats();
+            OperationStats existing = stats.putIfAbsent(name, operationStats);
+            if (existing != null) {
+                operationStats = existing;
+            }
+        }
+        return operationStats;
+    }
+
+    // Returns a row per operation, sorted by name.
+    private static List<Map<String, Object>> toRows(Map<String, OperationStats> stats) {
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (Map.Entry<String, OperationStats> entry : new TreeMap<String, OperationStats>(stats).entrySet()) {
+            Histogram latencies = entry.getValue().latencies;
+            Histogram wireCalls = entry.getValue().wireCalls;
+
+            Map<String, Object> row = new LinkedHashMap<String, Object>();
+            row.put("operation", entry.getKey());
+            row.put("count", latencies.getCount());
+            row.put("p50Millis", toMillis(latencies.getPercentile(50)));
+            row.put("p95Millis", toMillis(latencies.getPercentile(95)));
+            row.put("p99Millis", toMillis(latencies.getPercentile(99)));
+            row.put("maxMillis", toMillis(latencies.getMax()));
+            row.put("meanMillis", toMillis(latencies.getMean()));
+            row.put("wireCallsP50", wireCalls.getPercentile(50));
+            row.put("wireCallsP95", wireCalls.getPercentile(95));
+            row.put("wireCallsP99", wireCalls.getPercentile(99));
+            row.put("wireCalls", wireCalls.getSum());
+            row.put("retries", entry.getValue().retries.getSum());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // The latencies are recorded in microseconds; the report has milliseconds with 3 decimals.
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    private static void writeJson(File file, Map<String, List<Map<String, Object>>> report) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeCsv(File file, Map<String, List<Map<String, Object>>> report) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            writer.write("scope,operation,count,p50Millis,p95Millis,p99Millis,maxMillis,meanMillis,"
+                    + "wireCallsP50,wireCallsP95,wireCallsP99,wireCalls,retries\n");
+            for (Map.Entry<String, List<Map<String, Object>>> entry : report.entrySet()) {
+                for (Map<String, Object> row : entry.getValue()) {
+                    StringBuilder line = new StringBuilder(toCsvField(entry.getKey()));
+                    for (Object value : row.values()) {
+                        line.append(',').append(toCsvField(String.valueOf(value)));
+                    }
+                    writer.write(line.append('\n').toString());
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String toCsvField(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+
+    /**
+     * A call being measured, started by {@link Instrumentation#start(BaseElement, String)}.
+     */
+    public static final class Operation {
+
+        // the operation returned while the instrumentation is disabled
+        private static final Operation DISABLED = new Operation(null);
+
+        private final String name;
+        private final long startTime;
+        private final long startWireCalls;
+        private final long startRetries;
+        private boolean stopped;
+
+        private Operation(String name) {
+            long[] counters = COUNTERS.get();
+            this.name = name;
+            this.startWireCalls = counters[WIRE_CALLS];
+            this.startRetries = counters[RETRIES];
+            this.startTime = System.nanoTime();
+        }
+
+        /**
+         * This method stops measuring the call and records it.  Only the first call of this method, or of
+         * {@link #fail()}, records it.
+         */
+        public void stop() {
+            finish(this.name);
+        }
+
+        /**
+         * This method stops measuring a call that threw an exception and records it as a failed call of the
+         * operation.  Only the first call of this method, or of {@link #stop()}, records it.
+         */
+        public void fail() {
+            finish(this.name == null ? null : this.name + FAILED);
+        }
+
+        private void finish(String recordedName) {
+            if (this.stopped || recordedName == null) {
+                return;
+            }
+            this.stopped = true;
+
+            long elapsedNanos = System.nanoTime() - this.startTime;
+            long[] counters = COUNTERS.get();
+            record(recordedName, elapsedNanos, counters[WIRE_CALLS] - this.startWireCalls, counters[RETRIES] - this.startRetries);
+        }
+    }
+
+    // The histograms of an operation.
+    private static final class OperationStats {
+        final Histogram latencies = new Histogram();
+        final Histogram wireCalls = new Histogram();
+        final Histogram retries = new Histogram();
+
+        void record(long elapsedNanos, long wireCalls, long retries) {
+            this.latencies.record(TimeUnit.MICROSECONDS.convert(elapsedNanos, TimeUnit.NANOSECONDS));
+            this.wireCalls.record(wireCalls);
+            this.retries.record(retries);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * This class describes how {@link Browser} launches Chrome: the chromedriver binary for the operating system, and
+ * whether Chrome runs headed or headless.  It is read from the system properties:
+ * <ul>
+ *   <li>"browser.profile": "headless" or "headed".  By default, Chrome runs headless on a Linux system without a
+ *       display (no DISPLAY variable), and headed otherwise.</li>
+ *   <li>"webdriver.chrome.driver": the chromedriver binary.  By default, it is chromedriver.exe in the driver
+ *       directory on Windows, and linux/chromedriver or mac/chromedriver in it on the other systems.</li>
+ *   <li>"browser.driver.dir": the driver directory, by default src/test/java/drivers in the working directory.</li>
+ *   <li>"browser.chrome.binary": the Chrome binary, if it is not the one found by chromedriver.</li>
+ *   <li>"browser.chrome.args": more Chrome arguments, separated by commas, e.g. "--no-sandbox" in a container.</li>
+ * </ul>
+ * A headless Chrome gets a fixed window size, the size of the browser, and the flags that turn off the GPU and the
+ * rendering work that a test does not need.
+ */
+public final class LaunchProfile {
+
+    // - - - - - Class attributes - - - - -
+
+    /** The profile of a Chrome shown on the display. */
+    public static final String HEADED = "headed";
+    /** The profile of a Chrome without a window. */
+    public static final String HEADLESS = "headless";
+
+    private static final String PROFILE_PROPERTY = "browser.profile";
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final String DRIVER_DIR_PROPERTY = "browser.driver.dir";
+    private static final String BINARY_PROPERTY = "browser.chrome.binary";
+    private static final String ARGUMENTS_PROPERTY = "browser.chrome.args";
+
+    // the flags that cut the rendering and GPU work of a headless Chrome
+    private static final List<String> HEADLESS_ARGUMENTS = Collections.unmodifiableList(Arrays.asList(
+            "--headless",
+            "--disable-gpu",
+            "--hide-scrollbars",
+            "--mute-audio",
+            "--disable-extensions",
+            "--disable-background-networking",
+            "--disable-default-apps",
+            "--disable-dev-shm-usage",
+            "--no-first-run"));
+
+    private final String name;
+    private final File driverFile;
+    private final String chromeBinary;
+    private final List<String> extraArguments;
+
+
+    // - - - - - Constructor - - - - -
+
+    private LaunchProfile(String name, File driverFile, String chromeBinary, List<String> extraArguments) {
+        this.name = name;
+        this.driverFile = driverFile;
+        this.chromeBinary = chromeBinary;
+        this.extraArguments = extraArguments;
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method reads the launch profile from the system properties.  See the description of this class.
+     *
+     * @return  the launch profile
+     * @throws RuntimeException if "browser.profile" is neither "headless" nor "headed"
+     */
+    public static LaunchProfile fromSystemProperties() {
+        String name = System.getProperty(PROFILE_PROPERTY);
+        if (name == null || name.trim().isEmpty()) {
+            boolean linux = System.getProperty("os.name", "").toLowerCase().contains("linux");
+            name = (linux && System.getenv("DISPLAY") == null) ? HEADLESS : HEADED;
+        }
+        name = name.trim().toLowerCase();
+        if (!name.equals(HEADLESS) && !name.equals(HEADED)) {
+            throw new RuntimeException("Unknown browser profile '" + name + "' in the system property " + PROFILE_PROPERTY
+                    + "; use '" + HEADLESS + "' or '" + HEADED + "'.");
+        }
+
+        List<String> extraArguments = new ArrayList<String>();
+        String arguments = System.getProperty(ARGUMENTS_PROPERTY);
+        if (arguments != null) {
+            for (String argument : arguments.split(",")) {
+                if (!argument.trim().isEmpty()) {
+                    extraArguments.add(argument.trim());
+                }
+            }
+        }
+
+        return new LaunchProfile(name, findDriverFile(), System.getProperty(BINARY_PROPERTY), extraArguments);
+    }
+
+    /**
+     * This method returns the name of the profile.
+     *
+     * @return  {@link #HEADLESS} or {@link #HEADED}
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * This method checks whether Chrome runs without a window.
+     *
+     * @return  {@code true} if Chrome runs headless
+     */
+    public boolean isHeadless() {
+        return HEADLESS.equals(this.name);
+    }
+
+    /**
+     * This method returns the chromedriver binary of this profile.
+     *
+     * @return  the chromedriver binary; it may not exist
+     */
+    public File getDriverFile() {
+        return this.driverFile;
+    }
+
+    /**
+     * This method creates the chromedriver service of a new session, on a free port.
+     *
+     * @return  the service, started by the driver that uses it
+     */
+    public ChromeDriverService createDriverService() {
+        return new ChromeDriverService.Builder()
+                .usingDriverExecutable(this.driverFile)
+                .usingAnyFreePort()
+                .build();
+    }
+
+    /**
+     * This method returns the Chrome options of a new session.
+     *
+     * @param width   the width of the browser window
+     * @param height  the height of the browser window
+     * @param locale  the language of the browser, e.g. "ja"; {@code null} for the language of the system
+     * @return        the Chrome options
+     */
+    public ChromeOptions toChromeOptions(int width, int height, String locale) {
+        ChromeOptions options = new ChromeOptions();
+        if (this.chromeBinary != null && !this.chromeBinary.trim().isEmpty()) {
+            options.setBinary(this.chromeBinary.trim());
+        }
+        if (isHeadless()) {
+            options.addArguments(HEADLESS_ARGUMENTS);
+            // a headless window has no size of its own
+            options.addArguments("--window-size=" + width + "," + height);
+        }
+        if (locale != null) {
+            options.addArguments("--lang=" + locale);
+        }
+        options.addArguments(this.extraArguments);
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + " (" + this.driverFile.getAbsolutePath() + ")";
+    }
+
+    private static File findDriverFile() {
+        String fileName = System.getProperty(DRIVER_PROPERTY);
+        if (fileName != null && !fileName.trim().isEmpty()) {
+            return new File(fileName.trim());
+        }
+
+        String directoryName = System.getProperty(DRIVER_DIR_PROPERTY);
+        File directory = (directoryName == null || directoryName.trim().isEmpty())
+                ? new File(System.getProperty("user.dir"), "src" + File.separator + "test" + File.separator + "java" + File.separator + "drivers")
+                : new File(directoryName.trim());
+
+        if (isWindows()) {
+            return new File(directory, "chromedriver.exe");
+        }
+        String os = System.getProperty("os.name", "").toLowerCase();
+        return new File(new File(directory, os.contains("mac") ? "mac" : "linux"), "chromedriver");
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+    }
+}
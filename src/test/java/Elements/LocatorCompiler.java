@@ -0,0 +1,359 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.pagefactory.ByChained;
+
+/**
+ * This class compiles locators into CSS selector steps that {@link CompiledLocator} runs inside the browser with
+ * {@code querySelectorAll}, in a single script execution, instead of one WebDriver command per locator and per
+ * element.  For example, the nested lookups
+ * <pre>
+ *   node.findElement(By.className("hp-name")).findElement(By.tagName("a")).getText()
+ * </pre>
+ * done for each node of a graph become
+ * <pre>
+ *   private static final CompiledLocator NAME_LINK = LocatorCompiler.compilePath(By.className("hp-name"), By.tagName("a"));
+ *   ...
+ *   List&lt;String&gt; names = NAME_LINK.getTexts(nodes);
+ * </pre>
+ * The following locators are compiled:
+ * <ul>
+ *   <li>By.id, By.className (a single class name), By.tagName, By.name and By.cssSelector;</li>
+ *   <li>{@link ByChained} of locators that are compiled;</li>
+ *   <li>By.xpath with a path of steps separated by "/" or "//", each of them "..", ".", "*" or an element name,
+ *       optionally followed by predicates: a position such as [2] or [last()], [@attribute],
+ *       [@attribute='value'], [contains(@attribute, 'value')] and [starts-with(@attribute, 'value')].  A position
+ *       must come before the other predicates of its step.  The path may start with ".", ".//", or "//" to search
+ *       the whole document.</li>
+ * </ul>
+ * Any other locator, e.g. By.linkText, {@link org.openqa.selenium.support.pagefactory.ByAll}, or an XPath with
+ * axes, functions or unions, is not compiled, and the {@link CompiledLocator} falls back to the Selenium lookups.
+ */
+public final class LocatorCompiler {
+
+    // - - - - - Class attributes - - - - -
+
+    // the operations of a step, applied to each element of the current result
+    static final String DESCENDANTS = "descendants";
+    static final String CHILDREN = "children";
+    static final String PARENT = "parent";
+    static final String ROOT = "root";
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][\\w\\-.]*");
+    private static final Pattern POSITION = Pattern.compile("\\d+");
+    private static final Pattern ATTRIBUTE = Pattern.compile("@([A-Za-z_][\\w\\-]*)");
+    private static final Pattern ATTRIBUTE_EQUALS = Pattern.compile("@([A-Za-z_][\\w\\-]*)\\s*=\\s*('[^']*'|\"[^\"]*\")");
+    private static final Pattern ATTRIBUTE_FUNCTION = Pattern.compile(
+            "(contains|starts-with)\\(\\s*@([A-Za-z_][\\w\\-]*)\\s*,\\s*('[^']*'|\"[^\"]*\")\\s*\\)");
+
+    private LocatorCompiler() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method compiles a locator, to find the web elements that {@code context.findElements(locator)} finds.
+     *
+     * @param locator  the locator
+     * @return         the compiled locator; it falls back to the Selenium lookup if the locator cannot be compiled
+     */
+    public static CompiledLocator compile(By locator) {
+        List<Map<String, Object>> steps = compileSteps(locator);
+        List<Map<String, Object>> hops = null;
+        if (steps != null) {
+            hops = Collections.singletonList(hop(steps, false));
+        }
+        return new CompiledLocator(new By[] { locator }, false, hops);
+    }
+
+    /**
+     * This method compiles a path of nested lookups, to find the web element that
+     * {@code context.findElement(path[0]).findElement(path[1])...} finds: at each step of the path, the first web
+     * element found by the locator.
+     *
+     * @param path  the locators of the nested lookups
+     * @return      the compiled path; it falls back to the Selenium lookups if one of the locators cannot be compiled
+     */
+    public static CompiledLocator compilePath(By... path) {
+        List<Map<String, Object>> hops = new ArrayList<Map<String, Object>>();
+        for (By locator : path) {
+            List<Map<String, Object>> steps = compileSteps(locator);
+            if (steps == null) {
+                hops = null;
+                break;
+            }
+            hops.add(hop(steps, true));
+        }
+        return new CompiledLocator(path.clone(), true, hops);
+    }
+
+    // Returns the steps of a locator; null if it cannot be compiled.
+    static List<Map<String, Object>> compileSteps(By locator) {
+        if (locator instanceof ByChained) {
+            By[] bys = chainedLocators((ByChained) locator);
+            if (bys == null) {
+                return null;
+            }
+            List<Map<String, Object>> steps = new ArrayList<Map<String, Object>>();
+            for (By by : bys) {
+                List<Map<String, Object>> chainedSteps = compileSteps(by);
+                if (chainedSteps == null) {
+                    return null;
+                }
+                steps.addAll(chainedSteps);
+            }
+            return steps;
+        }
+
+        if (locator instanceof By.ById) {
+            return Collections.singletonList(step(DESCENDANTS, "[id=" + quote(valueOf(locator, "By.id: ")) + "]"));
+        }
+        if (locator instanceof By.ByClassName) {
+            String className = valueOf(locator, "By.className: ");
+            // Selenium rejects compound class names
+            if (className == null || className.trim().isEmpty() || className.trim().contains(" ")) {
+                return null;
+            }
+            return Collections.singletonList(step(DESCENDANTS, "[class~=" + quote(className.trim()) + "]"));
+        }
+        if (locator instanceof By.ByTagName) {
+            String tagName = valueOf(locator, "By.tagName: ");
+            if (tagName == null || !NAME.matcher(tagName).matches()) {
+                return null;
+            }
+            return Collections.singletonList(step(DESCENDANTS, tagName));
+        }
+        if (locator instanceof By.ByName) {
+            return Collections.singletonList(step(DESCENDANTS, "[name=" + quote(valueOf(locator, "By.name: ")) + "]"));
+        }
+        if (locator instanceof By.ByCssSelector) {
+            String selector = valueOf(locator, "By.cssSelector: ");
+            if (selector == null || selector.trim().isEmpty()) {
+                return null;
+            }
+            return Collections.singletonList(step(DESCENDANTS, selector));
+        }
+        if (locator instanceof By.ByXPath) {
+            String xpath = valueOf(locator, "By.xpath: ");
+            return (xpath == null) ? null : compileXPath(xpath.trim());
+        }
+        return null;
+    }
+
+    // Returns the steps of a relative or absolute XPath location path; null if it cannot be compiled.
+    static List<Map<String, Object>> compileXPath(String xpath) {
+        List<Map<String, Object>> steps = new ArrayList<Map<String, Object>>();
+        int i = 0;
+        String operation = CHILDREN;
+
+        if (xpath.startsWith("//")) {
+            steps.add(step(ROOT, null));
+            operation = DESCENDANTS;
+            i = 2;
+        } else if (xpath.startsWith("/")) {
+            // a path from the root node, e.g. "/html/body"
+            steps.add(step(ROOT, null));
+            i = 1;
+        }
+
+        while (i < xpath.length()) {
+            int end = endOfStep(xpath, i);
+            if (end < 0) {
+                return null;
+            }
+            String step = xpath.substring(i, end).trim();
+
+            if (step.equals("..")) {
+                if (operation.equals(DESCENDANTS)) {
+                    return null;
+                }
+                steps.add(step(PARENT, null));
+            } else if (step.equals(".")) {
+                // the same elements; but a following "//" still searches their descendants
+                if (operation.equals(DESCENDANTS)) {
+                    return null;
+                }
+            } else {
+                String selector = compileXPathStep(step);
+                if (selector == null) {
+                    return null;
+                }
+                steps.add(step(operation, selector));
+            }
+
+            if (end == xpath.length()) {
+                return steps.isEmpty() ? null : steps;
+            }
+            if (xpath.startsWith("//", end)) {
+                operation = DESCENDANTS;
+                i = end + 2;
+            } else {
+                operation = CHILDREN;
+                i = end + 1;
+            }
+        }
+        // the path ends with "/"
+        return null;
+    }
+
+    // Returns the end of the step that starts at the specified index: the next "/" outside of predicates and
+    // quotes, or the end of the path; -1 if the brackets or quotes are not balanced.
+    private static int endOfStep(String xpath, int start) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = start; i < xpath.length(); i++) {
+            char c = xpath.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (c == '/' && depth == 0) {
+                return i;
+            }
+        }
+        return (depth == 0 && quote == 0) ? xpath.length() : -1;
+    }
+
+    // Returns the CSS selector of an XPath step, e.g. "td[2]" or "div[contains(@class, 'hp-name')]"; null if it
+    // cannot be compiled.
+    private static String compileXPathStep(String step) {
+        int bracket = step.indexOf('[');
+        String name = (bracket < 0) ? step : step.substring(0, bracket).trim();
+        if (!name.equals("*") && !NAME.matcher(name).matches()) {
+            return null;
+        }
+
+        StringBuilder selector = new StringBuilder(name);
+        boolean hasAttributePredicate = false;
+        int i = bracket;
+        while (i >= 0 && i < step.length()) {
+            if (step.charAt(i) != '[') {
+                return null;
+            }
+            int end = endOfPredicate(step, i);
+            if (end < 0) {
+                return null;
+            }
+            String predicate = step.substring(i + 1, end).trim();
+            i = end + 1;
+            while (i < step.length() && step.charAt(i) == ' ') {
+                i++;
+            }
+
+            Matcher matcher;
+            if (POSITION.matcher(predicate).matches() || predicate.equals("last()")) {
+                // a position counts the elements that pass the previous predicates, which CSS cannot do
+                if (hasAttributePredicate) {
+                    return null;
+                }
+                boolean anyElement = name.equals("*");
+                if (predicate.equals("last()")) {
+                    selector.append(anyElement ? ":last-child" : ":last-of-type");
+                } else {
+                    selector.append(anyElement ? ":nth-child(" : ":nth-of-type(").append(Integer.parseInt(predicate)).append(')');
+                }
+                continue;
+            }
+
+            hasAttributePredicate = true;
+            if ((matcher = ATTRIBUTE_EQUALS.matcher(predicate)).matches()) {
+                selector.append('[').append(matcher.group(1)).append('=').append(quote(unquote(matcher.group(2)))).append(']');
+            } else if ((matcher = ATTRIBUTE_FUNCTION.matcher(predicate)).matches()) {
+                String operator = matcher.group(1).equals("contains") ? "*=" : "^=";
+                String value = unquote(matcher.group(3));
+                if (value.isEmpty()) {
+                    // contains(@a, '') is true for any element with the attribute, but [a*=""] matches nothing
+                    selector.append('[').append(matcher.group(2)).append(']');
+                } else {
+                    selector.append('[').append(matcher.group(2)).append(operator).append(quote(value)).append(']');
+                }
+            } else if ((matcher = ATTRIBUTE.matcher(predicate)).matches()) {
+                selector.append('[').append(matcher.group(1)).append(']');
+            } else {
+                return null;
+            }
+        }
+        return selector.toString();
+    }
+
+    // Returns the index of the "]" that closes the predicate opened at the specified index; -1 if there is none.
+    private static int endOfPredicate(String step, int start) {
+        char quote = 0;
+        for (int i = start + 1; i < step.length(); i++) {
+            char c = step.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                return -1;
+            } else if (c == ']') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Map<String, Object> step(String operation, String selector) {
+        Map<String, Object> step = new LinkedHashMap<String, Object>();
+        step.put("op", operation);
+        step.put("selector", selector);
+        return step;
+    }
+
+    private static Map<String, Object> hop(List<Map<String, Object>> steps, boolean first) {
+        Map<String, Object> hop = new LinkedHashMap<String, Object>();
+        hop.put("steps", steps);
+        hop.put("first", first);
+        return hop;
+    }
+
+    // The value of a Selenium locator, e.g. "foo" for By.id("foo"), read from its description.
+    private static String valueOf(By locator, String prefix) {
+        String description = locator.toString();
+        return description.startsWith(prefix) ? description.substring(prefix.length()) : null;
+    }
+
+    // The locators of a ByChained, which does not expose them; null if they cannot be read.
+    private static By[] chainedLocators(ByChained locator) {
+        try {
+            Field field = ByChained.class.getDeclaredField("bys");
+            field.setAccessible(true);
+            return (By[]) field.get(locator);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // A CSS string, e.g. "foo" for foo.
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\a ") + "\"";
+    }
+
+    // The value of an XPath string literal, e.g. foo for 'foo'.
+    private static String unquote(String literal) {
+        return literal.substring(1, literal.length() - 1);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ByChained;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static Helpers.Utility.log;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * This class checks the translation of locators by {@link LocatorCompiler}, and that the lookups of a
+ * {@link CompiledLocator} give the same results as the Selenium calls they replace, on the local page
+ * src/test/java/Fixtures/locators.html, in less time.  The checks of the lookups need Chrome and the chromedriver
+ * of the {@link LaunchProfile}; they are skipped when Chrome cannot be opened.
+ */
+public class LocatorCompilerTest {
+
+    // - - - - - Class attributes - - - - -
+
+    // the number of times each lookup is timed, after a first run that is not
+    private static final int TIMED_RUNS = 20;
+
+    private static final File FIXTURE = new File(System.getProperty("user.dir"),
+            "src" + File.separator + "test" + File.separator + "java" + File.separator + "Fixtures" + File.separator + "locators.html");
+
+    // the locators looked up in the whole page, compiled and with Selenium
+    private static final List<By> PAGE_LOCATORS = Arrays.asList(
+            By.id("volumesTable"),
+            By.className("hp-name"),
+            By.tagName("td"),
+            By.cssSelector("tr.hp-selected > td"),
+            By.xpath("//tr[@data-id='2']/td[2]"),
+            By.xpath("//td/span[contains(@class, 'hp-name')]/a"),
+            By.xpath("//li[starts-with(@class, 'node')]"),
+            By.xpath("//tr[last()]/td[1]"),
+            By.xpath("//ul/*[2]"),
+            By.xpath("//a[@title]"),
+            By.xpath("//a[contains(@title, '')]"),
+            By.xpath("/html/body/ul/li"),
+            new ByChained(By.id("volumesTable"), By.xpath(".//tr[2]")));
+
+    // the locators looked up in each row of the table
+    private static final List<By> ROW_LOCATORS = Arrays.asList(
+            By.xpath("td"),
+            By.xpath("./td[2]"),
+            By.xpath(".//a"),
+            By.xpath("td[3]/div[contains(@class, 'hp-status')]"),
+            By.xpath(".."),
+            By.xpath("../tr[1]"));
+
+    private Browser browser;
+
+
+    // - - - - - Set up - - - - -
+
+    @BeforeClass
+    public void openFixture() throws InterruptedException {
+        LaunchProfile profile = LaunchProfile.fromSystemProperties();
+        if (!profile.getDriverFile().isFile()) {
+            this.browser = null;
+            return;
+        }
+        try {
+            this.browser = new Browser().chrome();
+        } catch (RuntimeException e) {
+            this.browser = null;
+            return;
+        }
+        Globals.bindBrowser(this.browser);
+        this.browser.navigate(FIXTURE.toURI().toString());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void closeFixture() {
+        if (this.browser != null) {
+            Globals.unbindBrowser();
+            this.browser.close();
+        }
+    }
+
+
+    // - - - - - Translation - - - - -
+
+    @Test
+    public void compilesXPathSteps() {
+        assertEquals(stepsOf("td[2]"), Arrays.asList("children td:nth-of-type(2)"));
+        assertEquals(stepsOf("./td[last()]"), Arrays.asList("children td:last-of-type"));
+        assertEquals(stepsOf("*[1]"), Arrays.asList("children *:nth-child(1)"));
+        assertEquals(stepsOf(".//span[@data-id='x']"), Arrays.asList("descendants span[data-id=\"x\"]"));
+        assertEquals(stepsOf("../li[starts-with(@id, 'row')]"), Arrays.asList("parent", "children li[id^=\"row\"]"));
+        assertEquals(stepsOf("a[@href]"), Arrays.asList("children a[href]"));
+        assertEquals(stepsOf("/html/body"), Arrays.asList("root", "children html", "children body"));
+        assertEquals(stepsOf("//div[contains(@class, 'hp-name')]/a"),
+                Arrays.asList("root", "descendants div[class*=\"hp-name\"]", "children a"));
+    }
+
+    @Test
+    public void compilesAnEmptyContainsToAnAttributeTest() {
+        // [title*=""] would match nothing
+        assertEquals(stepsOf("a[contains(@title, '')]"), Arrays.asList("children a[title]"));
+    }
+
+    @Test
+    public void quotesTheValuesOfTheSelectors() {
+        assertEquals(stepsOf("a[@title='say \"hi\"']"), Arrays.asList("children a[title=\"say \\\"hi\\\"\"]"));
+    }
+
+    @Test
+    public void leavesTheUnsupportedXPathsToSelenium() {
+        assertNull(LocatorCompiler.compileXPath("following-sibling::li"));
+        assertNull(LocatorCompiler.compileXPath("//a | //b"));
+        assertNull(LocatorCompiler.compileXPath("li[text()='x']"));
+        // a position after an attribute predicate counts the elements that pass it
+        assertNull(LocatorCompiler.compileXPath("td[@class='x'][2]"));
+        assertNull(LocatorCompiler.compileXPath("//.."));
+        assertNull(LocatorCompiler.compileXPath("a/"));
+        assertNull(LocatorCompiler.compileXPath("td[2"));
+    }
+
+    @Test
+    public void compilesTheSeleniumLocators() {
+        assertEquals(stepsOf(By.id("volumesTable")), Arrays.asList("descendants [id=\"volumesTable\"]"));
+        assertEquals(stepsOf(By.className("hp-name")), Arrays.asList("descendants [class~=\"hp-name\"]"));
+        assertEquals(stepsOf(By.name("user")), Arrays.asList("descendants [name=\"user\"]"));
+        assertEquals(stepsOf(new ByChained(By.tagName("tr"), By.xpath("td[1]"))),
+                Arrays.asList("descendants tr", "children td:nth-of-type(1)"));
+        assertNull(LocatorCompiler.compileSteps(By.className("hp-name hp-link")));
+        assertNull(LocatorCompiler.compileSteps(By.linkText("vol1")));
+        assertFalse(LocatorCompiler.compile(By.partialLinkText("vol")).isCompiled());
+    }
+
+    @Test
+    public void turnsTheScriptOffOnlyForScriptErrors() {
+        assertTrue(CompiledLocator.isScriptError(new UnsupportedCommandException("executeScript")));
+        assertTrue(CompiledLocator.isScriptError(new WebDriverException("javascript error: f.call is not a function")));
+        assertFalse(CompiledLocator.isScriptError(new WebDriverException("unexpected alert open")));
+        assertFalse(CompiledLocator.isScriptError(new WebDriverException((String) null)));
+    }
+
+
+    // - - - - - Lookups in the fixture - - - - -
+
+    @Test
+    public void findsTheElementsOfSeleniumInThePage() {
+        WebDriver driver = requireBrowser();
+        for (By locator : PAGE_LOCATORS) {
+            CompiledLocator compiledLocator = LocatorCompiler.compile(locator);
+            assertTrue(compiledLocator.isCompiled(), locator.toString());
+            assertEquals(compiledLocator.findElements(driver), driver.findElements(locator), locator.toString());
+            assertTrue(compiledLocator.isCompiled(), "the script was turned off for " + locator);
+        }
+    }
+
+    @Test
+    public void findsTheElementsOfSeleniumInEachRow() {
+        WebDriver driver = requireBrowser();
+        for (WebElement row : driver.findElements(By.cssSelector("#volumesTable tr"))) {
+            for (By locator : ROW_LOCATORS) {
+                CompiledLocator compiledLocator = LocatorCompiler.compile(locator);
+                assertTrue(compiledLocator.isCompiled(), locator.toString());
+                assertEquals(compiledLocator.findElements(row), row.findElements(locator), locator + " in " + row.getAttribute("id"));
+            }
+        }
+    }
+
+    @Test
+    public void readsTheTextsOfSelenium() {
+        WebDriver driver = requireBrowser();
+        CompiledLocator nameLink = LocatorCompiler.compilePath(By.className("hp-name"), By.tagName("a"));
+        List<WebElement> contexts = new ArrayList<WebElement>(driver.findElements(By.cssSelector("#volumesTable tr")));
+        contexts.addAll(driver.findElements(By.className("node")));
+
+        List<String> expectedTexts = new ArrayList<String>();
+        for (WebElement context : contexts) {
+            expectedTexts.add(context.findElement(By.className("hp-name")).findElement(By.tagName("a")).getText());
+        }
+        assertEquals(nameLink.getTexts(contexts), expectedTexts);
+    }
+
+    @Test
+    public void readsNoTextInTheHiddenElements() {
+        WebDriver driver = requireBrowser();
+        CompiledLocator link = LocatorCompiler.compile(By.tagName("a"));
+        // innerText returns the text of an element with display:none or an opacity of 0; getText() does not
+        for (WebElement node : driver.findElements(By.className("node"))) {
+            assertEquals(link.getTexts(Collections.singletonList(node)),
+                    Collections.singletonList(node.findElement(By.tagName("a")).getText()), node.getAttribute("class"));
+        }
+        assertEquals(LocatorCompiler.compile(By.cssSelector("li.hidden a")).getTexts(
+                driver.findElements(By.id("nodes"))), Collections.singletonList(""));
+    }
+
+    @Test
+    public void readsTheAttributesOfSelenium() {
+        WebDriver driver = requireBrowser();
+        List<WebElement> rows = driver.findElements(By.cssSelector("#volumesTable tr"));
+        for (String name : Arrays.asList("class", "href", "title", "data-missing")) {
+            CompiledLocator link = LocatorCompiler.compile(By.xpath(".//a"));
+            List<String> expectedValues = new ArrayList<String>();
+            for (WebElement row : rows) {
+                expectedValues.add(row.findElement(By.xpath(".//a")).getAttribute(name));
+            }
+            assertEquals(link.getAttributes(rows, name), expectedValues, name);
+        }
+    }
+
+    @Test
+    public void readsTheTextsFasterThanSelenium() {
+        WebDriver driver = requireBrowser();
+        final CompiledLocator nameLink = LocatorCompiler.compilePath(By.className("hp-name"), By.tagName("a"));
+        final List<WebElement> contexts = new ArrayList<WebElement>(driver.findElements(By.cssSelector("#volumesTable tr")));
+        contexts.addAll(driver.findElements(By.className("node")));
+
+        long compiledNanos = time(new Runnable() {
+            public void run() {
+                nameLink.getTexts(contexts);
+            }
+        });
+        long seleniumNanos = time(new Runnable() {
+            public void run() {
+                for (WebElement context : contexts) {
+                    context.findElement(By.className("hp-name")).findElement(By.tagName("a")).getText();
+                }
+            }
+        });
+
+        log("LocatorCompilerTest -- texts of " + contexts.size() + " elements, " + TIMED_RUNS + " runs: compiled "
+                + TimeUnit.MILLISECONDS.convert(compiledNanos, TimeUnit.NANOSECONDS) + " ms, Selenium "
+                + TimeUnit.MILLISECONDS.convert(seleniumNanos, TimeUnit.NANOSECONDS) + " ms");
+        // a single script execution against 3 WebDriver commands per element
+        assertTrue(compiledNanos < seleniumNanos, "the compiled lookups took " + compiledNanos + " ns, Selenium " + seleniumNanos + " ns");
+    }
+
+
+    // - - - - - Helpers - - - - -
+
+    private WebDriver requireBrowser() {
+        if (this.browser == null) {
+            throw new SkipException("Chrome could not be opened with the " + LaunchProfile.fromSystemProperties() + " launch profile");
+        }
+        return this.browser.getDriver();
+    }
+
+    // The wall time of TIMED_RUNS runs of a lookup, in nanoseconds; the first run, which may compile the script
+    // in the browser, is not timed.
+    private static long time(Runnable lookup) {
+        lookup.run();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            lookup.run();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    // The steps of an XPath, e.g. "children td:nth-of-type(2)"; null if it is not compiled.
+    private static List<String> stepsOf(String xpath) {
+        return toStrings(LocatorCompiler.compileXPath(xpath));
+    }
+
+    private static List<String> stepsOf(By locator) {
+        return toStrings(LocatorCompiler.compileSteps(locator));
+    }
+
+    private static List<String> toStrings(List<Map<String, Object>> steps) {
+        if (steps == null) {
+            return null;
+        }
+        List<String> returnValue = new ArrayList<String>();
+        for (Map<String, Object> step : steps) {
+            returnValue.add(step.get("selector") == null ? (String) step.get("op") : step.get("op") + " " + step.get("selector"));
+        }
+        return returnValue;
+    }
+}
@@ -5,7 +5,7 @@
 package Elements;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Action;
 import org.openqa.selenium.interactions.Actions;
@@ -16,7 +16,6 @@ import java.util.concurrent.TimeUnit;
 import static Elements.Globals.browser;
 import static Helpers.Utility.log;
 import static Helpers.Utility.sleep;
-import static Helpers.Utility.warning;
 
 
 /**
@@ -26,8 +25,6 @@ public class MasterGrid extends BaseElement {
 
     // - - - - - Class attributes - - - - -
     protected final int MAXRETRIES = 5;
-    // Set below to true to log the method execution time for some Table methods.
-    private final boolean LOG_PERFORMANCE = false;
 
     //Load More Link declaration
     private final Button loadMoreBelowLink = new Button(By.className("hp-master-load-more"),"Load more");
@@ -61,24 +58,12 @@ public class MasterGrid extends BaseElement {
         }
         else {
             // If the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            // this, catch the stale element and try again.
-            int retries = MAXRETRIES;
-
-            while (true) {
-                try {
+            // this, the retry policy catches the stale element and tries again.
+            return RetryPolicy.STALE_ELEMENT.call("MasterGrid::getNumberOfResources", new RetryPolicy.Attempt<Integer>() {
+                public Integer run() {
                     return getResources().size();
                 }
-                catch(StaleElementReferenceException e){
-                    retries--;
-
-                    // have we tried the maximum retries?
-                    if (retries == 0) {
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
-            }
+            });
         }
     }
 
@@ -99,12 +84,11 @@ public class MasterGrid extends BaseElement {
         return null;
     }
 
-    public void selectResource(int index) {
-        int retries = MAXRETRIES;
-        while (true) {
-            try {
+    public void selectResource(final int index) {
+        RetryPolicy.STALE_ELEMENT.run("MasterGrid::selectResource", new Runnable() {
+            public void run() {
                 WebElement resource = getResource(index);
-                Actions builder = new Actions(browser.driver);
+                Actions builder = new Actions(browser().driver);
                 builder.moveToElement(resource, 0, 0);
                 builder.click();
                 Action action = builder.build();
@@ -112,26 +96,15 @@ public class MasterGrid extends BaseElement {
 
                 // Give the UI 1 second to process this action.
                 sleep(1, TimeUnit.SECONDS);
-
-                break;
             }
-            catch(StaleElementReferenceException e){
-                --retries;
-                if (retries == 0) {
-                    warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                    e.printStackTrace();
-                    throw e;
-                }
-            }
-        }
+        });
     }
 
-    public void selectResource(String name) {
-        int retries = MAXRETRIES;
-        while (true) {
-            try {
+    public void selectResource(final String name) {
+        RetryPolicy.STALE_ELEMENT.run("MasterGrid::selectResource", new Runnable() {
+            public void run() {
                 WebElement resource = getResource(name);
-                Actions builder = new Actions(browser.driver);
+                Actions builder = new Actions(browser().driver);
                 builder.moveToElement(resource, 0, 0);
                 builder.click();
                 Action action = builder.build();
@@ -139,18 +112,8 @@ public class MasterGrid extends BaseElement {
 
                 // Give the UI 1 second to process this action.
                 sleep(1, TimeUnit.SECONDS);
-
-                break;
-            }
-            catch(StaleElementReferenceException e){
-                --retries;
-                if (retries == 0) {
-                    warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                    e.printStackTrace();
-                    throw e;
-                }
             }
-        }
+        });
     }
 
     /**
@@ -159,51 +122,33 @@ public class MasterGrid extends BaseElement {
      * @param rowIndex int  The resource index being checked
      * @return boolean      Indicates whether the resource is selected.
      */
-    public boolean isResourceSelected (int index) {
+    public boolean isResourceSelected (final int index) {
         if (this.isStubbed()) {
             log("MasterGrid::isResourceSelected === The master grid's query is currently stubbed out. ===");
             return false;
         }
         else {
-            int retries = MAXRETRIES;
-            while (true) {
-                try {
+            return RetryPolicy.STALE_ELEMENT.call("MasterGrid::isResourceSelected", new RetryPolicy.Attempt<Boolean>() {
+                public Boolean run() {
                     WebElement row = getResource(index);
                     return ElementUtil.hasCSSClass(row, "hp-selected");
                 }
-                catch (StaleElementReferenceException e) {
-                    --retries;
-                    if (retries == 0) {
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
-            }
+            });
         }
     }
 
-    public boolean isResourceSelected (String name) {
+    public boolean isResourceSelected (final String name) {
         if (this.isStubbed()) {
             log("MasterGrid::isResourceSelected === The master grid's query is currently stubbed out. ===");
             return false;
         }
         else {
-            int retries = MAXRETRIES;
-            while (true) {
-                try {
+            return RetryPolicy.STALE_ELEMENT.call("MasterGrid::isResourceSelected", new RetryPolicy.Attempt<Boolean>() {
+                public Boolean run() {
                     WebElement row = getResource(name);
                     return ElementUtil.hasCSSClass(row, "hp-selected");
                 }
-                catch (StaleElementReferenceException e) {
-                    --retries;
-                    if (retries == 0) {
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
-            }
+            });
         }
     }
 
@@ -232,39 +177,28 @@ public class MasterGrid extends BaseElement {
         return linkElement != null;
     }
 
-    public boolean isItemAppearinGrid(String resourceName, int timeOutSeconds) {
+    public boolean isItemAppearinGrid(final String resourceName, int timeOutSeconds) {
         if (this.isStubbed()) {
             log("MasterGrid::isItemAppearinGrid === The master grid's query is currently stubbed out. ===");
             return true;
         }
         else {
-            // set start time
-            long startTime = System.nanoTime();
-            WebElement resource = null;
-            while (true) {
-                // Is the item in the table?
-                try {
-                    resource = getResource(resourceName);
-                }
-                catch (Exception e) {
-
-                }
-                if (resource != null) {
-                    return true;
-                }
-                else {
-                    // We couldn't find it; keep checking until timeout.
-                    // get elapsed Time
-                    int elapsedTime = (int)TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
-
-                    // If it has reached the timeout, stop checking; otherwise sleep and try again
-                    if (elapsedTime >= timeOutSeconds) {
-                        return false;
-                    }
-                    else {
-                        sleep(1, TimeUnit.SECONDS);
-                    }
-                }
+            // Is the item in the table?  Keep checking until timeout; a deadline of 0 would mean no deadline.
+            long deadlineMillis = Math.max(1, TimeUnit.MILLISECONDS.convert(timeOutSeconds, TimeUnit.SECONDS));
+            try {
+                WebElement resource = RetryPolicy.NO_SUCH_ELEMENT.withDeadline(deadlineMillis, TimeUnit.MILLISECONDS).call(
+                        "MasterGrid::isItemAppearinGrid", new RetryPolicy.Attempt<WebElement>() {
+                            public WebElement run() {
+                                return getResource(resourceName);
+                            }
+                        }, new RetryPolicy.Check<WebElement>() {
+                            public boolean isDone(WebElement resource) {
+                                return resource != null;
+                            }
+                        });
+                return resource != null;
+            } catch (WebDriverException e) {
+                return false;
             }
         }
     }
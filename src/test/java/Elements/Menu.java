@@ -20,7 +20,6 @@ import java.util.concurrent.TimeUnit;
 import static Elements.Globals.browser;
 import static Helpers.Utility.log;
 import static Helpers.Utility.sleep;
-import static Helpers.Utility.warning;
 
 
 // IMPLEMENTATION NOTES:
@@ -43,10 +42,59 @@ import static Helpers.Utility.warning;
  * Created by stauffel on 5/22/14.
  */
 public class Menu extends BaseElement {
-    private int MAXRETRIES = 5;
+    private static final int MAXRETRIES = 5;
 
     // - - - - - Class attributes - - - - -
 
+    // the policy used to select a menu item: the menu may be redrawn while it is read, or its items may not be
+    // displayed yet, so the menu is opened again for up to 30 seconds
+    private static final RetryPolicy SELECT_POLICY = RetryPolicy.builder()
+            .retryOn(StaleElementReferenceException.class, Integer.MAX_VALUE)
+            .retryOnResult(Integer.MAX_VALUE)
+            .backoff(500, 2000, TimeUnit.MILLISECONDS)
+            .deadline(30, TimeUnit.SECONDS)
+            .build();
+
+    // the policy used to read the items of the menu, which may be redrawn or still empty
+    private static final RetryPolicy READ_POLICY = RetryPolicy.builder()
+            .retryOn(StaleElementReferenceException.class, MAXRETRIES)
+            .retryOnResult(MAXRETRIES)
+            .backoff(1, 1, TimeUnit.SECONDS)
+            .multiplier(1)
+            .build();
+
+    // the state of the menu during a search for one of its items; it is kept between the attempts so that an
+    // attempt can close the menu left open by the previous one
+    private static final class ItemSearch {
+        WebElement menuElement = null;
+        List<WebElement> listElements = null;
+        boolean clicked = false;
+        boolean found = false;
+        // the value of the item, e.g. whether it is enabled
+        boolean value = false;
+
+        // closes the menu opened by the previous attempt, if any, to reset it
+        void reset() {
+            if (this.clicked) {
+                this.clicked = false;
+                this.menuElement.click();
+            }
+            this.listElements = null;
+            this.found = false;
+        }
+    }
+
+    private static final RetryPolicy.Check<ItemSearch> FOUND = new RetryPolicy.Check<ItemSearch>() {
+        public boolean isDone(ItemSearch search) {
+            return search.found;
+        }
+    };
+
+    private static final RetryPolicy.Check<List<String>> NOT_EMPTY = new RetryPolicy.Check<List<String>>() {
+        public boolean isDone(List<String> items) {
+            return !items.isEmpty();
+        }
+    };
 
     // - - - - - Constructor - - - - -
 
@@ -72,181 +120,148 @@ public class Menu extends BaseElement {
      *
      * @param menuItem        [STRING] menu item to select
      */
-    public void selectItem (String itemName) {
+    public void selectItem (final String itemName) {
         // declaring local variables
-        boolean found = false;
-        boolean isOption = false;
         String temp = "";
-        List<WebElement> listElements = null;
 
 
         if (isStubbed()) {
             log("=== This menu locator is currently stubbed out. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            boolean clicked = false;
-            int retries = 0;
-
-            // getting the web element
-            WebElement menuElement = null;
-            //sleep(1,TimeUnit.SECONDS);
-            int timeOutSeconds = 30; // TODO CRAIG
-
-            String title;
-
-            // declaring local variables
-             long startTime;
-            int elapsedTime;
-            startTime = System.nanoTime();
-
-
-
-            while (!done) {
-                int i = 0;
-                try {
-
-                    // getting the web element
-                    menuElement = getWebElement();
-
-                    // finding out of the class name of this menu
-                    String className = menuElement.getAttribute("className");
-                    if (className.length() == 0) {
-                        try {
-                            // check to see if you can find a  class hp-select-form
-                            WebElement clickableElement = menuElement.findElement(By.cssSelector(".hp-select-form > .hp-select"));
-                            if (clickableElement != null) {
-                                menuElement = clickableElement;
-                            }
-                        } catch (NoSuchElementException e) {
-                            // leave the menu as is
-                        }
-                    }
-
-
-
-                    // if the menu isn't in the Filter Pane or if the Filter Bar isn't active (or hasn't been clicked)
-                    //and if the browser isn't IE.
-                    if (!(className.contains("hp-filter") && className.contains("hp-pinned")) &&
-                            !(className.contains("hp-filter") && className.contains("hp-active"))) {
-                        this.clickWebElement(menuElement);
+            // if the menu is redrawn while we are getting values, then a stale element is being thrown, and the item
+            //     may not be displayed yet. To get around this the retry policy will try again, and each attempt
+            //     closes the menu opened by the previous one.  The 30 seconds of the policy are shortened when
+            //     this menu usually shows its items sooner
+            final ItemSearch search = new ItemSearch();
+            String timeoutKey = AdaptiveTimeouts.keyOf(this, "selectItem");
+            RetryPolicy policy = SELECT_POLICY.withDeadline(AdaptiveTimeouts.getTimeout(timeoutKey, 30), TimeUnit.SECONDS);
+            long startTime = System.nanoTime();
+            policy.call("Menu::selectItem", new RetryPolicy.Attempt<ItemSearch>() {
+                public ItemSearch run() {
+                    search.reset();
+                    clickItem(itemName, search);
+                    return search;
+                }
+            }, FOUND);
 
-                        clicked = true;
+            List<WebElement> listElements = search.listElements;
+            if (search.found) {
+                AdaptiveTimeouts.record(timeoutKey, System.nanoTime() - startTime);
+            } else {
+                if (listElements != null)
+                {
+                    log ("*** listElement.size = " + listElements.size());
+                    for (int x=0;  x < listElements.size(); x++)
+                    {
+                        temp = listElements.get(x).getAttribute("textContent");
+                        temp = temp.replace("\n", "");
+                        temp = temp.trim();
+                        log ("*** listElement [" + x + "] = " + temp);
                     }
+                }
 
-                    // get list of menu item elements
-                    listElements = menuElement.findElements(By.tagName("li"));
+                browser().takeScreenShot("Menu_selectItem_" + RandomStringUtils.random(4, true, true));
 
-                    // for some reason, we need to pause here, otherwise Selenium doesn't see that the menu has been opened
-                    // and menu items are displayed
-                    sleep(500, TimeUnit.MILLISECONDS);//12-10-14  I'm changing this from 2 seconds to half a second to try to make this more efficient so we don't have
-                                                      //          as many retries due to StaleElementExceptions.  This is a big problem with IE when accessing menus
-                                                      //          with a bunch of menu items. Change it back if you start seeing problems.  --sylvia
-                    //sleep(2, TimeUnit.SECONDS);
+                throw new NoSuchElementException("The item '" + itemName + "' is not showing among the list of items in the menu.");
+            }
+        }
+    }
 
-                    if (listElements.size() == 0) {
-                        listElements = menuElement.findElements(By.tagName("option"));
-                        isOption = true;
-                        log ("  (debug temp, setting isOption to true)");
-                    }
-                    while (i<listElements.size()){
-                        // getting the text of the menu item -- replace any '\n' and white space with empty string
-                        temp = listElements.get(i).getAttribute("textContent");
-                        temp = temp.replace("\n", "");
-                        temp = temp.trim();
+    // Opens the menu and clicks on the specified item, if it is displayed.  This is one attempt of selectItem().
+    private void clickItem (String itemName, ItemSearch search) {
+        boolean isOption = false;
+        String temp;
+        int i = 0;
 
-                        if (temp.equals(itemName)) {
-
-                            if (isOption) {
-                                listElements.get(i).click();
-                                found = true;
-                            }
-                            else if (listElements.get(i).isDisplayed()) {
-                                found = true;
-
-                                if (listElements.get(i).findElements(By.tagName("a")).size() != 0) {
-                                    //11-21-14
-                                    //Note: I'm noticing that if you have more that one IE browser open when running a test
-                                    //that when the following click method gets executed, it can cause the IE driver to die.
-                                    //unfortunately, I can't code around this one, so we need to make sure no IE browsers are already open when we run tests on IE.
-                                    //This behavior was seen with IEDriver 2.39.0 when the MATFileProvisioningGroupsScreenDefaultTest tries to
-                                    //select one of the menu items from the Actions menu.  The problem doesn't happen consistently but intermittently.
-                                    listElements.get(i).findElement(By.tagName("a")).click();
-                                } else if (listElements.get(i).findElements(By.tagName("span")).size() != 0) {
-                                     listElements.get(i).findElement(By.tagName("span")).click();
-                                } else if (listElements.get(i).findElements(By.tagName("div")).size() != 0) {
-                                     listElements.get(i).findElement(By.tagName("div")).click();
-                                } else {
-                                     listElements.get(i).click();
-                                }
-                                    break;
-
-                            }
-                            else {
-                                log ("  (debug temp.  element not option and not displayed : " + listElements.get(i) + ")");
-                                browser.takeScreenShot("Menu_selectItem_notoption_displayed" + RandomStringUtils.random(4, true, true));
-
-                            }
-                        }
-                        ++i;
-                    }
+        // getting the web element
+        WebElement menuElement = getWebElement();
 
-                    // If the specified menu item was found
-                    if(found) {
-                        done = true;
-                    } else {
-                        // get elapsed Time
-                        elapsedTime = (int) TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+        // finding out of the class name of this menu
+        String className = menuElement.getAttribute("className");
+        if (className.length() == 0) {
+            try {
+                // check to see if you can find a  class hp-select-form
+                WebElement clickableElement = menuElement.findElement(By.cssSelector(".hp-select-form > .hp-select"));
+                if (clickableElement != null) {
+                    menuElement = clickableElement;
+                }
+            } catch (NoSuchElementException e) {
+                // leave the menu as is
+            }
+        }
+        search.menuElement = menuElement;
 
-                        // If it has reached the timeout, stop checking; otherwise sleep and try again
-                        if (elapsedTime >= timeOutSeconds) {
-                            done = true;
 
-                        } else if(clicked) {
-                            //need to close the menu in order to reset if this method has been retried MAXRETRIES times
-                            menuElement.click();
-                        }
 
+        // if the menu isn't in the Filter Pane or if the Filter Bar isn't active (or hasn't been clicked)
+        //and if the browser isn't IE.
+        if (!(className.contains("hp-filter") && className.contains("hp-pinned")) &&
+                !(className.contains("hp-filter") && className.contains("hp-active"))) {
+            this.clickWebElement(menuElement);
 
-                        log("Retry #" + retries);
-                    }
-                } catch(StaleElementReferenceException e){
-                    elapsedTime = (int) TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+            search.clicked = true;
+        }
 
-                    // have we tried the maximum retries?
-                    if (elapsedTime >= timeOutSeconds) {
-                        done = true;
+        // get list of menu item elements
+        List<WebElement> listElements = menuElement.findElements(By.tagName("li"));
 
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
+        // for some reason, we need to pause here, otherwise Selenium doesn't see that the menu has been opened
+        // and menu items are displayed; the pause now lasts until the menu is done opening
+        PageQuiescence.settle(500);//12-10-14  I'm changing this from 2 seconds to half a second to try to make this more efficient so we don't have
+                                          //          as many retries due to StaleElementExceptions.  This is a big problem with IE when accessing menus
+                                          //          with a bunch of menu items. Change it back if you start seeing problems.  --sylvia
+        //sleep(2, TimeUnit.SECONDS);
+
+        if (listElements.size() == 0) {
+            listElements = menuElement.findElements(By.tagName("option"));
+            isOption = true;
+            log ("  (debug temp, setting isOption to true)");
+        }
+        search.listElements = listElements;
+        while (i<listElements.size()){
+            // getting the text of the menu item -- replace any '\n' and white space with empty string
+            temp = listElements.get(i).getAttribute("textContent");
+            temp = temp.replace("\n", "");
+            temp = temp.trim();
+
+            if (temp.equals(itemName)) {
+
+                if (isOption) {
+                    listElements.get(i).click();
+                    search.found = true;
+                    // the option closes the menu
+                    search.clicked = false;
+                }
+                else if (listElements.get(i).isDisplayed()) {
+                    search.found = true;
+                    // the item closes the menu
+                    search.clicked = false;
+
+                    if (listElements.get(i).findElements(By.tagName("a")).size() != 0) {
+                        //11-21-14
+                        //Note: I'm noticing that if you have more that one IE browser open when running a test
+                        //that when the following click method gets executed, it can cause the IE driver to die.
+                        //unfortunately, I can't code around this one, so we need to make sure no IE browsers are already open when we run tests on IE.
+                        //This behavior was seen with IEDriver 2.39.0 when the MATFileProvisioningGroupsScreenDefaultTest tries to
+                        //select one of the menu items from the Actions menu.  The problem doesn't happen consistently but intermittently.
+                        listElements.get(i).findElement(By.tagName("a")).click();
+                    } else if (listElements.get(i).findElements(By.tagName("span")).size() != 0) {
+                         listElements.get(i).findElement(By.tagName("span")).click();
+                    } else if (listElements.get(i).findElements(By.tagName("div")).size() != 0) {
+                         listElements.get(i).findElement(By.tagName("div")).click();
                     } else {
-                        if(clicked) {
-                            //need to close the menu in order to reset if Stale Element Reference was thrown
-                            menuElement.click();
-                        }
+                         listElements.get(i).click();
                     }
-                }
-            }
+                        break;
 
-            if (!found) {
-                if (listElements != null)
-                {
-                    log ("*** listElement.size = " + listElements.size());
-                    for (int x=0;  x < listElements.size(); x++)
-                    {
-                        temp = listElements.get(x).getAttribute("textContent");
-                        temp = temp.replace("\n", "");
-                        temp = temp.trim();
-                        log ("*** listElement [" + x + "] = " + temp);
-                    }
                 }
+                else {
+                    log ("  (debug temp.  element not option and not displayed : " + listElements.get(i) + ")");
+                    browser().takeScreenShot("Menu_selectItem_notoption_displayed" + RandomStringUtils.random(4, true, true));
 
-                browser.takeScreenShot("Menu_selectItem_" + RandomStringUtils.random(4, true, true));
-
-                throw new NoSuchElementException("The item '" + itemName + "' is not showing among the list of items in the menu.");
+                }
             }
+            ++i;
         }
     }
 
@@ -334,7 +349,7 @@ public class Menu extends BaseElement {
      * @param menuItem        [STRING] the menu item to check
      * @return                a boolean value 'true' if the menu item is enabled, 'false' otherwise
      */
-    public boolean isMenuItemEnabled (String menuItem) {
+    public boolean isMenuItemEnabled (final String menuItem) {
         // declaring local variables
         boolean returnValue = false;
 
@@ -342,107 +357,88 @@ public class Menu extends BaseElement {
             returnValue = true;
             log("=== This menu locator is currently stubbed out.  Returning value '" + returnValue + "'. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            List<WebElement> listElements;
-            WebElement menuItemElement;
-            boolean found = false;
-            boolean clicked = false;
-            int retries = 0;
-
-            WebElement menuElement = null;
-
-            while (!found) {
-                try {
-                    // getting the menu web element
-                    menuElement = getWebElement();
-
-                    // finding out of the class name of this menu
-                    String className = menuElement.getAttribute("className");
-                    if (className.length() == 0) {
-                        try{
-                            // check to see if you can find a  class hp-select-form
-                            WebElement clickableElement = menuElement.findElement(By.cssSelector(".hp-select-form > .hp-select"));
-                            if (clickableElement != null) {
-                                menuElement = clickableElement;
-                            }
-                        } catch (NoSuchElementException e) {
-                            // leave the menu as is
-                        }
-                    }
-
-                    // clicking on the menu element to open the menu
-                    menuElement.click();
-                    clicked = true;
-
-
-                    // sleeping 1 second to give time for the UI to catch up with Selenium.  If we don't sleep 1 second here,
-                    // then sometimes the menu doesn't work right
-                    sleep(1, TimeUnit.SECONDS);
+            // if the menu is redrawn while we are getting values, then a stale element is being thrown, and the item
+            //     may not be displayed yet. To get around this the retry policy will try again, and each attempt
+            //     closes the menu left open by the previous one
+            final ItemSearch search = new ItemSearch();
+            READ_POLICY.call("Menu::isMenuItemEnabled", new RetryPolicy.Attempt<ItemSearch>() {
+                public ItemSearch run() {
+                    search.reset();
+                    readItemEnabled(menuItem, search);
+                    return search;
+                }
+            }, FOUND);
 
-                    // get a list of menu items
-                    listElements = menuElement.findElements(By.tagName("li"));
+            // a menu item that is still not found after the maximum retries is reported as disabled
+            returnValue = search.found && search.value;
+        }
 
-                    // finding the menu item we want to check
-                    for (int i = 0; i < listElements.size(); i++) {
-                        if (listElements.get(i).getText().equals(menuItem)) {
-                            found = true;
+        return returnValue;
+    }
 
-                            if (listElements.get(i).findElements(By.tagName("a")).size() != 0)
-                                menuItemElement = listElements.get(i).findElement(By.tagName("a"));
-                            else if (listElements.get(i).findElements(By.tagName("span")).size() != 0)
-                                menuItemElement = listElements.get(i).findElement(By.tagName("span"));
-                            else if (listElements.get(i).findElements(By.tagName("div")).size() != 0)
-                                menuItemElement = listElements.get(i).findElement(By.tagName("div"));
-                            else
-                                menuItemElement = listElements.get(i);
+    // Opens the menu, checks whether the specified item is enabled, and closes the menu.  This is one attempt of
+    // isMenuItemEnabled().
+    private void readItemEnabled (String menuItem, ItemSearch search) {
+        WebElement menuItemElement;
+
+        // getting the menu web element
+        WebElement menuElement = getWebElement();
+
+        // finding out of the class name of this menu
+        String className = menuElement.getAttribute("className");
+        if (className.length() == 0) {
+            try{
+                // check to see if you can find a  class hp-select-form
+                WebElement clickableElement = menuElement.findElement(By.cssSelector(".hp-select-form > .hp-select"));
+                if (clickableElement != null) {
+                    menuElement = clickableElement;
+                }
+            } catch (NoSuchElementException e) {
+                // leave the menu as is
+            }
+        }
+        search.menuElement = menuElement;
 
+        // clicking on the menu element to open the menu
+        menuElement.click();
+        search.clicked = true;
 
-                            returnValue = menuItemElement.isEnabled();
 
+        // sleeping 1 second to give time for the UI to catch up with Selenium.  If we don't sleep 1 second here,
+        // then sometimes the menu doesn't work right
+        sleep(1, TimeUnit.SECONDS);
 
-                            i = listElements.size();
-                        }
-                    }
+        // get a list of menu items
+        List<WebElement> listElements = menuElement.findElements(By.tagName("li"));
 
-                    // closing the menu window
-                    menuElement.click();
+        // finding the menu item we want to check
+        for (int i = 0; i < listElements.size(); i++) {
+            if (listElements.get(i).getText().equals(menuItem)) {
+                search.found = true;
 
+                if (listElements.get(i).findElements(By.tagName("a")).size() != 0)
+                    menuItemElement = listElements.get(i).findElement(By.tagName("a"));
+                else if (listElements.get(i).findElements(By.tagName("span")).size() != 0)
+                    menuItemElement = listElements.get(i).findElement(By.tagName("span"));
+                else if (listElements.get(i).findElements(By.tagName("div")).size() != 0)
+                    menuItemElement = listElements.get(i).findElement(By.tagName("div"));
+                else
+                    menuItemElement = listElements.get(i);
 
-                    sleep(1, TimeUnit.SECONDS);
 
-                    // If the specified menu item wasn't found
-                    if(!found) {
-                        retries++;
-                        // have we tried the maximum retries?
-                        if (retries == MAXRETRIES) {
-                            found = true;
-                        }
+                search.value = menuItemElement.isEnabled();
 
-                        log("Retry #" + retries);
-                    }
-                } catch (StaleElementReferenceException e) {
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    } else if (clicked){
-                        //need to close the menu in order to reset if Stale Element Reference was thrown
-                        menuElement.click();
-                    }
-                }
-            }
 
-            if (!found) {
-                throw new NoSuchElementException("Menu::isMenuItemEnabled -- menu item '" + menuItem + "' not found in the menu.");
+                i = listElements.size();
             }
         }
 
-        return returnValue;
+        // closing the menu window
+        menuElement.click();
+        search.clicked = false;
+
+
+        sleep(1, TimeUnit.SECONDS);
     }
 
 
@@ -457,113 +453,24 @@ public class Menu extends BaseElement {
      */
     public String[] getItemList () {
         // declaring local variables
-        String temp = "";
-        String className = "";
         String[] returnList = {};
-        ArrayList<String> tempList = new ArrayList<String>();
-        WebElement labelElement;
-        List<WebElement> listElements;
 
 
         if (isStubbed()) {
             returnList = new String[] {"One", "Two"};
             log("=== This menu locator is currently stubbed out.  Returning a String array with values 'One', 'Two'. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            boolean clicked = false;
-            int retries = 0;
-
-            // getting the web element
-            WebElement menuElement = null;
-            int i = 0;
-            while (!done) {
-                sleep(1, TimeUnit.SECONDS);
-                try {
-                    // getting the combo box web element
-                    menuElement = getWebElement();
-
-                    // get a list of the menu items
-                    listElements = menuElement.findElements(By.tagName("li"));
-
-                    if (listElements.size() > 0) {
-                        // adding menu items to tempList
-                        while(i<listElements.size()){
-
-                            // is this menu item displayed?
-                            String style = listElements.get(i).getAttribute("style");
-                            //check the elements parent style attribute also.
-                           // style = listElements.get(i).findElement(By.xpath("..")).getAttribute("style");
-
-                            if (!style.equals("display: none;")) {
-                                // get the menu item name
-                                temp = listElements.get(i).getAttribute("textContent");
-
-                                // making sure no \n characters are in temp
-                                temp = temp.replace("\n", "");
-                                temp = temp.trim();
-
-                                // add this item, only if there is text for it
-                                if (temp.length() > 0) {
-                                    tempList.add(temp);
-                                }
-                            }
-                            ++i;
-                        }
-                    } else {
-                        // since we don't have any list elements, we may have option tags
-                        listElements = menuElement.findElements(By.tagName("option"));
-
-                        for (int j = 0; j < listElements.size(); j++) {
-                            // first, check if this list item is displayed
-                            if (listElements.get(j).isDisplayed()) {
-                                // get the menu item name
-                                temp = listElements.get(j).getAttribute("textContent");
-
-                                // add this item, only if there is text for it
-                                if (temp.length() > 0) {
-                                    tempList.add(temp);
-                                }
-                            }
-                        }
-                    }
-
-                    // A list of items was obtained from the menu
-                    if(tempList.size() != 0) {
-                        done = true;
-                    } else {
-                        retries++;
-                        // have we tried the maximum retries?
-                        if (retries == MAXRETRIES) {
-                            done = true;
-                        }
-
-                        log("Retry #" + retries);
-                    }
-                } catch(StaleElementReferenceException e){
-                    retries++;
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    } else {
-                        //tempList = new ArrayList<String>();
-                        if(clicked) {
-                            //need to close the menu in order to reset if Stale Element Reference was thrown
-                            menuElement.click();
-                        }
-                    }
+            // if the menu is redrawn while we are getting values, then a stale element is being thrown, and the list
+            //     may still be empty. To get around this the retry policy will read the list again
+            sleep(1, TimeUnit.SECONDS);
+            List<String> tempList = READ_POLICY.call("Menu::getItemList", new RetryPolicy.Attempt<List<String>>() {
+                public List<String> run() {
+                    return readItems(false);
                 }
-            }
+            }, NOT_EMPTY);
+
             // now, transferring over tempList to returnList
-            returnList = new String[tempList.size()];
-            for (int k = 0; k < tempList.size(); k++) {
-                returnList[k] = tempList.get(k);
-            }
+            returnList = tempList.toArray(new String[tempList.size()]);
 
 
             // checking to see if there is only 1 item in the list, and that item is null -- then we want to return an empty list
@@ -713,7 +620,8 @@ public class Menu extends BaseElement {
     {
        boolean returnResult = true;
 
-       int timeOutSeconds = 120; //TODO unhardcocde timeout
+       String timeoutKey = AdaptiveTimeouts.keyOf(this, "waitForNonEmptyList");
+       int timeOutSeconds = AdaptiveTimeouts.getTimeout(timeoutKey, 120);
 
        String title;
 
@@ -735,6 +643,7 @@ public class Menu extends BaseElement {
                    // good, we have values in the drop down list
                    itemFound = true;
                    done = true;
+                   AdaptiveTimeouts.record(timeoutKey, System.nanoTime() - startTime);
                }
            } catch (org.openqa.selenium.NoSuchElementException e) {
 
@@ -776,114 +685,24 @@ public class Menu extends BaseElement {
      */
     public String[] getSelectedItemList () {
         // declaring local variables
-        String temp = "";
-        String className = "";
         String[] returnList = {};
-        ArrayList<String> tempList = new ArrayList<String>();
-        WebElement labelElement;
-        List<WebElement> listElements;
 
 
         if (isStubbed()) {
             returnList = new String[] {"One", "Two"};
             log("=== This menu locator is currently stubbed out.  Returning a String array with values 'One', 'Two'. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            boolean clicked = false;
-            int retries = 0;
-
-            // getting the web element
-            WebElement menuElement = null;
-            int i = 0;
-            while (!done) {
-                sleep(1, TimeUnit.SECONDS);
-                try {
-                    // getting the combo box web element
-                    menuElement = getWebElement();
-
-                    // get a list of the menu items
-                    listElements = menuElement.findElements(By.tagName("li"));
-
-                    if (listElements.size() > 0) {
-                        // adding menu items to tempList
-                        while(i<listElements.size()){
-
-                            // is this menu item displayed?
-                            String style = listElements.get(i).getAttribute("style");
-                            //check the elements parent style attribute also.
-//                            if (style.isEmpty())
-//                                style = listElements.get(i).findElement(By.xpath("..")).getAttribute("style");
-
-                            if (!style.equals("display: none;") && listElements.get(i).getAttribute("class").contains("hp-selected")) {
-                                // get the menu item name
-                                temp = listElements.get(i).getAttribute("textContent");
-
-                                // making sure no \n characters are in temp
-                                temp = temp.replace("\n", "");
-                                temp = temp.trim();
-
-                                // add this item, only if there is text for it
-                                if (temp.length() > 0) {
-                                    tempList.add(temp);
-                                }
-                            }
-                            ++i;
-                        }
-                    } else {
-                        // since we don't have any list elements, we may have option tags
-                        listElements = menuElement.findElements(By.tagName("option"));
-
-                        for (int j = 0; j < listElements.size(); j++) {
-                            // first, check if this list item is displayed
-                            if (listElements.get(j).isDisplayed()) {
-                                // get the menu item name
-                                temp = listElements.get(j).getAttribute("textContent");
-
-                                // add this item, only if there is text for it
-                                if (temp.length() > 0) {
-                                    tempList.add(temp);
-                                }
-                            }
-                        }
-                    }
-
-                    // A list of items was obtained from the menu
-                    if(tempList.size() != 0) {
-                        done = true;
-                    } else {
-                        retries++;
-                        // have we tried the maximum retries?
-                        if (retries == MAXRETRIES) {
-                            done = true;
-                        }
-
-                        log("Retry #" + retries);
-                    }
-                } catch(StaleElementReferenceException e){
-                    retries++;
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    } else {
-                        //tempList = new ArrayList<String>();
-                        if(clicked) {
-                            //need to close the menu in order to reset if Stale Element Reference was thrown
-                            menuElement.click();
-                        }
-                    }
+            // if the menu is redrawn while we are getting values, then a stale element is being thrown, and the list
+            //     may still be empty. To get around this the retry policy will read the list again
+            sleep(1, TimeUnit.SECONDS);
+            List<String> tempList = READ_POLICY.call("Menu::getSelectedItemList", new RetryPolicy.Attempt<List<String>>() {
+                public List<String> run() {
+                    return readItems(true);
                 }
-            }
+            }, NOT_EMPTY);
+
             // now, transferring over tempList to returnList
-            returnList = new String[tempList.size()];
-            for (int k = 0; k < tempList.size(); k++) {
-                returnList[k] = tempList.get(k);
-            }
+            returnList = tempList.toArray(new String[tempList.size()]);
 
 
             // checking to see if there is only 1 item in the list, and that item is null -- then we want to return an empty list
@@ -897,4 +716,58 @@ public class Menu extends BaseElement {
         return returnList;
     }
 
+    // Reads the displayed items of the menu, or only the selected ones.  This is one attempt of getItemList() and
+    // getSelectedItemList().
+    private List<String> readItems (boolean selectedOnly) {
+        String temp;
+        ArrayList<String> tempList = new ArrayList<String>();
+
+        // getting the combo box web element
+        WebElement menuElement = getWebElement();
+
+        // get a list of the menu items
+        List<WebElement> listElements = menuElement.findElements(By.tagName("li"));
+
+        if (listElements.size() > 0) {
+            // adding menu items to tempList
+            for (WebElement listElement : listElements) {
+
+                // is this menu item displayed?
+                String style = listElement.getAttribute("style");
+
+                if (!style.equals("display: none;") && (!selectedOnly || listElement.getAttribute("class").contains("hp-selected"))) {
+                    // get the menu item name
+                    temp = listElement.getAttribute("textContent");
+
+                    // making sure no \n characters are in temp
+                    temp = temp.replace("\n", "");
+                    temp = temp.trim();
+
+                    // add this item, only if there is text for it
+                    if (temp.length() > 0) {
+                        tempList.add(temp);
+                    }
+                }
+            }
+        } else {
+            // since we don't have any list elements, we may have option tags
+            listElements = menuElement.findElements(By.tagName("option"));
+
+            for (int j = 0; j < listElements.size(); j++) {
+                // first, check if this list item is displayed
+                if (listElements.get(j).isDisplayed()) {
+                    // get the menu item name
+                    temp = listElements.get(j).getAttribute("textContent");
+
+                    // add this item, only if there is text for it
+                    if (temp.length() > 0) {
+                        tempList.add(temp);
+                    }
+                }
+            }
+        }
+
+        return tempList;
+    }
+
 }
@@ -0,0 +1,394 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import static Helpers.Utility.log;
+import static Helpers.Utility.warning;
+
+/**
+ * This class measures how long the SSMC screens take to load.  For each page opened by
+ * {@link Browser#navigate(String)}, and for each hash route the page goes through, e.g. "#/volumes", it records:
+ * <ul>
+ *   <li>the DOMContentLoaded and load times of the page, from the Navigation Timing of the browser (only for the
+ *       screen the page was opened on);</li>
+ *   <li>the bytes transferred while the screen was shown;</li>
+ *   <li>the duration of each XHR and fetch request, by endpoint.</li>
+ * </ul>
+ * The requests come from the Chrome performance log of the browser, which is enabled when the browser is opened while
+ * {@link Globals#recordPageLoads} is {@code true}, or else from the Resource Timing of the page.  A page is read when the browser leaves it:
+ * before the next navigation, and when the browser is reset or closed.
+ * <p>
+ * {@link #export()} writes the p50 and p95 of these metrics per screen, with the slowest endpoints of each screen,
+ * to build/reports/performance/page-loads.json and page-loads.csv.
+ */
+public final class PageLoadReport {
+
+    // - - - - - Class attributes - - - - -
+
+    /** The number of endpoints listed as the slowest of each screen. */
+    public static final int SLOWEST_ENDPOINTS = 5;
+
+    private static final String REPORT_DIRECTORY = "build" + File.separator + "reports" + File.separator + "performance";
+
+    // keeps the hash routes of the page, with the time they were entered, and room for the resources of a long visit
+    private static final String INSTALL_SCRIPT =
+            "if (!window.__hpPageLoad && window.performance && performance.timing) {\n" +
+            "  var p = window.__hpPageLoad = { routes: [{ route: location.hash, start: performance.timing.navigationStart }] };\n" +
+            "  var mark = function () {\n" +
+            "    var last = p.routes[p.routes.length - 1];\n" +
+            "    if (last.route !== location.hash) { p.routes.push({ route: location.hash, start: new Date().getTime() }); }\n" +
+            "  };\n" +
+            "  window.addEventListener('hashchange', mark);\n" +
+            "  window.addEventListener('popstate', mark);\n" +
+            "  if (performance.setResourceTimingBufferSize) { performance.setResourceTimingBufferSize(2000); }\n" +
+            "}\n";
+
+    private static final String READ_SCRIPT =
+            "var p = window.__hpPageLoad;\n" +
+            "if (!p) { return null; }\n" +
+            "var t = performance.timing, origin = t.navigationStart, resources = [];\n" +
+            "var entries = performance.getEntriesByType ? performance.getEntriesByType('resource') : [];\n" +
+            "for (var i = 0; i < entries.length; i++) {\n" +
+            "  var e = entries[i];\n" +
+            "  resources.push({ url: e.name, xhr: e.initiatorType === 'xmlhttprequest' || e.initiatorType === 'fetch',\n" +
+            "                   start: Math.round(origin + e.startTime), duration: Math.round(e.duration),\n" +
+            "                   bytes: e.transferSize || e.encodedBodySize || 0 });\n" +
+            "}\n" +
+            "return { path: location.pathname, routes: p.routes, resources: resources,\n" +
+            "         domContentLoaded: t.domContentLoadedEventEnd > 0 ? t.domContentLoadedEventEnd - origin : -1,\n" +
+            "         load: t.loadEventEnd > 0 ? t.loadEventEnd - origin : -1 };\n";
+
+    // the metrics of each screen, by screen name
+    private static final ConcurrentMap<String, ScreenStats> SCREENS = new ConcurrentHashMap<String, ScreenStats>();
+
+    private PageLoadReport() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method starts following the hash routes of the current page of a browser.  It is called by
+     * {@link Browser#navigate(String)} once the page is loaded.
+     *
+     * @param browser  the browser
+     */
+    public static void install(Browser browser) {
+        if (!Globals.recordPageLoads) {
+            return;
+        }
+        try {
+            browser.executeScript(INSTALL_SCRIPT);
+        } catch (WebDriverException e) {
+            // e.g. an alert is open; this page is not recorded
+        }
+    }
+
+    /**
+     * This method records the screens of the current page of a browser, before the browser leaves it.  It is called
+     * by {@link Browser#navigate(String)}, {@link Browser#reset()} and {@link Browser#close()}.
+     *
+     * @param browser  the browser
+     */
+    public static void read(Browser browser) {
+        if (!Globals.recordPageLoads || browser.getDriver() == null) {
+            return;
+        }
+
+        Map<String, Object> page;
+        try {
+            page = ElementUtil.scriptResult(browser.executeScript(READ_SCRIPT));
+        } catch (WebDriverException e) {
+            page = null;
+        }
+        // the performance log is read in any case, so that its requests are not counted for the next page
+        List<Request> loggedRequests = readPerformanceLog(browser);
+        if (page == null) {
+            return;
+        }
+
+        List<Request> requests = (loggedRequests != null) ? loggedRequests : toRequests(ElementUtil.<List<Map<String, Object>>>scriptResult(page.get("resources")));
+        List<Map<String, Object>> routes = ElementUtil.scriptResult(page.get("routes"));
+        for (int i = 0; i < routes.size(); i++) {
+            long start = toLong(routes.get(i).get("start"));
+            long end = (i + 1 < routes.size()) ? toLong(routes.get(i + 1).get("start")) : Long.MAX_VALUE;
+
+            // the requests sent while the screen was shown; the first screen also gets those sent before the page
+            List<Request> screenRequests = new ArrayList<Request>();
+            for (Request request : requests) {
+                if ((i == 0 || request.start >= start) && request.start < end) {
+                    screenRequests.add(request);
+                }
+            }
+
+            String screen = toScreenName((String) page.get("path"), (String) routes.get(i).get("route"));
+            statsFor(screen).record(
+                    (i == 0) ? toLong(page.get("domContentLoaded")) : -1,
+                    (i == 0) ? toLong(page.get("load")) : -1,
+                    screenRequests);
+        }
+    }
+
+    /**
+     * This method forgets all recorded screens.
+     */
+    public static void reset() {
+        SCREENS.clear();
+    }
+
+    /**
+     * This method writes the recorded screens to build/reports/performance/page-loads.json and page-loads.csv, under
+     * the working directory.  For each screen, it writes the number of visits, the p50 and p95 of the
+     * DOMContentLoaded and load times in milliseconds and of the bytes transferred per visit, and the
+     * {@link #SLOWEST_ENDPOINTS} endpoints with the highest p95.  Failing to write the files is only logged, so that
+     * it does not fail the suite.
+     */
+    public static void export() {
+        if (SCREENS.isEmpty()) {
+            return;
+        }
+        File directory = new File(System.getProperty("user.dir"), REPORT_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            warning("PageLoadReport::export -- Could not create the directory " + directory.getAbsolutePath());
+            return;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (Map.Entry<String, ScreenStats> entry : new TreeMap<String, ScreenStats>(SCREENS).entrySet()) {
+            rows.add(entry.getValue().toRow(entry.getKey()));
+        }
+
+        File jsonFile = new File(directory, "page-loads.json");
+        File csvFile = new File(directory, "page-loads.csv");
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(jsonFile), Charset.forName("UTF-8"));
+            try {
+                new GsonBuilder().setPrettyPrinting().create().toJson(rows, writer);
+            } finally {
+                writer.close();
+            }
+            writeCsv(csvFile, rows);
+            log("Page loads of " + rows.size() + " screens written to " + jsonFile.getAbsolutePath() + " and " + csvFile.getName());
+        } catch (IOException e) {
+            warning("PageLoadReport::export -- Could not write the page loads: " + e.getMessage());
+        }
+    }
+
+    // Returns the requests of the Chrome performance log since it was last read; null if the browser has no such log.
+    private static List<Request> readPerformanceLog(Browser browser) {
+        if (!browser.hasPerformanceLog()) {
+            return null;
+        }
+
+        List<Request> returnValue = new ArrayList<Request>();
+        Map<String, JsonObject> sent = new HashMap<String, JsonObject>();
+        try {
+            for (LogEntry entry : browser.getDriver().manage().logs().get(LogType.PERFORMANCE)) {
+                JsonObject message = new JsonParser().parse(entry.getMessage()).getAsJsonObject().getAsJsonObject("message");
+                String method = message.get("method").getAsString();
+                JsonObject params = message.getAsJsonObject("params");
+
+                if (method.equals("Network.requestWillBeSent")) {
+                    sent.put(params.get("requestId").getAsString(), params);
+                } else if (method.equals("Network.loadingFinished")) {
+                    JsonObject request = sent.remove(params.get("requestId").getAsString());
+                    if (request == null || !request.has("wallTime")) {
+                        continue;
+                    }
+                    String type = request.has("type") ? request.get("type").getAsString() : "";
+                    // the timestamps are in seconds, the wall time is the time the request was sent
+                    returnValue.add(new Request(
+                            request.getAsJsonObject("request").get("url").getAsString(),
+                            type.equals("XHR") || type.equals("Fetch"),
+                            Math.round(request.get("wallTime").getAsDouble() * 1000),
+                            Math.round((params.get("timestamp").getAsDouble() - request.get("timestamp").getAsDouble()) * 1000),
+                            params.has("encodedDataLength") ? params.get("encodedDataLength").getAsLong() : 0));
+                }
+            }
+        } catch (WebDriverException e) {
+            warning("PageLoadReport::read -- Could not read the performance log, using the Resource Timing: " + e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            // not the expected format, e.g. with another version of chromedriver
+            warning("PageLoadReport::read -- Unexpected performance log entry, using the Resource Timing: " + e.getMessage());
+            return null;
+        }
+        return returnValue;
+    }
+
+    private static List<Request> toRequests(List<Map<String, Object>> resources) {
+        List<Request> returnValue = new ArrayList<Request>();
+        for (Map<String, Object> resource : resources) {
+            returnValue.add(new Request((String) resource.get("url"), Boolean.TRUE.equals(resource.get("xhr")),
+                    toLong(resource.get("start")), toLong(resource.get("duration")), toLong(resource.get("bytes"))));
+        }
+        return returnValue;
+    }
+
+    // The name of a screen: the path of the page and its hash route, without the query and the ids, e.g.
+    // "/#/virtual-volumes/{id}/overview" for "/#/virtual-volumes/1234/overview?view=table".
+    private static String toScreenName(String path, String route) {
+        return normalize(path + (route == null ? "" : route));
+    }
+
+    // The name of an endpoint: its URL without the query and the ids.
+    private static String normalize(String url) {
+        int queryStart = url.indexOf('?');
+        String returnValue = (queryStart >= 0) ? url.substring(0, queryStart) : url;
+        return returnValue
+                .replaceAll("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)", "/{id}")
+                .replaceAll("/[0-9]+(?=/|$)", "/{id}");
+    }
+
+    private static long toLong(Object value) {
+        return (value instanceof Number) ? ((Number) value).longValue() : -1;
+    }
+
+    private static ScreenStats statsFor(String screen) {
+        ScreenStats screenStats = SCREENS.get(screen);
+        if (screenStats == null) {
+            screenStats = new ScreenStats();
+            ScreenStats existing = SCREENS.putIfAbsent(screen, screenStats);
+            if (existing != null) {
+                screenStats = existing;
+            }
+        }
+        return screenStats;
+    }
+
+    private static void writeCsv(File file, List<Map<String, Object>> rows) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            writer.write("screen,visits,domContentLoadedP50,domContentLoadedP95,loadP50,loadP95,bytesP50,bytesP95,"
+                    + "slowestEndpoint,slowestEndpointP95\n");
+            for (Map<String, Object> row : rows) {
+                List<Map<String, Object>> endpoints = ElementUtil.scriptResult(row.get("slowestEndpoints"));
+                Map<String, Object> slowest = endpoints.isEmpty() ? null : endpoints.get(0);
+                writer.write(toCsvField(row.get("screen")) + "," + row.get("visits") + ","
+                        + row.get("domContentLoadedP50") + "," + row.get("domContentLoadedP95") + ","
+                        + row.get("loadP50") + "," + row.get("loadP95") + ","
+                        + row.get("bytesP50") + "," + row.get("bytesP95") + ","
+                        + (slowest == null ? "," : toCsvField(slowest.get("endpoint")) + "," + slowest.get("p95Millis")) + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String toCsvField(Object value) {
+        String field = String.valueOf(value);
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+
+
+    // A request of a page, from the performance log or the Resource Timing.
+    private static final class Request {
+        final String url;
+        final boolean xhr;
+        final long start;      // epoch milliseconds
+        final long duration;   // milliseconds
+        final long bytes;
+
+        Request(String url, boolean xhr, long start, long duration, long bytes) {
+            this.url = url;
+            this.xhr = xhr;
+            this.start = start;
+            this.duration = duration;
+            this.bytes = bytes;
+        }
+    }
+
+    // The histograms of a screen.
+    private static final class ScreenStats {
+        final Histogram domContentLoaded = new Histogram();
+        final Histogram load = new Histogram();
+        final Histogram bytes = new Histogram();
+        // the durations of the XHR and fetch requests, by endpoint
+        final Map<String, Histogram> endpoints = new HashMap<String, Histogram>();
+
+        synchronized void record(long domContentLoadedMillis, long loadMillis, List<Request> requests) {
+            if (domContentLoadedMillis >= 0) {
+                this.domContentLoaded.record(domContentLoadedMillis);
+            }
+            if (loadMillis >= 0) {
+                this.load.record(loadMillis);
+            }
+
+            long totalBytes = 0;
+            for (Request request : requests) {
+                totalBytes += Math.max(request.bytes, 0);
+                if (request.xhr && request.duration >= 0) {
+                    String endpoint = normalize(request.url);
+                    Histogram durations = this.endpoints.get(endpoint);
+                    if (durations == null) {
+                        durations = new Histogram();
+                        this.endpoints.put(endpoint, durations);
+                    }
+                    durations.record(request.duration);
+                }
+            }
+            this.bytes.record(totalBytes);
+        }
+
+        synchronized Map<String, Object> toRow(String screen) {
+            Map<String, Object> row = new LinkedHashMap<String, Object>();
+            row.put("screen", screen);
+            row.put("visits", this.bytes.getCount());
+            row.put("domContentLoadedP50", this.domContentLoaded.getPercentile(50));
+            row.put("domContentLoadedP95", this.domContentLoaded.getPercentile(95));
+            row.put("loadP50", this.load.getPercentile(50));
+            row.put("loadP95", this.load.getPercentile(95));
+            row.put("bytesP50", this.bytes.getPercentile(50));
+            row.put("bytesP95", this.bytes.getPercentile(95));
+
+            List<Map.Entry<String, Histogram>> sorted = new ArrayList<Map.Entry<String, Histogram>>(this.endpoints.entrySet());
+            Collections.sort(sorted, new Comparator<Map.Entry<String, Histogram>>() {
+                public int compare(Map.Entry<String, Histogram> entry1, Map.Entry<String, Histogram> entry2) {
+                    return Double.compare(entry2.getValue().getPercentile(95), entry1.getValue().getPercentile(95));
+                }
+            });
+            List<Map<String, Object>> slowest = new ArrayList<Map<String, Object>>();
+            for (Map.Entry<String, Histogram> entry : sorted.subList(0, Math.min(SLOWEST_ENDPOINTS, sorted.size()))) {
+                Map<String, Object> endpoint = new LinkedHashMap<String, Object>();
+                endpoint.put("endpoint", entry.getKey());
+                endpoint.put("count", entry.getValue().getCount());
+                endpoint.put("p50Millis", entry.getValue().getPercentile(50));
+                endpoint.put("p95Millis", entry.getValue().getPercentile(95));
+                endpoint.put("maxMillis", entry.getValue().getMax());
+                slowest.add(endpoint);
+            }
+            row.put("slowestEndpoints", slowest);
+            return row;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriverException;
+
+import static Elements.Globals.browser;
+import static Helpers.Utility.sleep;
+
+/**
+ * This class tells whether the page is quiet: no XHR or fetch request is pending, no jQuery animation is running,
+ * no element is marked "hp-changing", and nothing has changed in the page for {@link #SETTLE_MILLIS}.  It lets a
+ * negative check, e.g. {@link BaseElement#exists(int)} on a dialog that is not shown, return as soon as the page is
+ * done loading, instead of waiting out its timeout.
+ * <p>
+ * The first check in a page installs a tracker in it, which wraps {@code XMLHttpRequest.send} and {@code fetch} to
+ * count the pending requests, and watches the changes of the page with a {@code MutationObserver}.  Requests sent
+ * before the tracker was installed are only seen through {@code jQuery.active}, so the page is not reported quiet
+ * until the tracker has been installed for {@link #SETTLE_MILLIS}.  {@link Browser#navigate(String)} installs the
+ * tracker as soon as the page is loaded.  The tracker stays in the page through the route changes of a single-page
+ * application, which it counts as activity, and each check installs it again in a page loaded since.
+ * <p>
+ * {@link #settle(long)} replaces the fixed sleeps that let the UI settle: it waits, in a single asynchronous script
+ * execution, until the page is quiet.
+ */
+public final class PageQuiescence {
+
+    // - - - - - Class attributes - - - - -
+
+    /** The time without any activity after which the page is considered quiet, in milliseconds. */
+    public static final long SETTLE_MILLIS = 500;
+
+    private static final String INSTALL_SCRIPT =
+            "if (!window.__hpQuiescence) {\n" +
+            "  var q = window.__hpQuiescence = { pending: 0, lastActivity: new Date().getTime() };\n" +
+            "  q.installedAt = q.lastActivity;\n" +
+            "  var touch = function () { q.lastActivity = new Date().getTime(); };\n" +
+            "  var done = function () { q.pending = Math.max(0, q.pending - 1); touch(); };\n" +
+            "  var xhr = window.XMLHttpRequest && window.XMLHttpRequest.prototype;\n" +
+            "  if (xhr && xhr.addEventListener) {\n" +
+            "    var send = xhr.send;\n" +
+            "    xhr.send = function () {\n" +
+            "      var finished = false;\n" +
+            "      var finish = function () { if (!finished) { finished = true; done(); } };\n" +
+            "      q.pending++; touch();\n" +
+            "      this.addEventListener('loadend', finish);\n" +
+            "      try { return send.apply(this, arguments); } catch (e) { finish(); throw e; }\n" +
+            "    };\n" +
+            "  }\n" +
+            "  if (typeof window.fetch === 'function') {\n" +
+            "    var fetch = window.fetch;\n" +
+            "    window.fetch = function () {\n" +
+            "      q.pending++; touch();\n" +
+            "      var promise;\n" +
+            "      try { promise = fetch.apply(this, arguments); } catch (e) { done(); throw e; }\n" +
+            "      return promise.then(function (r) { done(); return r; }, function (e) { done(); throw e; });\n" +
+            "    };\n" +
+            "  }\n" +
+            "  if (window.history && window.history.pushState) {\n" +
+            "    var wrap = function (name) {\n" +
+            "      var original = window.history[name];\n" +
+            "      window.history[name] = function () { touch(); return original.apply(this, arguments); };\n" +
+            "    };\n" +
+            "    wrap('pushState'); wrap('replaceState');\n" +
+            "  }\n" +
+            "  window.addEventListener('popstate', touch);\n" +
+            "  window.addEventListener('hashchange', touch);\n" +
+            "  if (window.MutationObserver && document.documentElement) {\n" +
+            "    new MutationObserver(touch).observe(document.documentElement,\n" +
+            "        { childList: true, subtree: true, attributes: true, characterData: true });\n" +
+            "  }\n" +
+            "}\n";
+
+    private static final String PROBE_SCRIPT =
+            INSTALL_SCRIPT +
+            "var q = window.__hpQuiescence, now = new Date().getTime(), settle = arguments[0];\n" +
+            "var jq = window.jQuery;\n" +
+            "var ajax = (jq && jq.active) || 0;\n" +
+            "var animations = (jq && jq.timers) ? jq.timers.length : 0;\n" +
+            "var changing = document.getElementsByClassName('hp-changing').length;\n" +
+            "if (q.pending + ajax + animations + changing > 0 || document.readyState !== 'complete') {\n" +
+            "  q.lastActivity = now;\n" +
+            "}\n" +
+            "return { quiet: now - q.lastActivity >= settle && now - q.installedAt >= settle,\n" +
+            "         pending: q.pending, ajax: ajax, animations: animations, changing: changing };\n";
+
+    // waits until the page has been quiet for arguments[0] milliseconds, or for at most arguments[1] milliseconds
+    private static final String WAIT_SCRIPT =
+            INSTALL_SCRIPT +
+            "var q = window.__hpQuiescence, idle = arguments[0], deadline = new Date().getTime() + arguments[1];\n" +
+            "var callback = arguments[arguments.length - 1];\n" +
+            "function busy() {\n" +
+            "  var jq = window.jQuery;\n" +
+            "  var ajax = (jq && jq.active) || 0, animations = (jq && jq.timers) ? jq.timers.length : 0;\n" +
+            "  var changing = document.getElementsByClassName('hp-changing').length;\n" +
+            "  return q.pending + ajax + animations + changing > 0 || document.readyState !== 'complete';\n" +
+            "}\n" +
+            "(function poll() {\n" +
+            "  var now = new Date().getTime();\n" +
+            "  if (busy()) { q.lastActivity = now; }\n" +
+            "  if (now - q.lastActivity >= idle && now - q.installedAt >= idle) { callback(true); }\n" +
+            "  else if (now >= deadline) { callback(false); }\n" +
+            "  else { setTimeout(poll, 50); }\n" +
+            "})();\n";
+
+    private PageQuiescence() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method checks whether the page is quiet, in a single script execution.
+     *
+     * @return  {@code true} if the page is quiet; {@code false} if it is busy, or if the check cannot run in this page
+     */
+    public static boolean isQuiet() {
+        Map<String, Object> state = probe();
+        return state != null && Boolean.TRUE.equals(state.get("quiet"));
+    }
+
+    /**
+     * This method installs the tracker in the current page of a browser, so that the page can be reported quiet
+     * {@link #SETTLE_MILLIS} later, instead of that long after the first check.  It is called by
+     * {@link Browser#navigate(String)}.
+     *
+     * @param browser  the browser
+     */
+    public static void install(Browser browser) {
+        try {
+            browser.executeScript(INSTALL_SCRIPT);
+        } catch (WebDriverException e) {
+            // the next check installs it
+        }
+    }
+
+    /**
+     * This method waits until the page has been quiet for some time, in a single asynchronous script execution.
+     *
+     * @param idleMillis      the time without any activity to wait for, in milliseconds
+     * @param timeOutSeconds  the maximum time to wait
+     * @return                {@code true} if the page is quiet; {@code false} if it is still busy after the timeout,
+     *                        or if the wait cannot run in this page
+     */
+    public static boolean waitForQuiet(long idleMillis, int timeOutSeconds) {
+        return Boolean.TRUE.equals(waitFor(idleMillis, TimeUnit.SECONDS.toMillis(timeOutSeconds)));
+    }
+
+    /**
+     * This method lets the UI settle, instead of a fixed sleep: it waits until the page is quiet (see
+     * {@link #waitForQuiet(long, int)}), for at most the time of the sleep it replaces, and then goes on even if the
+     * page is still busy, e.g. because of a spinner or a live chart.  Thus it is never slower than the sleep.  If the wait cannot run in this page, e.g. because the page is being
+     * replaced, or if {@link Globals#settleOnQuiescence} is {@code false}, it sleeps for the time of the sleep it
+     * replaces.
+     *
+     * @param fallbackMillis  the time of the fixed sleep replaced, in milliseconds
+     */
+    public static void settle(long fallbackMillis) {
+        if (Globals.settleOnQuiescence && waitFor(SETTLE_MILLIS, fallbackMillis) != null) {
+            return;
+        }
+        sleep(fallbackMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method returns the activity of the page: whether it is quiet, and the number of pending requests
+     * ("pending" and "ajax"), of running jQuery animations ("animations") and of elements marked "hp-changing"
+     * ("changing").
+     *
+     * @return  the activity of the page; {@code null} if the check cannot run in this page
+     */
+    public static Map<String, Object> probe() {
+        try {
+            return ElementUtil.scriptResult(browser().executeScript(PROBE_SCRIPT, SETTLE_MILLIS));
+        } catch (WebDriverException e) {
+            // e.g. an alert is open, or the page is being replaced
+            return null;
+        }
+    }
+
+    // Returns whether the page got quiet before the timeout; null if the wait cannot run in this page.
+    private static Boolean waitFor(long idleMillis, long timeOutMillis) {
+        try {
+            // the script gives up a few seconds before the driver does
+            int driverTimeOutSeconds = (int) TimeUnit.MILLISECONDS.toSeconds(timeOutMillis + 999) + 5;
+            return (Boolean) browser().executeAsyncScript(driverTimeOutSeconds, WAIT_SCRIPT, idleMillis, timeOutMillis);
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+}
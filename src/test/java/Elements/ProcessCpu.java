@@ -0,0 +1,96 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class reads the CPU time used by a chromedriver process and by all its descendants, i.e. Chrome and its
+ * renderers, from /proc.  It only works on Linux; elsewhere, the CPU time is unknown.
+ */
+final class ProcessCpu {
+
+    // - - - - - Class attributes - - - - -
+
+    // the clock ticks per second of the times in /proc/<pid>/stat; 100 on the usual Linux kernels
+    private static final long TICKS_PER_SECOND = 100;
+    private static final File PROC = new File("/proc");
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private ProcessCpu() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method returns the CPU time, user and system, used until now by the chromedriver process listening on a
+     * port and by its descendants, including the descendants that already exited.
+     *
+     * @param driverPort  the port of the chromedriver process
+     * @return            the CPU time in nanoseconds; -1 if it is unknown, e.g. on Windows
+     */
+    static long getTreeCpuNanos(int driverPort) {
+        File[] processes = PROC.listFiles();
+        if (processes == null) {
+            return -1;
+        }
+
+        // the parent and the CPU ticks of each process, and the chromedriver process
+        Map<String, String> parents = new HashMap<String, String>();
+        Map<String, Long> ticks = new HashMap<String, Long>();
+        String driverPid = null;
+        for (File process : processes) {
+            String pid = process.getName();
+            if (!pid.matches("\\d+")) {
+                continue;
+            }
+            try {
+                String stat = new String(Files.readAllBytes(new File(process, "stat").toPath()), UTF8);
+                // the fields after the command name, which is in parentheses and may contain spaces
+                String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+                ticks.put(pid, Long.parseLong(fields[11]) + Long.parseLong(fields[12])
+                        + Long.parseLong(fields[13]) + Long.parseLong(fields[14]));
+                parents.put(pid, fields[1]);
+
+                if (driverPid == null) {
+                    String commandLine = new String(Files.readAllBytes(new File(process, "cmdline").toPath()), UTF8);
+                    // the arguments are separated by NUL characters
+                    if (commandLine.contains("chromedriver") && commandLine.contains("--port=" + driverPort + "\u0000")) {
+                        driverPid = pid;
+                    }
+                }
+            } catch (IOException e) {
+                // the process exited while it was read
+            } catch (RuntimeException e) {
+                // not the expected format
+            }
+        }
+        if (driverPid == null) {
+            return -1;
+        }
+
+        // walk down the process tree from the chromedriver process
+        long totalTicks = 0;
+        List<String> tree = new ArrayList<String>();
+        tree.add(driverPid);
+        for (int i = 0; i < tree.size(); i++) {
+            totalTicks += ticks.get(tree.get(i));
+            for (Map.Entry<String, String> entry : parents.entrySet()) {
+                if (entry.getValue().equals(tree.get(i))) {
+                    tree.add(entry.getKey());
+                }
+            }
+        }
+        return totalTicks * (1000000000L / TICKS_PER_SECOND);
+    }
+}
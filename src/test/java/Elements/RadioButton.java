@@ -92,7 +92,7 @@ public class RadioButton extends BaseElement {
             returnValue = "VALUE";
             log("=== This radio button's locator is currently stubbed out. Returning value '" + returnValue + "' ===");
         } else {
-            returnValue = browser.findElement(labelLocater).getText(); // CRAIG: reverted to original code since getWebElement() broke this
+            returnValue = browser().findElement(labelLocater).getText(); // CRAIG: reverted to original code since getWebElement() broke this
         }
         return returnValue;
     }
@@ -0,0 +1,500 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static Helpers.Utility.log;
+import static Helpers.Utility.sleep;
+import static Helpers.Utility.warning;
+
+/**
+ * This class retries an action that fails because the page changed under it, e.g. a table that is redrawn while it
+ * is being read.  It replaces the retry loops that used to be written by hand in the web element classes:
+ * <pre>
+ *   int rowCount = RetryPolicy.STALE_ELEMENT.call("Table::getRowCount", new RetryPolicy.Attempt&lt;Integer&gt;() {
+ *       public Integer run() {
+ *           return getRowElements().size();
+ *       }
+ *   });
+ * </pre>
+ * A policy has:
+ * <ul>
+ *   <li>rules, which tell which exceptions are retried, and how many attempts each of them allows;</li>
+ *   <li>an exponential backoff with jitter between the attempts, so that retries neither hammer the browser nor
+ *       all wake up at the same time;</li>
+ *   <li>an optional deadline, which bounds the total time spent in the action, whatever the number of attempts.</li>
+ * </ul>
+ * When the attempts or the deadline are exhausted, the last exception is thrown to the caller.  It is also logged,
+ * with its stack trace, unless the policy is {@link Builder#quiet() quiet}.
+ * <p>
+ * An action can also be retried when its result is not the expected one, with
+ * {@link #call(String, Attempt, Check)}; e.g. a menu whose items are not displayed yet.  In that case the last
+ * result is returned when the attempts or the deadline are exhausted, and the caller decides what to do with it.
+ * <p>
+ * Every call is counted per call site (the name passed to {@link #call(String, Attempt)}): the number of calls,
+ * retries and failures, and the time lost in failed attempts and backoff.  {@link #logStats()} logs them, so the
+ * cost of the retries is visible at the end of a test.
+ */
+public final class RetryPolicy {
+
+    /**
+     * An action to retry.
+     *
+     * @param <T>  the type of the result of the action
+     */
+    public interface Attempt<T> {
+        T run();
+    }
+
+    /**
+     * A check of the result of an action, e.g. that the menu item looked for was found.  An action whose result does
+     * not pass the check is run again, like a failed one.
+     *
+     * @param <T>  the type of the result of the action
+     */
+    public interface Check<T> {
+        boolean isDone(T result);
+    }
+
+    /**
+     * This policy retries the actions that fail with a {@link StaleElementReferenceException}, e.g. while a table is
+     * being redrawn: 5 attempts, with a backoff of 200 milliseconds doubling up to 3 seconds.
+     */
+    public static final RetryPolicy STALE_ELEMENT = builder()
+            .retryOn(StaleElementReferenceException.class, 5)
+            .backoff(200, 3000, TimeUnit.MILLISECONDS)
+            .build();
+
+    /**
+     * This policy retries the actions that fail while a list of elements changes under them: like
+     * {@link #STALE_ELEMENT}, and also when an element disappears from the list ({@link IndexOutOfBoundsException}).
+     */
+    public static final RetryPolicy CHANGING_LIST = builder()
+            .retryOn(StaleElementReferenceException.class, 5)
+            .retryOn(IndexOutOfBoundsException.class, 5)
+            .backoff(200, 3000, TimeUnit.MILLISECONDS)
+            .build();
+
+    /**
+     * This policy waits for an element to appear, e.g. an item added to a list: it retries the actions that fail with
+     * a {@link NoSuchElementException} or a {@link StaleElementReferenceException}, or whose result does not pass
+     * their check, with a backoff of 500 milliseconds doubling up to 2 seconds, for at most 30 seconds.  The caller
+     * usually sets its own deadline with {@link #withDeadline(long, TimeUnit)}.  The policy is quiet: an element that
+     * does not appear is an answer, not an error.
+     */
+    public static final RetryPolicy NO_SUCH_ELEMENT = builder()
+            .retryOn(NoSuchElementException.class, Integer.MAX_VALUE)
+            .retryOn(StaleElementReferenceException.class, Integer.MAX_VALUE)
+            .retryOnResult(Integer.MAX_VALUE)
+            .backoff(500, 2000, TimeUnit.MILLISECONDS)
+            .deadline(30, TimeUnit.SECONDS)
+            .quiet()
+            .build();
+
+    /**
+     * This policy retries a click until it succeeds or for at most 30 seconds: a click fails when the element is
+     * covered, stale or not yet clickable.
+     */
+    public static final RetryPolicy CLICK = builder()
+            .retryOn(WebDriverException.class, Integer.MAX_VALUE)
+            .backoff(100, 1000, TimeUnit.MILLISECONDS)
+            .deadline(30, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * This policy tries an action twice when it fails with any {@link WebDriverException}, e.g. a mouse move on an
+     * element that is scrolled or redrawn by the first move.  It is meant for actions whose failure the caller
+     * tolerates, so it is quiet.
+     */
+    public static final RetryPolicy BEST_EFFORT = builder()
+            .retryOn(WebDriverException.class, 2)
+            .backoff(100, 100, TimeUnit.MILLISECONDS)
+            .quiet()
+            .build();
+
+    private static final Map<String, CallSiteStats> STATS = new ConcurrentHashMap<String, CallSiteStats>();
+    private static final Random RANDOM = new Random();
+
+    // the exceptions retried by this policy, with the maximum number of attempts for each of them, in the order
+    // they were added; the first rule that matches an exception applies
+    private final Map<Class<? extends RuntimeException>, Integer> rules;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double multiplier;
+    private final double jitter;
+    private final long deadlineMillis;
+    // the maximum number of attempts when the result of the action does not pass its check
+    private final int maxResultAttempts;
+    // whether the last exception is thrown without being logged
+    private final boolean quiet;
+
+    private RetryPolicy(Builder builder) {
+        this.rules = new LinkedHashMap<Class<? extends RuntimeException>, Integer>(builder.rules);
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.deadlineMillis = builder.deadlineMillis;
+        this.maxResultAttempts = builder.maxResultAttempts;
+        this.quiet = builder.quiet;
+    }
+
+    // Copy of a policy with another deadline.
+    private RetryPolicy(RetryPolicy policy, long deadlineMillis) {
+        this.rules = policy.rules;
+        this.initialBackoffMillis = policy.initialBackoffMillis;
+        this.maxBackoffMillis = policy.maxBackoffMillis;
+        this.multiplier = policy.multiplier;
+        this.jitter = policy.jitter;
+        this.deadlineMillis = deadlineMillis;
+        this.maxResultAttempts = policy.maxResultAttempts;
+        this.quiet = policy.quiet;
+    }
+
+    /**
+     * This method starts the definition of a new policy.
+     *
+     * @return  a builder for a new policy
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * This method returns a copy of this policy with another deadline, e.g. a deadline computed by
+     * {@link AdaptiveTimeouts}.
+     *
+     * @param deadline  the maximum time of a call, including all attempts and waits
+     * @param unit      the unit of the time
+     * @return          a new policy
+     */
+    public RetryPolicy withDeadline(long deadline, TimeUnit unit) {
+        return new RetryPolicy(this, TimeUnit.MILLISECONDS.convert(deadline, unit));
+    }
+
+    /**
+     * This method runs an action, and runs it again according to this policy if it fails.
+     *
+     * @param callSite  the name of the caller, e.g. "Table::getRowCount", under which the call is counted
+     * @param attempt   the action to run
+     * @param <T>       the type of the result of the action
+     * @return          the result of the first successful attempt
+     * @throws RuntimeException the exception of the last attempt, if it is not retried by this policy or if the
+     *                          attempts or the deadline are exhausted
+     */
+    public <T> T call(String callSite, Attempt<T> attempt) {
+        return call(callSite, attempt, null);
+    }
+
+    /**
+     * This method runs an action, and runs it again according to this policy if it fails or if its result does not
+     * pass the specified check.  The number of attempts for a result that does not pass the check is set with
+     * {@link Builder#retryOnResult(int)}.
+     *
+     * @param callSite  the name of the caller, e.g. "Menu::selectItem", under which the call is counted
+     * @param attempt   the action to run
+     * @param check     the check of the result of the action; {@code null} to accept any result
+     * @param <T>       the type of the result of the action
+     * @return          the result of the first attempt that passes the check; the result of the last attempt if
+     *                  none passed it before the attempts or the deadline are exhausted
+     * @throws RuntimeException the exception of the last attempt, if it is not retried by this policy or if the
+     *                          attempts or the deadline are exhausted
+     */
+    public <T> T call(String callSite, Attempt<T> attempt, Check<? super T> check) {
+        CallSiteStats stats = statsFor(callSite);
+        stats.calls.incrementAndGet();
+
+        long startTime = System.nanoTime();
+        long deadline = (this.deadlineMillis > 0) ? startTime + TimeUnit.NANOSECONDS.convert(this.deadlineMillis, TimeUnit.MILLISECONDS) : Long.MAX_VALUE;
+        long backoff = this.initialBackoffMillis;
+        int attempts = 0;
+        // the attempts whose result did not pass the check, and the failed attempts counted by each rule, so that
+        // each of them has its own maximum
+        int resultAttempts = 0;
+        Map<Class<? extends RuntimeException>, Integer> ruleAttempts = new HashMap<Class<? extends RuntimeException>, Integer>();
+
+        while (true) {
+            long attemptStart = System.nanoTime();
+            try {
+                T result = attempt.run();
+                attempts++;
+                if (check == null || check.isDone(result)) {
+                    return result;
+                }
+
+                resultAttempts++;
+                long now = System.nanoTime();
+                if ((resultAttempts >= this.maxResultAttempts) || (now >= deadline)) {
+                    stats.failures.incrementAndGet();
+                    stats.nanosLost.addAndGet(now - attemptStart);
+                    log(callSite + " did not get the expected result after " + attempts + " attempts and "
+                            + TimeUnit.MILLISECONDS.convert(now - startTime, TimeUnit.NANOSECONDS) + " ms");
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                attempts++;
+                Class<? extends RuntimeException> rule = ruleFor(e);
+                long now = System.nanoTime();
+
+                if (rule == null) {
+                    // not an exception this policy is meant to recover from
+                    stats.nanosLost.addAndGet(now - attemptStart);
+                    throw e;
+                }
+                Integer failedAttempts = ruleAttempts.get(rule);
+                failedAttempts = (failedAttempts == null) ? 1 : failedAttempts + 1;
+                ruleAttempts.put(rule, failedAttempts);
+                if ((failedAttempts >= this.rules.get(rule)) || (now >= deadline)) {
+                    stats.failures.incrementAndGet();
+                    stats.nanosLost.addAndGet(now - attemptStart);
+                    if (!this.quiet) {
+                        warning("ERROR!  " + e.getClass().getSimpleName() + " - " + e.getMessage());
+                        warning(callSite + " failed after " + attempts + " attempts and "
+                                + TimeUnit.MILLISECONDS.convert(now - startTime, TimeUnit.NANOSECONDS) + " ms");
+                        e.printStackTrace();
+                    }
+                    throw e;
+                }
+            }
+
+            // wait before the next attempt, but not past the deadline
+            long sleepMillis = Math.min(withJitter(backoff), TimeUnit.MILLISECONDS.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            if (sleepMillis > 0) {
+                sleep(sleepMillis, TimeUnit.MILLISECONDS);
+            }
+            backoff = Math.min((long) (backoff * this.multiplier), this.maxBackoffMillis);
+
+            stats.retries.incrementAndGet();
+            Instrumentation.countRetry();
+            stats.nanosLost.addAndGet(System.nanoTime() - attemptStart);
+        }
+    }
+
+    /**
+     * This method runs an action that has no result, and runs it again according to this policy if it fails.
+     * See {@link #call(String, Attempt)}.
+     *
+     * @param callSite  the name of the caller, under which the call is counted
+     * @param action    the action to run
+     */
+    public void run(String callSite, final Runnable action) {
+        call(callSite, new Attempt<Void>() {
+            public Void run() {
+                action.run();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * This method returns the counters of all call sites, by call site.
+     *
+     * @return  a copy of the counters of the call sites: calls, retries, failures and milliseconds lost
+     */
+    public static Map<String, long[]> getStats() {
+        Map<String, long[]> returnValue = new LinkedHashMap<String, long[]>();
+        for (Map.Entry<String, CallSiteStats> entry : STATS.entrySet()) {
+            CallSiteStats stats = entry.getValue();
+            returnValue.put(entry.getKey(), new long[] {
+                    stats.calls.get(), stats.retries.get(), stats.failures.get(),
+                    TimeUnit.MILLISECONDS.convert(stats.nanosLost.get(), TimeUnit.NANOSECONDS) });
+        }
+        return returnValue;
+    }
+
+    /**
+     * This method logs the counters of the call sites that had to retry, the most costly first.
+     */
+    public static void logStats() {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<Map.Entry<String, long[]>>(getStats().entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, long[]>>() {
+            public int compare(Map.Entry<String, long[]> a, Map.Entry<String, long[]> b) {
+                return Long.compare(b.getValue()[3], a.getValue()[3]);
+            }
+        });
+
+        for (Map.Entry<String, long[]> entry : entries) {
+            long[] stats = entry.getValue();
+            if (stats[1] > 0 || stats[2] > 0) {
+                log("Retries: " + entry.getKey() + " - " + stats[0] + " calls, " + stats[1] + " retries, "
+                        + stats[2] + " failures, " + stats[3] + " ms lost");
+            }
+        }
+    }
+
+    /**
+     * This method resets the counters of all call sites.
+     */
+    public static void resetStats() {
+        STATS.clear();
+    }
+
+    // The first rule that matches an exception; null if none does.
+    private Class<? extends RuntimeException> ruleFor(RuntimeException e) {
+        for (Class<? extends RuntimeException> rule : this.rules.keySet()) {
+            if (rule.isInstance(e)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private long withJitter(long millis) {
+        double factor;
+        synchronized (RANDOM) {
+            factor = 1 + this.jitter * (2 * RANDOM.nextDouble() - 1);
+        }
+        return (long) (millis * factor);
+    }
+
+    private static CallSiteStats statsFor(String callSite) {
+        CallSiteStats stats = STATS.get(callSite);
+        if (stats == null) {
+            STATS.putIfAbsent(callSite, new CallSiteStats());
+            stats = STATS.get(callSite);
+        }
+        return stats;
+    }
+
+    // the counters of a call site
+    private static final class CallSiteStats {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong nanosLost = new AtomicLong();
+    }
+
+
+    /**
+     * This class builds a {@link RetryPolicy}.  By default, a policy retries nothing, has a backoff of 200
+     * milliseconds doubling up to 3 seconds with a jitter of 20%, and no deadline.
+     */
+    public static final class Builder {
+        private final Map<Class<? extends RuntimeException>, Integer> rules = new LinkedHashMap<Class<? extends RuntimeException>, Integer>();
+        private long initialBackoffMillis = 200;
+        private long maxBackoffMillis = 3000;
+        private double multiplier = 2;
+        private double jitter = 0.2;
+        private long deadlineMillis = 0;
+        private int maxResultAttempts = 1;
+        private boolean quiet = false;
+
+        private Builder() {
+        }
+
+        /**
+         * This method makes the policy retry the actions that fail with the specified exception, or one of its
+         * subclasses.  Rules are checked in the order they are added.  Each rule counts its own failed attempts,
+         * e.g. the attempts of {@link RetryPolicy#CHANGING_LIST} that failed with a stale element do not use up the
+         * attempts allowed for an element that disappeared from the list.
+         *
+         * @param exceptionClass  the exception to retry
+         * @param maxAttempts     the maximum number of attempts that fail with this exception, including the first
+         *                        one
+         * @return                this builder
+         */
+        public Builder retryOn(Class<? extends RuntimeException> exceptionClass, int maxAttempts) {
+            this.rules.put(exceptionClass, maxAttempts);
+            return this;
+        }
+
+        /**
+         * This method makes the policy run an action again when its result does not pass the check given to
+         * {@link RetryPolicy#call(String, Attempt, Check)}.
+         *
+         * @param maxAttempts  the maximum number of attempts whose result does not pass the check, including the
+         *                     first one
+         * @return             this builder
+         */
+        public Builder retryOnResult(int maxAttempts) {
+            this.maxResultAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * This method sets the exponential backoff between the attempts.
+         *
+         * @param initial  the wait before the second attempt
+         * @param max      the maximum wait between two attempts
+         * @param unit     the unit of the waits
+         * @return         this builder
+         */
+        public Builder backoff(long initial, long max, TimeUnit unit) {
+            this.initialBackoffMillis = TimeUnit.MILLISECONDS.convert(initial, unit);
+            this.maxBackoffMillis = TimeUnit.MILLISECONDS.convert(max, unit);
+            return this;
+        }
+
+        /**
+         * This method sets the factor applied to the wait after each failed attempt.
+         *
+         * @param multiplier  the factor, 1 for a constant wait
+         * @return            this builder
+         */
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * This method sets the random variation of the waits.
+         *
+         * @param jitter  the maximum variation, as a fraction of the wait, e.g. 0.2 for +/- 20%
+         * @return        this builder
+         */
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * This method sets the maximum total time of a call, including all attempts and waits.  No attempt is
+         * started after the deadline.
+         *
+         * @param deadline  the maximum time
+         * @param unit      the unit of the time
+         * @return          this builder
+         */
+        public Builder deadline(long deadline, TimeUnit unit) {
+            this.deadlineMillis = TimeUnit.MILLISECONDS.convert(deadline, unit);
+            return this;
+        }
+
+        /**
+         * This method makes the policy throw the last exception without logging it, for the actions whose failure
+         * the caller expects or tolerates.  The failure is still counted in {@link RetryPolicy#getStats()}.
+         *
+         * @return  this builder
+         */
+        public Builder quiet() {
+            this.quiet = true;
+            return this;
+        }
+
+        /**
+         * This method creates the policy.
+         *
+         * @return  a new policy
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
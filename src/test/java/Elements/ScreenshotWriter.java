@@ -0,0 +1,242 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static Helpers.Utility.log;
+import static Helpers.Utility.warning;
+
+/**
+ * This class writes the screenshots taken by {@link Browser#takeScreenShot(String)} in the background, so that a
+ * test does not wait for the disk.  The test thread only captures the image; a single writer thread then:
+ * <ul>
+ *   <li>skips an image identical to one already written (same SHA-1), and links its file name to the existing file
+ *       instead, so that the repeated screenshots of a failing wait cost no disk space;</li>
+ *   <li>writes the image;</li>
+ *   <li>deletes the oldest files of the directory while it holds more than {@link Globals#screenshotDiskCap}
+ *       bytes, so that a long run does not fill the disk.</li>
+ * </ul>
+ * At most {@link #QUEUE_CAPACITY} images wait to be written; a screenshot taken while the queue is full is dropped
+ * with a warning, rather than blocking the test.  {@link #flush(int)} waits for the queued images to be written.
+ */
+public final class ScreenshotWriter {
+
+    // - - - - - Class attributes - - - - -
+
+    /** The number of images that can wait to be written. */
+    public static final int QUEUE_CAPACITY = 32;
+
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ScreenshotWriter");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // the images queued or being written; flush() waits for it to drop to zero
+    private static final AtomicInteger PENDING = new AtomicInteger();
+
+    // the files written, by SHA-1 of their content; only used by the writer thread
+    private static final Map<String, File> WRITTEN = new HashMap<String, File>();
+
+    private ScreenshotWriter() {
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method queues an image to be written to a file.  It returns at once; the file exists once the writer
+     * thread has written it.
+     *
+     * @param file   the file to write, in the screenshots directory
+     * @param image  the PNG image
+     * @return       {@code true} if the image was queued; {@code false} if it was dropped because the queue is full
+     */
+    public static boolean write(final File file, final byte[] image) {
+        PENDING.incrementAndGet();
+        try {
+            WRITER.execute(new Runnable() {
+                public void run() {
+                    try {
+                        writeNow(file, image);
+                    } finally {
+                        PENDING.decrementAndGet();
+                    }
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            PENDING.decrementAndGet();
+            warning("ScreenshotWriter::write -- " + QUEUE_CAPACITY + " screenshots are waiting to be written, dropping " + file.getName());
+            return false;
+        }
+    }
+
+    /**
+     * This method waits for the queued images to be written, e.g. at the end of the suite.
+     *
+     * @param timeOutSeconds  the maximum time to wait
+     * @return                {@code true} if all the images were written before the timeout
+     */
+    public static boolean flush(int timeOutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeOutSeconds);
+        while (PENDING.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                warning("ScreenshotWriter::flush -- " + PENDING.get() + " screenshots were not written after " + timeOutSeconds + " seconds");
+                return false;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeNow(File file, byte[] image) {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            warning("ScreenshotWriter::write -- Could not create the directory " + directory.getAbsolutePath());
+            return;
+        }
+
+        try {
+            String sha1 = sha1Of(image);
+            File existing = WRITTEN.get(sha1);
+            if (existing != null && existing.isFile()) {
+                try {
+                    Files.createLink(file.toPath(), existing.toPath());
+                    // a hard link is the same file as the one it links to, with the same modification time; make
+                    // it the time of this screenshot, for both names, so that evict() does not take the image for
+                    // one of the oldest
+                    file.setLastModified(System.currentTimeMillis());
+                    log("Screenshot " + file.getName() + " is identical to " + existing.getName() + ", linked to it");
+                    return;
+                } catch (IOException e) {
+                    // no hard links on this file system; write the image again
+                } catch (UnsupportedOperationException e) {
+                    // same
+                }
+            }
+
+            OutputStream output = new FileOutputStream(file);
+            try {
+                output.write(image);
+            } finally {
+                output.close();
+            }
+            WRITTEN.put(sha1, file);
+            log("Took screenshot and placed it in file " + file.getAbsolutePath());
+
+            evict(directory);
+        } catch (IOException e) {
+            warning("ScreenshotWriter::write -- Could not write " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    // Deletes the oldest files of the directory while it is over the disk cap.  The names linked to the same file
+    // use its disk space once, and free it when the last of them is deleted; they have the same modification time,
+    // so they are deleted together.
+    private static void evict(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        // the number of names of each file on disk
+        Map<Object, Integer> names = new HashMap<Object, Integer>();
+        long totalBytes = 0;
+        for (File file : files) {
+            Object key = fileKeyOf(file);
+            Integer count = names.get(key);
+            names.put(key, (count == null) ? 1 : count + 1);
+            if (count == null) {
+                totalBytes += file.length();
+            }
+        }
+        if (totalBytes <= Globals.screenshotDiskCap) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            public int compare(File file1, File file2) {
+                return Long.compare(file1.lastModified(), file2.lastModified());
+            }
+        });
+        int deleted = 0;
+        for (int i = 0; i < files.length - 1 && totalBytes > Globals.screenshotDiskCap; i++) {
+            long length = files[i].length();
+            Object key = fileKeyOf(files[i]);
+            if (files[i].isFile() && files[i].delete()) {
+                int count = names.get(key) - 1;
+                names.put(key, count);
+                if (count == 0) {
+                    totalBytes -= length;
+                }
+                deleted++;
+                forget(files[i]);
+            }
+        }
+        log("ScreenshotWriter -- deleted the " + deleted + " oldest screenshots, to keep " + directory.getAbsolutePath()
+                + " under " + (Globals.screenshotDiskCap / (1024 * 1024)) + " MB");
+    }
+
+    // The identity of the file on disk behind a name, e.g. its inode; the name itself if the file system has none.
+    private static Object fileKeyOf(File file) {
+        try {
+            Object key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+            return (key != null) ? key : file;
+        } catch (IOException e) {
+            return file;
+        }
+    }
+
+    // A deleted file can no longer be linked to.
+    private static void forget(File file) {
+        Iterator<File> iterator = WRITTEN.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().equals(file)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String sha1Of(byte[] image) {
+        try {
+            StringBuilder returnValue = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(image)) {
+                returnValue.append(String.format("%02x", b));
+            }
+            return returnValue.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -73,12 +73,12 @@ public class SearchFieldPopup extends BaseElement {
         WebElement searchBar, searchMenu;
         boolean returnValue = false;
 
-        searchMenu = browser.findElement(searchMenuLocator);
+        searchMenu = browser().findElement(searchMenuLocator);
 
         // If the Search menu isn't open
         if(!searchMenu.getAttribute("class").contains("hp-active")) {
             // Opens the SearchFieldPopup by clicking on the search bar area
-            searchBar = browser.findElement(searchControlLocator);
+            searchBar = browser().findElement(searchControlLocator);
             searchBar.click();
 
             // Gives the browser two seconds to catch up with the web driver
@@ -109,7 +109,7 @@ public class SearchFieldPopup extends BaseElement {
         boolean returnValue = false;
 
         // Obtains the SearchFieldPopu's search menu
-        searchMenu = browser.findElement(searchMenuLocator);
+        searchMenu = browser().findElement(searchMenuLocator);
 
         // If the search menu is open
         if(searchMenu.getAttribute("class").contains("hp-active")) {
@@ -153,7 +153,7 @@ public class SearchFieldPopup extends BaseElement {
                 return;
             }
 
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
 
             // If a local scope is specified
             if(useLocalScope) {
@@ -199,7 +199,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Obtains the local scope radio button
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             scopeButton = new RadioButton(By.id("hp-search-scope-local"), By.cssSelector("label[for='hp-search-scope-local']"));
 
             // If a local scope is selected
@@ -288,7 +288,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Starts the search by sending a Return key-press to the SearchFieldPopup's text field
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = searchMenu.findElement(By.cssSelector("#hp-search-input input"));
             searchTextField.sendKeys(Keys.RETURN);
 
@@ -326,7 +326,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Sets the text of the SearchFieldPopup's text field
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = new TextField(By.cssSelector("#hp-search-input input"));
             searchTextField.setText(value);
 
@@ -362,7 +362,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Sets the text of the SearchFieldPopup's text field, one character at a time over a specified period of time
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = new TextField(By.cssSelector("#hp-search-input input"));
             searchTextField.setText(value, seconds);
 
@@ -392,7 +392,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Clears the text of the SearchFieldPopup's text field
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = searchMenu.findElement(By.cssSelector("#hp-search-input input"));
             searchTextField.clear();
             searchTextField.sendKeys(Keys.RETURN);
@@ -445,7 +445,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Obtains the text of the SearchFieldPopup's text field
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = new TextField(By.cssSelector("#hp-search-input input"));
             returnValue = searchTextField.getText();
 
@@ -484,7 +484,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Checks if the SearchFieldPopup's text field is enabled
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = new TextField(By.cssSelector("#hp-search-input input"));
             returnValue = searchTextField.isEnabled();
 
@@ -532,7 +532,7 @@ public class SearchFieldPopup extends BaseElement {
             }
 
             // Checks if the text in the SearchFieldPopup's text field is invalid
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = new TextField(By.cssSelector("#hp-search-input input"));
             returnValue = searchTextField.isEntryInvalid();
 
@@ -570,7 +570,7 @@ public class SearchFieldPopup extends BaseElement {
             sleep(2, TimeUnit.SECONDS);
 
             // Obtains the SearchFieldPopup's search menu
-            WebElement searchMenu = browser.findElement(this.searchMenuLocator);
+            WebElement searchMenu = browser().findElement(this.searchMenuLocator);
 
             // Obtains all of the items in the menu list
             List<WebElement> menuItemsList = searchMenu.findElements(By.cssSelector("#hp-search-suggestions > li,#hp-search-recent > li"));
@@ -639,7 +639,7 @@ public class SearchFieldPopup extends BaseElement {
             sleep(2, TimeUnit.SECONDS);
 
             // Obtains the SearchFieldPopup's search menu
-            WebElement searchMenu = browser.findElement(this.searchMenuLocator);
+            WebElement searchMenu = browser().findElement(this.searchMenuLocator);
 
             // Obtains all of the items in the menu list
             List<WebElement> menuItemsList = searchMenu.findElements(By.cssSelector("#hp-search-suggestions > li,#hp-search-recent > li"));
@@ -707,7 +707,7 @@ public class SearchFieldPopup extends BaseElement {
             sleep(2, TimeUnit.SECONDS);
 
             // Obtains the SearchFieldPopup's search menu
-            WebElement searchMenu = browser.findElement(this.searchMenuLocator);
+            WebElement searchMenu = browser().findElement(this.searchMenuLocator);
 
             // Obtains all of the items in the menu list
             List<WebElement> menuItemsList = searchMenu.findElements(By.cssSelector("#hp-search-suggestions > li,#hp-search-recent > li"));
@@ -768,7 +768,7 @@ public class SearchFieldPopup extends BaseElement {
             sleep(15, TimeUnit.SECONDS);
 
             // Obtains the SearchFieldPopup's search menu
-            WebElement searchMenu = browser.findElement(this.searchMenuLocator);
+            WebElement searchMenu = browser().findElement(this.searchMenuLocator);
 
             // Obtains all of the items in the menu list
             List<WebElement> menuItemsList = searchMenu.findElements(By.cssSelector("#hp-search-suggestions > li,#hp-search-recent > li"));
@@ -813,11 +813,11 @@ public class SearchFieldPopup extends BaseElement {
         String altTableSelector = ".hp-page .hp-master-full .dataTables_wrapper";
         String searchTableSelector = "#hp-search-page .hp-page-contents #hp-search-results";
 
-        if(browser.findElements(By.cssSelector(tableSelector)).size() > 0) {
+        if(browser().findElements(By.cssSelector(tableSelector)).size() > 0) {
             panelTable = new Table(By.cssSelector(tableSelector));
-        } else if(browser.findElements(By.cssSelector(altTableSelector)).size() > 0) {
+        } else if(browser().findElements(By.cssSelector(altTableSelector)).size() > 0) {
             panelTable = new Table(By.cssSelector(altTableSelector));
-        } else if(browser.findElements(By.cssSelector(searchTableSelector)).size() > 0) {
+        } else if(browser().findElements(By.cssSelector(searchTableSelector)).size() > 0) {
             panelTable = new Table(By.cssSelector(searchTableSelector));
         }else {
             log("        No table available to check if loaded.");
@@ -854,7 +854,7 @@ public class SearchFieldPopup extends BaseElement {
             log("=== This SearchFieldPopup is currently stubbed out. ===");
         } else {
             // Sets the text of the SearchFieldPopup's text field
-            searchMenu = browser.findElement(searchMenuLocator);
+            searchMenu = browser().findElement(searchMenuLocator);
             searchTextField = searchMenu.findElement(By.cssSelector("#hp-search-input input"));
             searchTextField.sendKeys(Keys.ENTER);
 
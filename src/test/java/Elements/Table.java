@@ -4,8 +4,6 @@
 
 package Elements;
 
-import com.google.common.base.Stopwatch;
-
 import org.openqa.selenium.By;
 import org.openqa.selenium.*;
 import org.openqa.selenium.NoSuchElementException;
@@ -73,8 +71,6 @@ public class Table extends BaseElement {
 
     // - - - - - Class attributes - - - - -
     protected final int MAXRETRIES = 5;
-    // Set below to true to log the method execution time for some Table methods.
-    private final boolean LOG_PERFORMANCE = false;
 
     //Load More Link declaration
     private final Button loadMoreBelowLink = new Button(By.className("hp-master-load-more"),"Load more");
@@ -83,6 +79,26 @@ public class Table extends BaseElement {
 
     private final Button topLink = new Button(By.className("hp-master-load-top"),"Top");
 
+    // The structure of this table, detected once and reused by all methods (see getStructure()).  It is volatile
+    // because a screen object, and its tables, may be shared by the threads of a parallel run.
+    private volatile TableStructure structure = null;
+
+    /**
+     * The aggregates that {@link #aggregateColumn(int, Aggregate)} can compute over a column.
+     */
+    public enum Aggregate {
+        /** the sum of the numeric values of the column */
+        SUM,
+        /** the smallest numeric value of the column */
+        MIN,
+        /** the largest numeric value of the column */
+        MAX,
+        /** the number of values of the column that are not empty */
+        COUNT,
+        /** the number of different values of the column that are not empty */
+        DISTINCT_COUNT
+    }
+
 
     // - - - - - Constructor - - - - -
 
@@ -114,30 +130,14 @@ public class Table extends BaseElement {
             log("=== The table's table query is currently stubbed out.  Returning value '" + returnValue + "' ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while(!done) {
-                try {
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::getRowCount", new RetryPolicy.Attempt<Integer>() {
+                public Integer run() {
                     // getting the table web element with the default timeout
                     // and then get the row elements and count the size
-                    returnValue = getRowElements().size();
-
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return getRowElements().size();
                 }
-            }
+            });
         }
 
         return returnValue;
@@ -154,18 +154,15 @@ public class Table extends BaseElement {
      * @throws NoSuchElementException if the table web element does not exist and/or is not displayed after timeout
      */
     protected List<WebElement> getRowElements() {
-        WebElement tableElement = null;
-
-        if (ElementUtil.hasCSSClass(getWebElement(),"dataTables_wrapper")){
-            tableElement = getWebElement().findElement(By.cssSelector(".dataTables_scrollBody > table"));
-        }
-        else{
-            // getting the table web element with the default timeout
-            tableElement = getWebElement();
-        }
+        List<WebElement> rowElements;
 
         // get the row web elements of the table
-        List<WebElement> rowElements = tableElement.findElements(By.xpath("tbody/tr"));
+        try {
+            rowElements = getStructure().bodyTable.findElements(By.xpath("tbody/tr"));
+        } catch (StaleElementReferenceException e) {
+            // the table has been rebuilt since its structure was detected
+            rowElements = detectStructure().bodyTable.findElements(By.xpath("tbody/tr"));
+        }
 
         // Check if the table has any rows
         if (rowElements.size() == 0) {
@@ -225,20 +222,18 @@ public class Table extends BaseElement {
      */
     public boolean isLoaded() {
         boolean returnValue = true;
-        WebElement tableElement;
+        boolean changing;
 
-        // If the table is a "scroll table"
-        if (ElementUtil.hasCSSClass(getWebElement(), "dataTables_wrapper")){
-            // Obtains the table web element with the default timeout
-            tableElement = getWebElement().findElement(By.cssSelector(".dataTables_scrollHeadInner > table"));
-        }
-        else{
-            // Obtains the table web element with the default timeout
-            tableElement = getWebElement();
+        // Check the CSS classes of the header table (the table itself if it is not a "scroll table")
+        // to determine if this table is still loading
+        try {
+            changing = ElementUtil.hasCSSClass(getStructure().headerTable, "hp-changing");
+        } catch (StaleElementReferenceException e) {
+            // the table has been rebuilt since its structure was detected
+            changing = ElementUtil.hasCSSClass(detectStructure().headerTable, "hp-changing");
         }
 
-        // Check the CSS classes of this web element to determine if this table is still loading
-        if (ElementUtil.hasCSSClass(tableElement, "hp-changing")) {
+        if (changing) {
             returnValue = false;
         }
 
@@ -256,16 +251,14 @@ public class Table extends BaseElement {
         boolean itemFound = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        int timeOutSeconds = 120;
+        String timeoutKey = AdaptiveTimeouts.keyOf(this, "waitForLoaded");
+        int timeOutSeconds = AdaptiveTimeouts.getTimeout(timeoutKey, 120);
 
         // give the table a short moment to START to redraw in case it hasn't even started doing that yet.
         // this can potentially happen the moment an action is CLICKED that would invoke a table redarw
-        sleep(2, TimeUnit.SECONDS);
+        PageQuiescence.settle(2000);
 
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "waitForLoaded");
 
         if (this.isStubbed()) {
             log("Table::IsItemAppearinTable === The table's table query is currently stubbed out. ===");
@@ -281,6 +274,7 @@ public class Table extends BaseElement {
                     // We found it; we're done!
                     itemFound = true;
                     done = true;
+                    AdaptiveTimeouts.record(timeoutKey, System.nanoTime() - startTime);
                 } else {
                     // We couldn't find it; keep checking until timeout.
 
@@ -297,10 +291,7 @@ public class Table extends BaseElement {
             }
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            //log(this.getName() + "::waitForLoaded('"  + timeOutSeconds + ", " + ") took " + stopwatch);
-        }
+        operation.stop();
         return itemFound;
     }
 
@@ -340,19 +331,43 @@ public class Table extends BaseElement {
      * @throws NoSuchElementException if the table web element does not exist and/or is not displayed after timeout
      */
     protected List<WebElement> getColumnHeadingElements() {
-        List<WebElement> headingElements = null;
-        WebElement tableElement = null;
+        List<WebElement> headingElements;
+        TableStructure tableStructure = getStructure();
+
+        try {
+            // use the heading XPath that worked last time, if any
+            if (tableStructure.headingXPath != null) {
+                headingElements = tableStructure.headerTable.findElements(By.xpath(tableStructure.headingXPath));
+                if (headingElements.size() > 0) {
+                    return headingElements;
+                }
+            }
 
-        if (ElementUtil.hasCSSClass(getWebElement(),"dataTables_wrapper")){
-            tableElement = getWebElement().findElement(By.cssSelector(".dataTables_scrollHeadInner > table"));
-        }
-        else{
-            // getting the table web element with the default timeout
-            tableElement = getWebElement();
+            // first call, or the headings are not where they used to be; look for them again
+            headingElements = findColumnHeadingElements(tableStructure);
+        } catch (StaleElementReferenceException e) {
+            // the table has been rebuilt since its structure was detected
+            headingElements = findColumnHeadingElements(detectStructure());
         }
+
+        return headingElements;
+    }
+
+    /**
+     * This method looks for the column heading elements in each of the known table structures, and remembers
+     * in the specified table structure the XPath that found them.
+     *
+     * @param tableStructure  the structure of this table
+     * @return  a list of {@link WebElement} instances representing the column headings of the table
+     */
+    private List<WebElement> findColumnHeadingElements(TableStructure tableStructure) {
+        List<WebElement> headingElements = null;
+        WebElement tableElement = tableStructure.headerTable;
+        String headingXPath = null;
+
         // Check the CSS classes of this web element to determine
         // if this is a Piano hp-master-table
-        if (ElementUtil.hasCSSClass(tableElement, "hp-master-table")) {
+        if (tableStructure.masterTable) {
             // This is a Piano master table. It has a structure like
             // <div class="dataTables_wrapper">
             //   <div class="dataTables_scroll">
@@ -366,7 +381,8 @@ public class Table extends BaseElement {
             //         <tbody>...</tbody>
             //
             // Get the headings <td> elements from the table above this one
-            headingElements = tableElement.findElements(By.xpath("../../div/div/table/thead/tr/td"));
+            headingXPath = "../../div/div/table/thead/tr/td";
+            headingElements = tableElement.findElements(By.xpath(headingXPath));
 
             // if the result is empty, we may have a different table structure that has this class
             if (headingElements.size() == 0) {
@@ -374,7 +390,8 @@ public class Table extends BaseElement {
                 // <table class="hp-master-table dataTabe">
                 //   <thead>
                 //   <tbody>
-                headingElements = tableElement.findElements(By.xpath("thead/tr/td"));
+                headingXPath = "thead/tr/td";
+                headingElements = tableElement.findElements(By.xpath(headingXPath));
 
                 if (headingElements.size() == 0) {
 
@@ -384,14 +401,15 @@ public class Table extends BaseElement {
                     //     <tr>
                     //       <th>
                     //   <tbody>
-                    headingElements = tableElement.findElements(By.xpath("thead/tr/th"));
+                    headingXPath = "thead/tr/th";
+                    headingElements = tableElement.findElements(By.xpath(headingXPath));
                     if (headingElements.size() == 0) {
                         warning("Warning!  This hp-master-table may not have a known table structure.  Locator: " + this.getLocator());
                     }
                 }
             }
         }
-        else if (ElementUtil.hasCSSClass(tableElement, "dataTable")) {
+        else if (tableStructure.dataTable) {
             // This is a simple Piano data table. It has a structure like
             // <div class="dataTables_wrapper">
             //   <table class="dataTable">
@@ -399,7 +417,8 @@ public class Table extends BaseElement {
             //     <tbody>...</tbody>
             //
             // Get the headings <td> elements from this table
-            headingElements = tableElement.findElements(By.xpath("thead/tr/td"));
+            headingXPath = "thead/tr/td";
+            headingElements = tableElement.findElements(By.xpath(headingXPath));
 
             if (headingElements.size() == 0) {
                 // check one more try to see if we can get the column headings within this structure
@@ -408,7 +427,8 @@ public class Table extends BaseElement {
                 //     <tr>
                 //       <th>
                 //   <tbody>
-                headingElements = tableElement.findElements(By.xpath("thead/tr/th"));
+                headingXPath = "thead/tr/th";
+                headingElements = tableElement.findElements(By.xpath(headingXPath));
                 if (headingElements.size() == 0) {
                     warning("Warning!  This dataTable may not have a known table structure.  Locator: " + this.getLocator());
                 }
@@ -418,26 +438,184 @@ public class Table extends BaseElement {
             // This is not a known table type. Show a warning and
             // get the headings <td> elements from this table
             warning("Warning!  This table does not have a known table structure.  Locator: " + this.getLocator());
-            headingElements = tableElement.findElements(By.xpath("thead/tr/td"));
+            headingXPath = "thead/tr/td";
+            headingElements = tableElement.findElements(By.xpath(headingXPath));
         }
 
+        // remember the XPath for the next calls, unless nothing was found
+        tableStructure.headingXPath = (headingElements.size() > 0) ? headingXPath : null;
+
         return headingElements;
     }
 
+    /**
+     * This method forgets the table web element and the structure detected from it, so that they are located
+     * and detected again the next time the table is used.
+     */
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        this.structure = null;
+    }
+
+    /**
+     * This method returns the structure of this table, detecting it on the first call.  The structure is then
+     * reused by all methods of this class; it is detected again only when the methods find out that the table
+     * has been rebuilt, i.e. when one of its elements is stale, or when the browser has navigated to a new page.
+     * A structure detected in the browser of another thread (see {@link Globals#bindBrowser(Browser)}) is never
+     * reused, since its web elements belong to the other browser.
+     * <p>
+     * <b>Note:</b> This method does not check whether the locator of this web element is stubbed out or not.
+     * Thus, it is the responsibility of the caller NOT to call this method if the locator is stubbed out.
+     *
+     * @return  the structure of this table
+     * @throws NoSuchElementException if the table web element does not exist and/or is not displayed after timeout
+     */
+    protected TableStructure getStructure() {
+        return getStructure(Globals.ELEMENTTIMEOUT);
+    }
+
+    /**
+     * This method is the same as {@link #getStructure()}, except that it waits for the table web element for at most
+     * the specified time when the structure has to be detected.
+     *
+     * @param timeOutSeconds  [INT] the maximum number of seconds to wait for the table web element
+     * @return  the structure of this table
+     * @throws NoSuchElementException if the table web element does not exist and/or is not displayed after timeout
+     */
+    protected TableStructure getStructure(int timeOutSeconds) {
+        TableStructure lastStructure = this.structure;
+        Browser currentBrowser = browser();
+        if (lastStructure == null || lastStructure.browser != currentBrowser
+                || lastStructure.navigationCount != currentBrowser.getNavigationCount()) {
+            return detectStructure(timeOutSeconds);
+        }
+        return lastStructure;
+    }
+
+    /**
+     * This method detects the structure of this table (see the implementation notes at the top of this class)
+     * and remembers it for the next calls of {@link #getStructure()}.
+     *
+     * @return  the structure of this table
+     * @throws NoSuchElementException if the table web element does not exist and/or is not displayed after timeout
+     */
+    protected TableStructure detectStructure() {
+        return detectStructure(Globals.ELEMENTTIMEOUT);
+    }
+
+    /**
+     * This method is the same as {@link #detectStructure()}, except that it waits for the table web element for at
+     * most the specified time.
+     *
+     * @param timeOutSeconds  [INT] the maximum number of seconds to wait for the table web element
+     * @return  the structure of this table
+     * @throws NoSuchElementException if the table web element does not exist and/or is not displayed after timeout
+     */
+    protected TableStructure detectStructure(int timeOutSeconds) {
+        this.structure = null;
+
+        WebElement tableElement = getWebElement(timeOutSeconds);
+        TableStructure tableStructure = new TableStructure(tableElement);
+
+        if (ElementUtil.hasCSSClass(tableElement, "dataTables_wrapper")) {
+            // Structure #2: the header and the body are in two different tables
+            tableStructure.scrollTable = true;
+            tableStructure.bodyTable = tableElement.findElement(By.cssSelector(".dataTables_scrollBody > table"));
+            tableStructure.headerTable = tableElement.findElement(By.cssSelector(".dataTables_scrollHeadInner > table"));
+        }
+
+        // the CSS classes of the header table tell where its headings are
+        String[] cssClasses = ElementUtil.getCSSClasses(tableStructure.headerTable);
+        for (String cssClass : cssClasses) {
+            if (cssClass.equals("hp-master-table")) {
+                tableStructure.masterTable = true;
+            } else if (cssClass.equals("dataTable")) {
+                tableStructure.dataTable = true;
+            }
+        }
+
+        this.structure = tableStructure;
+        return tableStructure;
+    }
+
+
 
     /**
      * This method returns the string value of the data within a specific table cell.
      * <p>
+     * Only the specified cell is read, with a single script execution in the browser.  Its value is the same as
+     * the one returned by {@link #getRowText(int)} for that cell.
      *
      * @param rowIndex     [INT] representing the row.  Rows start with index 1.
      * @param columnIndex  [INT] representing the column.  Columns start with index 1.
      * @return             a String value
+     * @throws NoSuchElementException if the table has no such cell
      */
     public String getCellData (int rowIndex, int columnIndex) {
+        if (this.isStubbed()) {
+            return getCellData_original(rowIndex, columnIndex);
+        }
+
+        return getCells(new int[][] { { rowIndex, columnIndex } })[0];
+    }
+
+    /**
+     * This method returns the string values of the data within a set of table cells, read with a single script
+     * execution in the browser.  The value of each cell is the same as the one returned by
+     * {@link #getRowText(int)} for that cell, including the icon value of cells that have no text.
+     * <p>
+     * For example, {@code getCells(new int[][] {{1, 2}, {3, 1}})} returns the values of the cell at row 1,
+     * column 2 and of the cell at row 3, column 1.
+     *
+     * @param coordinates  [INT[][]] the cells to read, as {rowIndex, columnIndex} pairs.  Rows and columns start
+     *                     with index 1.
+     * @return             a String array with the values of the cells, in the order of the coordinates
+     * @throws NoSuchElementException if the table has no such cell
+     */
+    public String[] getCells (int[][] coordinates) {
+        String[] returnValue = new String[coordinates.length];
+        Instrumentation.Operation operation = Instrumentation.start(this, "getCells");
+
+        if (this.isStubbed()) {
+            log("Table::getCells === The table's table query is currently stubbed out.  Returning the stubbed row values. ===");
+            for (int i = 0; i < coordinates.length; i++) {
+                returnValue[i] = getCellData_original(coordinates[i][0], coordinates[i][1]);
+            }
+        } else {
+            List<List<Integer>> cells = new ArrayList<List<Integer>>();
+            for (int[] cell : coordinates) {
+                cells.add(Arrays.asList(cell[0], cell[1]));
+            }
+
+            Map<String, Object> cellData = runTableScript(TableScripts.READ_CELLS, cells);
+            List<Object> values = ElementUtil.scriptResult(cellData.get("values"));
+            List<Object> errors = ElementUtil.scriptResult(cellData.get("errors"));
+
+            for (int i = 0; i < coordinates.length; i++) {
+                if (errors.get(i) != null) {
+                    throw new NoSuchElementException("Table::getCells -- " + errors.get(i));
+                }
+                returnValue[i] = String.valueOf(values.get(i));
+            }
+        }
+
+        operation.stop();
+        return returnValue;
+    }
+
+    /**
+     * This method returns the string value of the data within a specific table cell, reading the whole row
+     * with {@link #getRowText(int)}.  It is the implementation of {@link #getCellData(int, int)} used for
+     * stubbed tables.
+     *
+     * @param rowIndex     [INT] representing the row.  Rows start with index 1.
+     * @param columnIndex  [INT] representing the column.  Columns start with index 1.
+     * @return             a String value
+     */
+    protected String getCellData_original (int rowIndex, int columnIndex) {
         // declaring local variables
         String returnValue = "";
-        // TODO: Instead of calling getRowText() to get the text of the entire row,
-        //       this method should directly get the text of that particular cell.
         String [] rowContents = this.getRowText(rowIndex);
 
         if (rowContents.length > 0) {
@@ -573,29 +751,19 @@ public class Table extends BaseElement {
      * @param rowIndex      [INT] the row number.  Rows start with index 1.
      * @return              a String array with all the values in the row
      */
-    public String[] getRowText (int rowIndex) {
+    public String[] getRowText (final int rowIndex) {
         // declaring local variables
-        WebElement row;
-        List<WebElement> columnElements;
-        int columnCount;
         String[] returnValue = {};
-        String iconValue;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "getRowText");
 
         if (this.isStubbed()) {
             returnValue = new String[] {"One", "Two"};
             log("Table::getRowText === The table's table query is currently stubbed out.  Returning a String array with 2 items. ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while(!done) {
-                try {
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::getRowText", new RetryPolicy.Attempt<String[]>() {
+                public String[] run() {
                     // adding a sleep here, because sometimes when the table is refreshing, some values within the row
                     // are '--'
                     // TODO: Remove this wait to avoid the performance penalty when this method is used multiple times.
@@ -605,20 +773,20 @@ public class Table extends BaseElement {
 
                     // getting the table web element with the default timeout
                     // and then get the specified row
-                    row = getRowElement(rowIndex);
+                    WebElement row = getRowElement(rowIndex);
 
                     // find the column elements of this row
-                    columnElements = row.findElements(By.xpath("td"));
-                    columnCount = columnElements.size();
+                    List<WebElement> columnElements = row.findElements(By.xpath("td"));
+                    int columnCount = columnElements.size();
 
-                    returnValue = new String[columnCount];
+                    String[] returnValue = new String[columnCount];
                     for (int j = 0; j < columnCount; j++) {
                         WebElement column = columnElements.get(j);
                         returnValue[j] = column.getText();
 
                         //if it is an empty string, it may contain an icon.
                         if (returnValue[j].equals("")) {
-                            iconValue = getIconValue(column);
+                            String iconValue = getIconValue(column);
                             if (!iconValue.isEmpty())
                                 returnValue[j] = iconValue;
                         }
@@ -636,30 +804,13 @@ public class Table extends BaseElement {
                         }
                     }
 
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-                    if (LOG_PERFORMANCE) {
-                        log(this.getName() + "::getRowText(" + rowIndex + ") reties " + stopwatch);
-                    }
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return returnValue;
                 }
-            }
+            });
 
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            log(this.getName() + "::getRowText(" + rowIndex + ") took " + stopwatch);
-        }
+        operation.stop();
         return returnValue;
     }
 
@@ -676,14 +827,10 @@ public class Table extends BaseElement {
      * @param columnIndex   [INT] the column number.  Columns start with index 1.
      * @return              a String array with all the values in the column
      */
-    public String[] getColumnText (int columnIndex) {
+    public String[] getColumnText (final int columnIndex) {
         // declaring local variables
-        int rowCount = 0;
         String[] returnValue = {};
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "getColumnText");
 
         if (this.isStubbed()) {
             returnValue = new String[] {"One", "Two"};
@@ -695,19 +842,16 @@ public class Table extends BaseElement {
             }
 
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::getColumnText", new RetryPolicy.Attempt<String[]>() {
+                public String[] run() {
                     // getting the table web element with the default timeout
                     // and then get all of the row elements
                     List<WebElement> rowElements = getRowElements();
 
                     // get the row count and create the returnValue array
-                    rowCount = rowElements.size();
-                    returnValue = new String[rowCount];
+                    int rowCount = rowElements.size();
+                    String[] returnValue = new String[rowCount];
 
                     // for each row, get the text of the specified column
                     for (int i = 0; i < rowCount; i++) {
@@ -718,30 +862,13 @@ public class Table extends BaseElement {
 
                         returnValue[i] = column.getText();
                     }
-                    done = true;
-
-                } catch(StaleElementReferenceException e){
-                    retries++;
-                    if (LOG_PERFORMANCE) {
-                        log(this.getName() + "::getColumnText(" + columnIndex + ") reties " + stopwatch);
-                    }
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
 
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return returnValue;
                 }
-            }
+            });
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            log(this.getName() + "::getColumnText(" + columnIndex + ") took " + stopwatch);
-        }
+        operation.stop();
         return returnValue;
     }
 
@@ -775,18 +902,14 @@ public class Table extends BaseElement {
      *
      * @param rowIndex      [INT] the row to select.  Rows start with index 1.
      */
-    public void selectRow (int rowIndex) {
+    public void selectRow (final int rowIndex) {
         if (this.isStubbed()) {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while(!done) {
-                try {
-
+            //     this the retry policy will catch the stale element and try again
+            RetryPolicy.STALE_ELEMENT.run("Table::selectRow", new Runnable() {
+                public void run() {
                     // getting the table web element with the default timeout
                     // and then get the specified row
                     WebElement row = getRowElement(rowIndex);
@@ -798,21 +921,8 @@ public class Table extends BaseElement {
 
                     // giving the table a second to refresh
                     sleep(1, TimeUnit.SECONDS);
-
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
                 }
-            }
+            });
         }
     }
 
@@ -826,47 +936,30 @@ public class Table extends BaseElement {
      * @author Craig Yara
      * @param rowIndex
      */
-    public void selectCell (int rowIndex, int columnIndex) {
+    public void selectCell (final int rowIndex, int columnIndex) {
         if (this.isStubbed()) {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-            columnIndex --;  // we will now be dealing with 0 based elements instead of framework's 1-based indexes
-
-            while(!done) {
-                try {
+            final int cellIndex = columnIndex - 1;  // we will now be dealing with 0 based elements instead of framework's 1-based indexes
 
+            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
+            //     this the retry policy will catch the stale element and try again
+            RetryPolicy.STALE_ELEMENT.run("Table::selectCell", new Runnable() {
+                public void run() {
                     // getting the table web element with the default timeout
                     // and then get the specified row
                     WebElement row = getRowElement(rowIndex);
 
-
                     // find all table columns inside the row
                     List<WebElement> columnElements = row.findElements(By.xpath("td"));
 
                     // click on the Nth column.
-                    columnElements.get (columnIndex).click ();
+                    columnElements.get (cellIndex).click ();
 
                     // giving the table a second to refresh
                     sleep(1, TimeUnit.SECONDS);
-
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
                 }
-            }
+            });
         }
     }
 
@@ -883,7 +976,6 @@ public class Table extends BaseElement {
 
     public int findItemInColumn (String itemName, int columnIndex){
         int returnValue = 0;
-        String temp, itemWithoutParenthese;
 
         if (this.isStubbed()) {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
@@ -894,71 +986,8 @@ public class Table extends BaseElement {
                 throw new NoSuchElementException("Table::findItemInColumn -- Invalid column index, " + columnIndex);
             }
 
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
-                    // getting the table web element with the default timeout
-                    // and then get all of the row elements
-                    List<WebElement> rowElements = getRowElements();
-
-                    // get the row count
-                    int rowCount = rowElements.size();
-
-                    // for each row, check the text of the specified column
-                    boolean found = false;
-                    for (int i = 0; i < rowCount; i++) {
-                        WebElement row = rowElements.get(i);
-
-                        // get the specified column element of this row
-                        WebElement column;
-                        try {
-                            column = row.findElement(By.xpath("td[" + columnIndex + "]"));
-                        } catch (NoSuchElementException e) {
-                            // This row does not have this column; skip it.
-                            // It occurs when an empty table has a row showing "No data".
-                            continue;
-                        }
-
-                        // check the column text with the itemName -- if the same, then this is the row
-                        // the user wants
-                        temp = column.getText();
-                        itemWithoutParenthese = temp;
-                        if (temp.contains("(") && (itemName.contains("(") == false)) {
-                            itemWithoutParenthese = temp.substring(0, temp.indexOf("(")).trim();
-                        }
-                        if (itemWithoutParenthese.equals(itemName)) {
-
-                            returnValue = i+1;
-
-                            // get out of for loop
-                            i = rowCount;
-
-                            found = true;
-                        }
-                    }
-
-                    if(!found){
-                        returnValue = 0;
-                    }
-                    done = true;
-
-                }  catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
-            }
+            // read the whole table in one round trip and look the item up in memory
+            returnValue = getSnapshot().findItemInColumn(itemName, columnIndex);
         }
 
         return returnValue;
@@ -981,7 +1010,6 @@ public class Table extends BaseElement {
 
     public int findItemInColumnEqualsIgnoreCase (String itemName, int columnIndex){
         int returnValue = 0;
-        String temp, itemWithoutParenthese;
 
         if (this.isStubbed()) {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
@@ -992,71 +1020,8 @@ public class Table extends BaseElement {
                 throw new NoSuchElementException("Table::findItemInColumn -- Invalid column index, " + columnIndex);
             }
 
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
-                    // getting the table web element with the default timeout
-                    // and then get all of the row elements
-                    List<WebElement> rowElements = getRowElements();
-
-                    // get the row count
-                    int rowCount = rowElements.size();
-
-                    // for each row, check the text of the specified column
-                    boolean found = false;
-                    for (int i = 0; i < rowCount; i++) {
-                        WebElement row = rowElements.get(i);
-
-                        // get the specified column element of this row
-                        WebElement column;
-                        try {
-                            column = row.findElement(By.xpath("td[" + columnIndex + "]"));
-                        } catch (NoSuchElementException e) {
-                            // This row does not have this column; skip it.
-                            // It occurs when an empty table has a row showing "No data".
-                            continue;
-                        }
-
-                        // check the column text with the itemName -- if the same, then this is the row
-                        // the user wants
-                        temp = column.getText();
-                        itemWithoutParenthese = temp;
-                        if (temp.contains("(") && (itemName.contains("(") == false)) {
-                            itemWithoutParenthese = temp.substring(0, temp.indexOf("(")).trim();
-                        }
-                        if (itemWithoutParenthese.equalsIgnoreCase(itemName)) {
-
-                            returnValue = i+1;
-
-                            // get out of for loop
-                            i = rowCount;
-
-                            found = true;
-                        }
-                    }
-
-                    if(!found){
-                        returnValue = 0;
-                    }
-                    done = true;
-
-                }  catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
-            }
+            // read the whole table in one round trip and look the item up in memory
+            returnValue = getSnapshot().findItemInColumnEqualsIgnoreCase(itemName, columnIndex);
         }
 
         return returnValue;
@@ -1105,71 +1070,9 @@ public class Table extends BaseElement {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
             returnValue = 1;
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
-                    // getting the table web element with the default timeout
-                    // and then get all of the row elements
-                    List<WebElement> rowElements = getRowElements();
-
-                    // get the row count
-                    int rowCount = rowElements.size();
-
-                    // for each row, check the text of the specified column
-                    boolean found = false;
-                    for (int i = 0; i < rowCount; i++) {
-                        WebElement row = rowElements.get(i);
-
-                        // get the specified column element of this row
-                        WebElement column = row.findElement(By.xpath("td[" + columnIndex + "]"));
-
-                        // check the column text with the itemName -- if the same, then this is the row
-                        // the user wants
-                        if (column.getText().contains(itemName)) {
-
-                            returnValue = i+1;
-
-                            // get out of for loop
-                            i = rowCount;
-
-                            found = true;
-                        }
-                    }
-
-                    if(!found){
-                        returnValue = 0;
-                    }
-                    done = true;
-
-                }
-                catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                }
-                catch (org.openqa.selenium.NoSuchElementException e) {
-
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-                        returnValue = -1;
-                    }
-                }
-            }
-        }
+            // read the whole table in one round trip and look the item up in memory
+            returnValue = getSnapshot().containsItemInColumn(itemName, columnIndex);
+        }
 
         return returnValue;
     }
@@ -1183,22 +1086,17 @@ public class Table extends BaseElement {
      * @param itemName      [INT] the item name to be selected in the row.
      * @param rowIndex      [INT] the column to select.Column start with index 1.
      */
-    public void selectItemInaRow (String itemName,int columnIndex) {
+    public void selectItemInaRow (final String itemName, final int columnIndex) {
         if (this.isStubbed()) {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-            String temp, itemWithoutParenthese;
-
-
             // CRAIG: added after removal of sleep revamps.
             this.isItemAppearinTable(itemName, 120, columnIndex); // TODO: remove harddcoded timeout
 
-            while (!done) {
-                try {
+            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
+            //     this the retry policy will catch the stale element and try again
+            RetryPolicy.STALE_ELEMENT.run("Table::selectItemInaRow", new Runnable() {
+                public void run() {
                     // getting the table web element with the default timeout
                     // and then get all of the row elements
                     List<WebElement> rowElements = getRowElements();
@@ -1214,8 +1112,8 @@ public class Table extends BaseElement {
                         // get the specified column element of this row
                         WebElement column = row.findElement(By.xpath("td[" + columnIndex + "]"));
 
-                        temp = column.getText();
-                        itemWithoutParenthese = temp;
+                        String temp = column.getText();
+                        String itemWithoutParenthese = temp;
 
                         // we only want to get rid of Parenthesis strings  "myVV (1)"  if the item being searched for
                         // does NOT have a parenthesis while the table item we are looking at DOES.
@@ -1242,21 +1140,8 @@ public class Table extends BaseElement {
                     if(!found){
                         throw new NoSuchElementException("Unable to find row with the item '" + itemName + "'");
                     }
-                    done = true;
-
-                }  catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
                 }
-            }
+            });
         }
     }
 
@@ -1362,7 +1247,7 @@ public class Table extends BaseElement {
 
                     sleep(5,TimeUnit.SECONDS);
                     // setting up builder
-                    Actions builder = new Actions(browser.driver);
+                    Actions builder = new Actions(browser().driver);
                     ArrayList<String> rowlist = new ArrayList();
                     sleep(1,TimeUnit.SECONDS);
                     for (int i = 0; i < rows.length; i++) {
@@ -1389,7 +1274,7 @@ public class Table extends BaseElement {
                     // executing the key strokes
                     builder.build().perform();
                     //Below code is added to deselect unwanted rows that are getting selected bydefault.
-                    Actions builderTodeSelectRow = new Actions(browser.driver);
+                    Actions builderTodeSelectRow = new Actions(browser().driver);
 
                     log("List of rows given :" + rowlist);
                     //verify selected row is selcted or any other row is selected and deselect all rows which are not required.
@@ -1440,40 +1325,20 @@ public class Table extends BaseElement {
      *
      * @param rows      [ARRAY OF INT] the rows to select.  Rows start with index 1.
      */
-    public  ArrayList<String> selectMultipleRows (int [] rows, int tdClickColumn, int dataColumn) {
-        int rowCount = 0;
-        int select = 0;
-        int MAXTRIES = 4;
+    public  ArrayList<String> selectMultipleRows (final int [] rows, final int tdClickColumn, final int dataColumn) {
         ArrayList<String> returnActualList = null;
 
         if (this.isStubbed()) {
             log("Table::selectMultipleRows === The table's table query is currently stubbed out. ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
-                    // getting the table web element with the default timeout
-                    // and then get the specified row
-                    returnActualList = selectMultipleRows_original(rows, tdClickColumn, dataColumn);
-
-                    done = true;
-                } catch (StaleElementReferenceException e) {
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXTRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+            //     this the retry policy will catch the stale element and try again
+            returnActualList = RetryPolicy.STALE_ELEMENT.call("Table::selectMultipleRows", new RetryPolicy.Attempt<ArrayList<String>>() {
+                public ArrayList<String> run() {
+                    // select all the rows with a single chain of clicks
+                    return selectMultipleRowsInBulk(rows, tdClickColumn, dataColumn);
                 }
-            }
+            });
         }
 
         return returnActualList;
@@ -1570,6 +1435,136 @@ public class Table extends BaseElement {
 
     }
 
+    /**
+     * This method selects multiple rows in the table in bulk.  The cells to click are resolved with a single script
+     * execution, all the rows are then selected with a single chain of control-clicks, and the resulting selection
+     * is checked with one more script execution.  If other rows got selected, or if some rows did not, they are
+     * fixed with one more chain of control-clicks.
+     * <p>
+     * <b><u>NOTE:</u></b>  The table is first checked if it exists before interacting with it.
+     * If the table does not exist, an error will be logged an the test will stop.
+     *
+     * @param rows           [ARRAY OF INT] the rows to select.  Rows start with index 1.
+     * @param tdClickColumn  [INT] the cell to click in each row.  Cells start with index 0.
+     * @param dataColumn     [INT] the column whose values are returned.  Columns start with index 1.
+     * @return               the values in the data column of the rows that are selected at the end
+     * @throws NoSuchElementException if one of the rows is not a valid row to select
+     */
+    public ArrayList<String> selectMultipleRowsInBulk (int [] rows, int tdClickColumn, int dataColumn) {
+        ArrayList<String> returnValue = new ArrayList<String>();
+
+        if (this.isStubbed()) {
+            log("Table::selectMultipleRowsInBulk === The table's table query is currently stubbed out. ===");
+        } else {
+            List<Integer> rowList = new ArrayList<Integer>();
+            for (int row : rows) {
+                rowList.add(row);
+            }
+
+            Map<String, Object> resolved = runTableScript(TableScripts.RESOLVE_ROWS, rowList, null, dataColumn, tdClickColumn);
+            List<Object> invalid = ElementUtil.scriptResult(resolved.get("invalid"));
+            if (invalid.size() > 0) {
+                throw new NoSuchElementException("Table::selectMultipleRows -- row '" + invalid.get(0) + "' is not a valid row to select.");
+            }
+
+            returnValue = selectResolvedRows(resolved, dataColumn, tdClickColumn);
+        }
+
+        return returnValue;
+    }
+
+    /**
+     * This method selects multiple rows in the table, based on the item names, in bulk.  See
+     * {@link #selectMultipleRowsInBulk(int[], int, int)}.  The item names are matched against the values of the
+     * column without their "(n)" suffixes.
+     *
+     * @param columnName     [STRING] the name of the table column where the itemsNames appear
+     * @param itemNames      [ARRAY OF STRING] the item names in the rows to select.
+     * @return               the item names, without their "(n)" suffixes, of the rows that are selected at the end
+     * @throws NoSuchElementException if some of the item names are not found in the table
+     */
+    public ArrayList<String> selectMultipleRowsInBulk (String columnName, String [] itemNames) {
+        ArrayList<String> returnValue = new ArrayList<String>();
+
+        if (this.isStubbed()) {
+            log("Table::selectMultipleRowsInBulk === The table's table query is currently stubbed out. ===");
+        } else {
+            int dataColumnIndex = this.getColumnIndex(columnName);
+
+            Map<String, Object> resolved = runTableScript(TableScripts.RESOLVE_ROWS, null, Arrays.asList(itemNames), dataColumnIndex, 0);
+            List<Object> notFound = ElementUtil.scriptResult(resolved.get("notFound"));
+
+            // if any item was not found, then throw an exception
+            if (notFound.size() > 0) {
+                String temp = "";
+                for (int i = 0; i < notFound.size(); i++) {
+                    temp = temp + "'" + notFound.get(i) + "'; ";
+                }
+
+                // getting rid of the last '; ' in temp
+                temp = temp.substring(0, temp.length()-2);
+                throw new NoSuchElementException("Table::selectMultipleRows -- the following item names where not found in the table: " + temp);
+            }
+
+            returnValue = this.removeParentheseFromNames(selectResolvedRows(resolved, dataColumnIndex, 0));
+        }
+
+        return returnValue;
+    }
+
+    /**
+     * This method clicks the cells resolved by {@link TableScripts#RESOLVE_ROWS} with a single chain of
+     * control-clicks, then checks the selection and fixes it if needed.
+     *
+     * @param resolved       the result of the {@link TableScripts#RESOLVE_ROWS} script
+     * @param dataColumn     [INT] the column whose values are returned.  Columns start with index 1.
+     * @param tdClickColumn  [INT] the cell to click in each row.  Cells start with index 0.
+     * @return               the values in the data column of the rows that are selected at the end
+     */
+    private ArrayList<String> selectResolvedRows (Map<String, Object> resolved, int dataColumn, int tdClickColumn) {
+        List<Object> rows = ElementUtil.scriptResult(resolved.get("rows"));
+        List<WebElement> cells = ElementUtil.scriptResult(resolved.get("cells"));
+
+        log("List of rows given :" + rows);
+        if (cells.size() > 0) {
+            // the first click selects only the first row; the other rows are added to the selection
+            Actions builder = new Actions(browser().driver);
+            builder.click(cells.get(0));
+            if (cells.size() > 1) {
+                builder.keyDown(Keys.CONTROL);
+                for (int i = 1; i < cells.size(); i++) {
+                    builder.click(cells.get(i));
+                }
+                builder.keyUp(Keys.CONTROL);
+            }
+            builder.build().perform();
+        }
+
+        // check the selection; in some cases other rows get selected along with the expected ones
+        Map<String, Object> selection = runTableScript(TableScripts.SELECTED_ROWS, dataColumn, rows, tdClickColumn);
+        List<WebElement> fix = ElementUtil.scriptResult(selection.get("fix"));
+        if (fix.size() > 0) {
+            log("Actual List of rows selected :" + selection.get("rows") + ".  Fixing " + fix.size() + " rows");
+            Actions builderToFixRows = new Actions(browser().driver);
+            builderToFixRows.keyDown(Keys.CONTROL);
+            for (WebElement cell : fix) {
+                builderToFixRows.click(cell);
+            }
+            builderToFixRows.keyUp(Keys.CONTROL);
+            builderToFixRows.build().perform();
+
+            selection = runTableScript(TableScripts.SELECTED_ROWS, dataColumn, null, tdClickColumn);
+        }
+
+        ArrayList<String> returnValue = new ArrayList<String>();
+        for (Object value : ElementUtil.<List<Object>>scriptResult(selection.get("values"))) {
+            returnValue.add(String.valueOf(value));
+        }
+        log("Actual List of item names that were selected :" + returnValue);
+
+        return returnValue;
+    }
+
     public void selectMultipleRows (String columnName, String [] itemNames) {
         String temp = "";
         int dataColumnIndex = this.getColumnIndex(columnName);
@@ -1582,7 +1577,7 @@ public class Table extends BaseElement {
         } else {
 
             List<String> expectedItemList = Arrays.asList(itemNames);
-            actualSelectedList  = this.selectMultipleRows_original (columnName,itemNames );
+            actualSelectedList  = this.selectMultipleRowsInBulk (columnName,itemNames );
 
             Collections.sort(expectedItemList);
             Collections.sort(actualSelectedList);
@@ -1597,14 +1592,14 @@ public class Table extends BaseElement {
                 for (String s:actualSelectedList) {
                     System.out.println (s);
                 }
-                browser.takeScreenShot("selectMultipleRows_");
+                browser().takeScreenShot("selectMultipleRows_");
                 sleep(3, TimeUnit.SECONDS);
-                actualSelectedList = this.selectMultipleRows_original(columnName, itemNames);
+                actualSelectedList = this.selectMultipleRowsInBulk(columnName, itemNames);
                 Collections.sort(actualSelectedList);
                 if (expectedItemList.equals(actualSelectedList) == false)
                 {
                     log ("*** FAILURE: could not properly select multiple items in list");
-                    browser.takeScreenShot("selectMultipleRows_");
+                    browser().takeScreenShot("selectMultipleRows_");
                     Assert.assertTrue(false,"** could not properly select multiple items in list");
                 }
             }
@@ -1663,34 +1658,17 @@ public class Table extends BaseElement {
             log("=== The table's headings query is currently stubbed out.  Returning a value '" + returnValue + "' ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
-
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::getColumnHeadingsList", new RetryPolicy.Attempt<String[]>() {
+                public String[] run() {
                     // getting the table web element with the default timeout
                     // and then get its headings elements
                     List<WebElement> headingElements = getColumnHeadingElements();
 
                     // get and trim the text of the heading elements
-                    returnValue = ElementUtil.getText(headingElements, true);
-
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return ElementUtil.getText(headingElements, true);
                 }
-            }
+            });
         }
 
         return returnValue;
@@ -1710,22 +1688,18 @@ public class Table extends BaseElement {
      * @param columnHeading    [STRING] the name of the column heading
      * @return                 the index of the specific column
      */
-    protected int getColumnIndex_original (String columnHeading) {
+    protected int getColumnIndex_original (final String columnHeading) {
         // declaring local variables
         int returnValue = -1;
-        String headingValue;
 
         if (this.isStubbed()) {
             returnValue = 1;
             log("=== The table's table query is currently stubbed out.  Returning a value '" + returnValue + "' ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::getColumnIndex", new RetryPolicy.Attempt<Integer>() {
+                public Integer run() {
                     // getting the table web element with the default timeout
                     // and then get its headings elements
                     List<WebElement> headingElements = getColumnHeadingElements();
@@ -1733,30 +1707,15 @@ public class Table extends BaseElement {
                     // check the text of all heading elements to find the specified columnHeading
                     for (int i = 0; i < headingElements.size(); i++) {
                         // getting the heading of this column
-                        headingValue = headingElements.get(i).getText();
+                        String headingValue = headingElements.get(i).getText();
 
                         if (headingValue.equalsIgnoreCase(columnHeading)) {
-                            returnValue = i + 1;
-
-                            // getting out of for loop
-                            i = headingElements.size();
+                            return i + 1;
                         }
                     }
-                    done = true;
-
-                } catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return -1;
                 }
-            }
+            });
         }
 
         return returnValue;
@@ -1785,7 +1744,8 @@ public class Table extends BaseElement {
         int elapsedTime;
         startTime = System.nanoTime();
         int index = -1;
-        int timeOutSeconds = 120;  //TODO: hardcoding
+        String timeoutKey = AdaptiveTimeouts.keyOf(this, "getColumnIndex");
+        int timeOutSeconds = AdaptiveTimeouts.getTimeout(timeoutKey, 120);
 
         // set start time
         while (done == false) {
@@ -1796,6 +1756,7 @@ public class Table extends BaseElement {
                 // good, value found
                 itemFound = true;
                 done = true;
+                AdaptiveTimeouts.record(timeoutKey, System.nanoTime() - startTime);
             }
 
             if (itemFound == false) {
@@ -1854,7 +1815,7 @@ public class Table extends BaseElement {
      * @param rowIndex   [INT]  the row index being checked
      * @return           a boolean 'true' if the row is selected, 'false' otherwise.
      */
-    public boolean isRowSelected (int rowIndex) {
+    public boolean isRowSelected (final int rowIndex) {
         // declaring local variables
         boolean returnValue = false;
 
@@ -1862,33 +1823,17 @@ public class Table extends BaseElement {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::isRowSelected", new RetryPolicy.Attempt<Boolean>() {
+                public Boolean run() {
                     // getting the table web element with the default timeout
                     // and then get the specified row
                     WebElement row = getRowElement(rowIndex);
 
                     // check the CSS classes of the row element
-                    returnValue = ElementUtil.hasCSSClass(row, "hp-selected");
-
-                    done = true;
-                } catch (StaleElementReferenceException e) {
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return ElementUtil.hasCSSClass(row, "hp-selected");
                 }
-            }
+            });
         }
 
         return returnValue;
@@ -1904,15 +1849,56 @@ public class Table extends BaseElement {
      * @return                  {@code true} if this method successfully found the item in the specified table column; {@code false} otherwise.
      */
     public boolean isItemAppearinTable(String itemName,int timeOutSeconds,int columnIndex)
+    {
+        // declaring local variables
+        boolean itemFound = false;
+
+        if (this.isStubbed() || columnIndex < 1) {
+            return isItemAppearinTable_original(itemName, timeOutSeconds, columnIndex);
+        }
+
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemAppearinTable");
+
+        log ("  Waiting for item to appear in table: " + itemName);
+        long startTime = System.nanoTime();
+        try {
+            itemFound = waitForItemInColumn(itemName, columnIndex, true, timeOutSeconds);
+        } catch (WebDriverException e) {
+            warning("Table::isItemAppearinTable -- Could not watch the table for changes, polling it instead: " + e.getMessage());
+            operation.stop();
+            // poll for the rest of the timeout only
+            return isItemAppearinTable_original(itemName, remainingSeconds(startTime, timeOutSeconds), columnIndex);
+        }
+
+        operation.stop();
+
+        if (itemFound)
+        {
+            log ("  item found: " + itemName);
+        }
+        else
+        {
+            log ("  item NOT found: " + itemName);
+        }
+        return itemFound;
+    }
+
+    /**
+     * This method is used to wait for a particular item to appear in a particular column of the table.
+     * It reads the whole table every second until the item is found.
+     *
+     * @param itemName          [STRING] the item Name to be searched in the table
+     * @param timeOutSeconds    [INT] the maximum timeout to wait for the item to appear in the table
+     * @param columnIndex       [INT] the column index where the item to be searched
+     * @return                  {@code true} if this method successfully found the item in the specified table column; {@code false} otherwise.
+     */
+    protected boolean isItemAppearinTable_original(String itemName,int timeOutSeconds,int columnIndex)
     {
         // declaring local variables
         boolean itemFound = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemAppearinTable_original");
 
         if (this.isStubbed()) {
             log("Table::IsItemAppearinTable === The table's table query is currently stubbed out. ===");
@@ -1949,10 +1935,7 @@ public class Table extends BaseElement {
             }
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            log(this.getName() + "::isItemAppearinTable('" + itemName + "', " + timeOutSeconds + ", " + columnIndex + ") took " + stopwatch);
-        }
+        operation.stop();
 
         if (itemFound)
         {
@@ -1971,10 +1954,7 @@ public class Table extends BaseElement {
         boolean itemFound = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemAppearinTable");
 
         if (this.isStubbed()) {
             log("Table::IsItemAppearinTable === The table's table query is currently stubbed out. ===");
@@ -2006,10 +1986,7 @@ public class Table extends BaseElement {
             }
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            log(this.getName() + "::isItemAppearinTable('" + itemName + "', " + timeOutSeconds + ", " + systemName + ") took " + stopwatch);
-        }
+        operation.stop();
         return itemFound;
 
     }
@@ -2033,10 +2010,7 @@ public class Table extends BaseElement {
         boolean itemFound = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemAppearinTable");
 
         if (this.isStubbed()) {
             log("   Table::isItemAppearinTable === The table's table query is currently stubbed out. ===");
@@ -2084,6 +2058,7 @@ public class Table extends BaseElement {
             }
         }
 
+        operation.stop();
         return itemFound;
 
     }
@@ -2098,15 +2073,46 @@ public class Table extends BaseElement {
      * @return                  {@code true} if this method could not found the item in the specified table column; {@code false} otherwise.
      */
     public boolean isItemDisappearinTable(String itemName,int timeOutSeconds,int columnIndex)
+    {
+        // declaring local variables
+        boolean itemDisappeared = false;
+
+        if (this.isStubbed() || columnIndex < 1) {
+            return isItemDisappearinTable_original(itemName, timeOutSeconds, columnIndex);
+        }
+
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemDisappearinTable");
+
+        long startTime = System.nanoTime();
+        try {
+            itemDisappeared = waitForItemInColumn(itemName, columnIndex, false, timeOutSeconds);
+        } catch (WebDriverException e) {
+            warning("Table::isItemDisappearinTable -- Could not watch the table for changes, polling it instead: " + e.getMessage());
+            operation.stop();
+            // poll for the rest of the timeout only
+            return isItemDisappearinTable_original(itemName, remainingSeconds(startTime, timeOutSeconds), columnIndex);
+        }
+
+        operation.stop();
+        return itemDisappeared;
+    }
+
+    /**
+     * This method is used to wait for a particular item to disappear from a particular column of the table.
+     * It reads the whole table every second until the item is gone.
+     *
+     * @param itemName          [STRING] the item Name to be searched in the table
+     * @param timeOutSeconds    [INT] the maximum timeout to wait for the item to disappear in the table
+     * @param columnIndex       [INT] the column index where the item to be searched
+     * @return                  {@code true} if this method could not found the item in the specified table column; {@code false} otherwise.
+     */
+    protected boolean isItemDisappearinTable_original(String itemName,int timeOutSeconds,int columnIndex)
     {
         // declaring local variables
         boolean itemDisappeared = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemDisappearinTable_original");
 
         if (this.isStubbed()) {
             log("Table::IsItemDisappearinTable === The table's table query is currently stubbed out. ===");
@@ -2139,78 +2145,424 @@ public class Table extends BaseElement {
             }
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            log(this.getName() + "::isItemDisappearinTable('" + itemName + "', " + timeOutSeconds + ", " + columnIndex + ") took " + stopwatch);
+        operation.stop();
+        return itemDisappeared;
+    }
+
+    public boolean isItemDisappearinTable (String itemName, String columnHeaderForName, String systemName, String columnHeaderForSystem, int timeOutSeconds)
+    {
+        // declaring local variables
+        boolean itemDisappeared = false;
+        boolean done = false;
+        long startTime;
+        Instrumentation.Operation operation = Instrumentation.start(this, "isItemDisappearinTable");
+
+        if (this.isStubbed()) {
+            log("Table::IsItemDisappearinTable === The table's table query is currently stubbed out. ===");
+            itemDisappeared = true;
+        }
+        else {
+            // set start time
+            startTime = System.nanoTime();
+            while (!done) {
+                // Is the item in the table?
+                int rowIndex = this.getRowForItemNameAndSystem(itemName, columnHeaderForName, systemName, columnHeaderForSystem);
+                if (rowIndex == 0) {
+                    // The item does not exist; we're done!
+                    itemDisappeared = true;
+                    done = true;
+                } else {
+                    // The item still exists; keep checking until timeout.
+
+                    // get elapsed Time
+                    int elapsedTime = (int)TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+
+                    // If it has reached the timeout, stop checking; otherwise sleep and try again
+                    if (elapsedTime >= timeOutSeconds) {
+                        done = true;
+                    } else {
+                        sleep(1, TimeUnit.SECONDS);
+                    }
+                }
+            }
+        }
+
+        operation.stop();
+        return itemDisappeared;
+    }
+    public boolean isItemDisappearinTable (String itemName, String systemName, int timeOutSeconds)
+    {
+        return this.isItemDisappearinTable (itemName, "Name", systemName, "System", timeOutSeconds);
+    }
+
+
+    /**
+     * This method waits for an item to appear in, or to disappear from, a column of the table.  Instead of
+     * reading the table repeatedly, it installs a MutationObserver on the table and blocks in a single
+     * asynchronous script call that returns as soon as the table changes in the expected way.
+     * If the table is rebuilt while waiting, the wait resumes on the new table for the remaining time.
+     * <p>
+     * <b>Note:</b> This method does not check whether the locator of this web element is stubbed out or not.
+     * Thus, it is the responsibility of the caller NOT to call this method if the locator is stubbed out.
+     *
+     * @param itemName          [STRING] the item name to wait for, matched like {@link #findItemInColumn(String, int)}
+     * @param columnIndex       [INT] the column to watch. It starts with index 1.
+     * @param appear            {@code true} to wait for the item to appear; {@code false} to wait for it to disappear
+     * @param timeOutSeconds    [INT] the maximum time to wait
+     * @return                  {@code true} if the item appeared (or disappeared) before the timeout; {@code false} otherwise
+     * @throws WebDriverException if the script could not be run
+     */
+    protected boolean waitForItemInColumn(String itemName, int columnIndex, boolean appear, int timeOutSeconds) {
+        long endTime = System.nanoTime() + TimeUnit.NANOSECONDS.convert(timeOutSeconds, TimeUnit.SECONDS);
+        long remainingMillis = TimeUnit.MILLISECONDS.convert(timeOutSeconds, TimeUnit.SECONDS);
+
+        do {
+            Object result;
+            try {
+                // the script times itself out; give the driver a few more seconds before it gives up on the script
+                // a rebuilt table is looked for during the remaining time only, not the default timeout
+                int remainingSeconds = (int) TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999);
+                result = browser().executeAsyncScript(remainingSeconds + 5, TableScripts.WAIT_FOR_ITEM,
+                        getStructure(remainingSeconds).tableElement, itemName, columnIndex, appear,
+                        TimeUnit.NANOSECONDS.toMillis(endTime - System.nanoTime()));
+            } catch (StaleElementReferenceException e) {
+                result = "detached";
+            }
+
+            if ("matched".equals(result)) {
+                return true;
+            }
+            if (!"detached".equals(result)) {
+                return false;
+            }
+
+            // the table has been rebuilt since its structure was detected; watch the new one
+            log("  Table::waitForItemInColumn -- The table was rebuilt. Resuming the wait");
+            invalidate();
+            remainingMillis = TimeUnit.MILLISECONDS.convert(endTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } while (remainingMillis > 0);
+
+        return false;
+    }
+
+    // The part of a timeout left since the start time, in whole seconds; 0 once the timeout is over.
+    private static int remainingSeconds(long startTime, int timeOutSeconds) {
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTime);
+        return (int) Math.max(0, timeOutSeconds - elapsedSeconds);
+    }
+
+    /**
+     * This method returns an list of String array of values in each column for all rows in the table.
+     * If the item in the column is a checkbox or an image, not a text, then the value will be an empty
+     * string.
+     * <p>
+     * <b><u>NOTE:</u></b>  The table is first checked if it exists before interacting with it.
+     * If the table does not exist, an error is logged and the test will stop.     *
+
+     * @return              an list of String array with all the values for all the rows
+     * @author Craig Yara
+     */
+    public ArrayList<String[]> getAllRows () {
+        // PROCEDURE:
+        //      the whole table is read by a single script running inside the browser (see TableScripts.READ_ALL),
+        // which returns the text (or the icon value) of every cell.  This is one WebDriver round trip regardless of
+        // the size of the table, instead of one round trip per cell.  If the script cannot be run, fall back to
+        // reading the table cell by cell.
+        ArrayList<String[]> returnList = new ArrayList<String[]>();
+
+        if (this.isStubbed()) {
+            log("Table::getAllRows === The table's table query is currently stubbed out.  Returning a String array with 2 items. ===");
+        } else {
+            // waiting for the page to settle here, because sometimes when the table is refreshing, some values
+            // within the row are '--'
+            PageQuiescence.settle(1000);
+
+            try {
+                returnList = toRowList(readTable());
+            } catch (StaleElementReferenceException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                warning("Table::getAllRows -- unable to read the table with a script, reading it cell by cell instead. " + e.getMessage());
+                returnList = getAllRows_original();
+            }
+        }
+
+        return returnList;
+    }
+
+    /**
+     * This method reads the column headings and the values of all cells of the table with a single script
+     * execution in the browser.  The values are the same as the ones returned by {@link #getAllRows()}.
+     * <p>
+     * <b>Note:</b> This method does not check whether the locator of this web element is stubbed out or not.
+     * Thus, it is the responsibility of the caller NOT to call this method if the locator is stubbed out.
+     *
+     * @return  a map with the list of column headings under the key "columns" and the list of rows, each of them
+     *          a list of cell values, under the key "rows"
+     * @throws StaleElementReferenceException if the table is still being redrawn after the maximum retries
+     */
+    protected Map<String, Object> readTable() {
+        return runTableScript(TableScripts.READ_ALL);
+    }
+
+    /**
+     * This method runs one of the {@link TableScripts} against this table, passing the table web element as
+     * <code>arguments[0]</code> followed by the specified arguments.  If the table is being redrawn, the script
+     * is run again on the new table, up to the maximum retries.
+     * <p>
+     * <b>Note:</b> This method does not check whether the locator of this web element is stubbed out or not.
+     * Thus, it is the responsibility of the caller NOT to call this method if the locator is stubbed out.
+     *
+     * @param script  the script to run
+     * @param args    the other arguments of the script
+     * @return        the object returned by the script
+     * @throws StaleElementReferenceException if the table is still being redrawn after the maximum retries
+     */
+    protected Map<String, Object> runTableScript(final String script, Object... args) {
+        Map<String, Object> returnValue = null;
+        final Object[] scriptArgs = new Object[args.length + 1];
+        System.arraycopy(args, 0, scriptArgs, 1, args.length);
+
+        // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
+        //     this the retry policy will catch the stale element and run the script again on the new table
+        returnValue = RetryPolicy.STALE_ELEMENT.call("Table::runTableScript", new RetryPolicy.Attempt<Map<String, Object>>() {
+            public Map<String, Object> run() {
+                try {
+                    scriptArgs[0] = getStructure().tableElement;
+                    return ElementUtil.scriptResult(browser().executeScript(script, scriptArgs));
+                } catch (StaleElementReferenceException e) {
+                    // the table has been rebuilt since its structure was detected
+                    invalidate();
+                    throw e;
+                }
+            }
+        });
+
+        return returnValue;
+    }
+
+
+    /**
+     * This method converts the rows read by {@link #readTable()} into the list of String arrays returned by
+     * {@link #getAllRows()}.
+     *
+     * @param tableData  the result of {@link #readTable()}
+     * @return           a list of String arrays, one per row
+     */
+    private ArrayList<String[]> toRowList(Map<String, Object> tableData) {
+        return toRowArrays(ElementUtil.<List<List<Object>>>scriptResult(tableData.get("rows")));
+    }
+
+
+    /**
+     * This method returns an iterator over all the rows of the table, including the rows that are not loaded yet
+     * in a paged ("Load more") table.  The rows are read page by page: the iterator clicks the "Load more" link
+     * below the table only when all the rows already loaded have been consumed, so a caller looking for a single
+     * item can stop as soon as it is found instead of loading the whole data set.
+     * <p>
+     * The iterator does not keep the rows it has returned, so its memory use does not grow with the size of the
+     * table.  The values of each row are the same as the ones returned by {@link #getAllRows()}.
+     *
+     * @return  an iterator over the rows of the table, each of them a String array of cell values
+     */
+    public TableRowIterator streamRows() {
+        if (this.isStubbed()) {
+            log("Table::streamRows === The table's table query is currently stubbed out.  Returning an empty iterator. ===");
+        }
+        return new TableRowIterator(this);
+    }
+
+    /**
+     * This method reads, with a single script execution in the browser, the rows currently displayed after the
+     * specified row.  It is used by {@link TableRowIterator} to read a paged table page by page.  The last row of
+     * the table is marked, so that the next page starts after that row element (see {@link TableScripts#READ_PAGE}).
+     *
+     * @param marker   the name of the marker of the last row read, unique to the reader
+     * @param lastRow  the values of the last row already read, used if the marked row is gone; {@code null} to
+     *                 read all rows
+     * @return         a map with the list of rows after the specified row under the key "rows", whether the table
+     *                 has a "Load more" link below its rows under the key "more", and whether the specified row
+     *                 was found under the key "found"
+     */
+    Map<String, Object> readPage(String marker, String[] lastRow) {
+        return runTableScript(TableScripts.READ_PAGE, marker, (lastRow == null) ? null : Arrays.asList(lastRow));
+    }
+
+    /**
+     * This method clicks the "Load more" link below the rows of the table, if it exists.
+     *
+     * @return  {@code true} if the link was clicked; {@code false} otherwise
+     */
+    boolean loadMoreBelow() {
+        if (this.loadMoreBelowLink.exists(1)) {
+            this.loadMoreBelowLink.click();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method converts the rows returned by a table script into String arrays.
+     *
+     * @param rows  the rows returned by the script, each of them a list of cell values
+     * @return      a list of String arrays, one per row
+     */
+    static ArrayList<String[]> toRowArrays(List<List<Object>> rows) {
+        ArrayList<String[]> returnList = new ArrayList<String[]>();
+
+        for (List<Object> row : rows) {
+            String[] rowValues = new String[row.size()];
+            for (int j = 0; j < rowValues.length; j++) {
+                rowValues[j] = String.valueOf(row.get(j));
+            }
+            returnList.add(rowValues);
+        }
+
+        return returnList;
+    }
+
+    /**
+     * This method starts a query on the rows of the table.  The query is run inside the browser, and only the
+     * indexes and the requested values of the matching rows are transferred.  See {@link TableQuery}.
+     *
+     * @return  a new query on this table
+     */
+    public TableQuery query() {
+        return new TableQuery(this);
+    }
+
+    /**
+     * This method reads the table into a {@link TableView}, which identifies each row by the value of its first
+     * column.  Use {@link #refreshView(TableView)} to update the view when the table changes.
+     *
+     * @return  a view of the table
+     */
+    public TableView getView() {
+        return getView(1);
+    }
+
+    /**
+     * This method reads the table into a {@link TableView}, which identifies each row by the value of the
+     * specified column, e.g. the name of a volume.  Use {@link #refreshView(TableView)} to update the view when
+     * the table changes.
+     *
+     * @param keyColumnIndex  [INT] the column that identifies the rows. It starts with index 1.
+     * @return                a view of the table
+     */
+    public TableView getView(int keyColumnIndex) {
+        if (keyColumnIndex < 1) {
+            throw new NoSuchElementException("Table::getView -- Invalid column index, " + keyColumnIndex);
+        }
+
+        TableView emptyView = new TableView(keyColumnIndex);
+        if (this.isStubbed()) {
+            log("Table::getView === The table's table query is currently stubbed out.  Returning an empty view. ===");
+            return emptyView;
         }
-        return itemDisappeared;
+
+        return refreshView(emptyView).getView();
     }
 
-    public boolean isItemDisappearinTable (String itemName, String columnHeaderForName, String systemName, String columnHeaderForSystem, int timeOutSeconds)
-    {
-        // declaring local variables
-        boolean itemDisappeared = false;
-        boolean done = false;
-        long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+    /**
+     * This method updates a view of the table taken with {@link #getView(int)}.  The key and a hash of the values
+     * of each row are computed inside the browser, and only the rows that were added or whose values changed since
+     * the view was taken are transferred, which makes it cheap to poll a large table that changes slowly:
+     * <pre>
+     *   TableView view = volumesTable.getView(1);
+     *   ...
+     *   TableDiff diff = volumesTable.refreshView(view);
+     *   for (String name : diff.getChangedKeys()) { ... }
+     *   view = diff.getView();
+     * </pre>
+     *
+     * @param view  a view of this table
+     * @return      the rows added to, removed from, and changed in the table since the view was taken, along with
+     *              the updated view
+     */
+    public TableDiff refreshView(TableView view) {
+        Instrumentation.Operation operation = Instrumentation.start(this, "refreshView");
 
         if (this.isStubbed()) {
-            log("Table::IsItemDisappearinTable === The table's table query is currently stubbed out. ===");
-            itemDisappeared = true;
+            log("Table::refreshView === The table's table query is currently stubbed out.  Returning an empty diff. ===");
+            return new TableDiff(view, view);
         }
-        else {
-            // set start time
-            startTime = System.nanoTime();
-            while (!done) {
-                // Is the item in the table?
-                int rowIndex = this.getRowForItemNameAndSystem(itemName, columnHeaderForName, systemName, columnHeaderForSystem);
-                if (rowIndex == 0) {
-                    // The item does not exist; we're done!
-                    itemDisappeared = true;
-                    done = true;
-                } else {
-                    // The item still exists; keep checking until timeout.
 
-                    // get elapsed Time
-                    int elapsedTime = (int)TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+        Map<String, Object> changes = runTableScript(TableScripts.READ_CHANGES, view.getKeyColumnIndex(),
+                view.getRowCount() == 0 ? null : view.getHashes());
 
-                    // If it has reached the timeout, stop checking; otherwise sleep and try again
-                    if (elapsedTime >= timeOutSeconds) {
-                        done = true;
-                    } else {
-                        sleep(1, TimeUnit.SECONDS);
-                    }
-                }
-            }
+        List<Object> columns = ElementUtil.scriptResult(changes.get("columns"));
+        String[] headings = new String[columns.size()];
+        for (int j = 0; j < headings.length; j++) {
+            headings[j] = String.valueOf(columns.get(j));
         }
 
-        if (LOG_PERFORMANCE) {
-            stopwatch.stop();
-            log(this.getName() + "::isItemDisappearinTable('" + itemName + "', " + timeOutSeconds + ", " + systemName + ") took " + stopwatch);
+        List<String> keys = new ArrayList<String>();
+        for (Object key : ElementUtil.<List<Object>>scriptResult(changes.get("keys"))) {
+            keys.add(String.valueOf(key));
         }
-        return itemDisappeared;
-    }
-    public boolean isItemDisappearinTable (String itemName, String systemName, int timeOutSeconds)
-    {
-        return this.isItemDisappearinTable (itemName, "Name", systemName, "System", timeOutSeconds);
+
+        Map<String, String[]> rows = new HashMap<String, String[]>();
+        Map<String, String> hashes = new HashMap<String, String>();
+        Map<String, Object> changedRows = ElementUtil.scriptResult(changes.get("rows"));
+        Map<String, Object> changedHashes = ElementUtil.scriptResult(changes.get("hashes"));
+        for (Map.Entry<String, Object> entry : changedRows.entrySet()) {
+            List<List<Object>> row = Collections.singletonList(ElementUtil.<List<Object>>scriptResult(entry.getValue()));
+            rows.put(entry.getKey(), toRowArrays(row).get(0));
+            hashes.put(entry.getKey(), String.valueOf(changedHashes.get(entry.getKey())));
+        }
+
+        TableDiff returnValue = new TableDiff(view, view.update(headings, keys, rows, hashes));
+
+        operation.stop();
+        return returnValue;
     }
 
     /**
-     * This method returns an list of String array of values in each column for all rows in the table.
-     * If the item in the column is a checkbox or an image, not a text, then the value will be an empty
-     * string.
+     * This method takes an in-memory snapshot of the column headings and of the values of all cells of the table.
+     * The table is read with a single script execution in the browser, and the snapshot indexes every column so
+     * that the items of the table can be looked up without any further WebDriver calls.
      * <p>
-     * <b><u>NOTE:</u></b>  The table is first checked if it exists before interacting with it.
-     * If the table does not exist, an error is logged and the test will stop.     *
+     * The snapshot does not change when the table changes; take a new snapshot after the table is refreshed.
+     *
+     * @return  a {@link TableSnapshot} of the table
+     */
+    public TableSnapshot getSnapshot() {
+        TableSnapshot returnValue;
 
+        if (this.isStubbed()) {
+            returnValue = new TableSnapshot(new String[] { "COLUMN" }, new ArrayList<String[]>());
+            log("Table::getSnapshot === The table's table query is currently stubbed out.  Returning an empty snapshot. ===");
+        } else {
+            try {
+                Map<String, Object> tableData = readTable();
+                List<Object> columns = ElementUtil.scriptResult(tableData.get("columns"));
+
+                String[] headings = new String[columns.size()];
+                for (int j = 0; j < headings.length; j++) {
+                    headings[j] = String.valueOf(columns.get(j));
+                }
+
+                returnValue = new TableSnapshot(headings, toRowList(tableData));
+            } catch (StaleElementReferenceException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                warning("Table::getSnapshot -- unable to read the table with a script, reading it cell by cell instead. " + e.getMessage());
+                returnValue = new TableSnapshot(getColumnHeadingsList(), getAllRows_original());
+            }
+        }
+
+        return returnValue;
+    }
+
+    /**
+     * This method returns an list of String array of values in each column for all rows in the table, reading
+     * the table cell by cell.  It is the implementation of {@link #getAllRows()} used when the table cannot be
+     * read with a script.
+     *
      * @return              an list of String array with all the values for all the rows
      * @author Craig Yara
      */
-
-    public ArrayList<String[]> getAllRows () {
+    protected ArrayList<String[]> getAllRows_original () {
         // PROCEDURE:
         //      to maximize performance for tables with potentially thousands of items, this routine will
         // fetch ALL column <TD> table data in one single browser grab, and then place them into the returning array
@@ -2239,43 +2591,30 @@ public class Table extends BaseElement {
         //
 
         // declaring local variables
-        int totalRows;
-        int columnCount;
-
-        WebElement row;
-        List<WebElement> columnElements;
         String[] returnValue = {};
         ArrayList<String[]> returnList = new ArrayList<String[]>();
-        String iconValue;
-        int MAXINDEXRETRIES=5;
 
         if (this.isStubbed()) {
             returnValue = new String[] {"One", "Two"};
             log("Table::getAllRows === The table's table query is currently stubbed out.  Returning a String array with 2 items. ===");
         } else {
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-
-            boolean done = false;
-            int retries = 0;
-            int indexretries=0;
+            // waiting for the page to settle here, because sometimes when the table is refreshing, some values
+            // within the row are '--'
+            PageQuiescence.settle(1000);
 
-            int indexColumn = 0;
-
-            // adding a sleep here, because sometimes when the table is refreshing, some values within the row
-            // are '--'
-            sleep(1, TimeUnit.SECONDS);
-
-            while(!done) {
-                try {
-                    totalRows = this.getRowCount();
-                    columnCount = this.getColumnCount();
-                    returnList = new ArrayList<String[]>();
-                    indexColumn = 0;
+            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
+            //     this the retry policy will catch the stale element and try again.  A right pane Details table can
+            //     also be redrawn because of timing delays, which results in unexpected index failures; these are
+            //     retried too
+            returnList = RetryPolicy.CHANGING_LIST.call("Table::getAllRows", new RetryPolicy.Attempt<ArrayList<String[]>>() {
+                public ArrayList<String[]> run() {
+                    int totalRows = getRowCount();
+                    int columnCount = getColumnCount();
+                    ArrayList<String[]> returnList = new ArrayList<String[]>();
+                    int indexColumn = 0;
 
                     // get all the table column <TD> elements in one huge grab
-                    columnElements = getColumnElements();
-
+                    List<WebElement> columnElements = getColumnElements();
 
                     // tables might be empty.  Check for this.
                     if (columnElements.size() != 0) {
@@ -2288,7 +2627,7 @@ public class Table extends BaseElement {
 
                                 // find the column elements of this row
 
-                                returnValue = new String[columnCount];
+                                String[] returnValue = new String[columnCount];
 
                                 // since we know how many columns there are in the table (columnCount),
                                 // we will simply take the next set of column values and add them to our
@@ -2297,10 +2636,9 @@ public class Table extends BaseElement {
 
                                     returnValue[j] = columnElements.get(indexColumn).getText();
 
-
                                     //if it is an empty string, it may contain an icon.
                                     if (returnValue[j].equals("")) {
-                                        iconValue = getIconValue(columnElements.get(indexColumn));
+                                        String iconValue = getIconValue(columnElements.get(indexColumn));
                                         if (!iconValue.isEmpty())
                                             returnValue[j] = iconValue;
                                     }
@@ -2317,37 +2655,9 @@ public class Table extends BaseElement {
 
                     } // end if <TD> list is 0
 
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-                    sleep (3, TimeUnit.SECONDS);
-
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
-                } catch (IndexOutOfBoundsException e) {
-
-                    // sometimes a right pane Details table object can end up getting redrawn because
-                    // of timing delays.  This can result in unexpected index failures.  If this happens,
-                    // restart.
-                    indexretries++;
-                    sleep (3, TimeUnit.SECONDS);
-                    // have we tried the maximum retries?
-                    if (indexretries == MAXINDEXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  IndexOutOfBoundsException Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return returnList;
                 }
-            }
+            });
         }
 
         return returnList;
@@ -2363,18 +2673,15 @@ public class Table extends BaseElement {
      * @return  a list of {@link WebElement} instances representing the columns of the table
      */
     protected List<WebElement> getColumnElements() {
-        WebElement tableElement = null;
-
-        if (ElementUtil.hasCSSClass(getWebElement(),"dataTables_wrapper")){
-            tableElement = getWebElement().findElement(By.cssSelector(".dataTables_scrollBody > table"));
-        }
-        else{
-            // getting the table web element with the default timeout
-            tableElement = getWebElement();
-        }
+        List<WebElement> rowElements;
 
         // get the row web elements of the table
-        List<WebElement> rowElements = tableElement.findElements(By.xpath("tbody/tr/td"));
+        try {
+            rowElements = getStructure().bodyTable.findElements(By.xpath("tbody/tr/td"));
+        } catch (StaleElementReferenceException e) {
+            // the table has been rebuilt since its structure was detected
+            rowElements = detectStructure().bodyTable.findElements(By.xpath("tbody/tr/td"));
+        }
 
         return rowElements;
     }
@@ -2730,10 +3037,7 @@ public class Table extends BaseElement {
         boolean itemFound = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "isColumnDataAppearForItemInTable");
 
         if (this.isStubbed()) {
             log("Table::isColumnDataAppearForItemInTable === The table's table query is currently stubbed out. ===");
@@ -2778,6 +3082,7 @@ public class Table extends BaseElement {
         }
 
 
+        operation.stop();
         return itemFound;
     }
 
@@ -2826,10 +3131,7 @@ public class Table extends BaseElement {
         boolean itemFound = false;
         boolean done = false;
         long startTime;
-        Stopwatch stopwatch = null;
-        if (LOG_PERFORMANCE) {
-            stopwatch = Stopwatch.createStarted();
-        }
+        Instrumentation.Operation operation = Instrumentation.start(this, "isColumnDataAppearForItemInTable");
 
         if (this.isStubbed()) {
             log("Table::isColumnDataAppearForItemInTable === The table's table query is currently stubbed out. ===");
@@ -2874,6 +3176,7 @@ public class Table extends BaseElement {
         }
 
 
+        operation.stop();
         return itemFound;
     }
 
@@ -2891,54 +3194,17 @@ public class Table extends BaseElement {
     public int getRowForItemNameAndSystem (String itemName, String columnNameForItem,
                                            String systemName, String systemColumnHeaderName)
     {
-        // TODO: adjust so that it is timer based
-
         int returnValue = 0;
 
-        List headerlist = Arrays.asList(this.getColumnHeadingsList());
-        // declaring local variables
-        String [] ssmcUIRow;
-        List headerList;
-        String currentItemName, currentSystemName;
-
-
-        headerList = Arrays.asList(this.getColumnHeadingsList());
-
         if (this.isStubbed()) {
             log("Table::isColumnDataAppearForItemInTable === The table's table query is currently stubbed out. ===");
             returnValue = 0;
         }
         else {
-            ArrayList <String[]> entireSSMCTable = this.getAllRows();
-            int ssmcRowCount = entireSSMCTable.size();
-
-            for(int i=0;i<ssmcRowCount;i++) {
-
-
-                //Get the SSMC UI values
-                ssmcUIRow = entireSSMCTable.get(i);  // GET THE ENTIRE ROW , ARRAY OF STRINGS
-                currentItemName = ssmcUIRow[headerList.indexOf(columnNameForItem)];
-                currentSystemName = ssmcUIRow[headerList.indexOf(systemColumnHeaderName)];
-
-                // strip off the "(xx)" string if any.  e.g.  "MyVolume (1)"
-                if (currentItemName.contains("("))
-                {
-                    int pos = currentItemName.indexOf("(");
-                    currentItemName = currentItemName.substring(0, pos).trim();
-                }
-
-                if (currentItemName.equals(itemName) && (currentSystemName.equals(systemName)))
-                {
-                    returnValue = i+1;
-                    break;
-
-                }
-
-            }
-
+            // read the whole table in one round trip and look the item and the system up in memory
+            returnValue = getSnapshot().getRowForItemNameAndSystem(itemName, columnNameForItem, systemName, systemColumnHeaderName);
         }
 
-
         return returnValue;
     }
 
@@ -3003,60 +3269,21 @@ public class Table extends BaseElement {
      */
     public int getRowContainingAllColumnValues (String columnValues [])
     {
-        // TODO: adjust so that it is timer based
-
         int returnValue = 0;
 
-        //List headerlist = Arrays.asList(this.getColumnHeadingsList());
-        // declaring local variables
-        String [] ssmcUIRow;
-        List headerList;
-        String currentItemName, currentSystemName;
-        List<String> myList = new ArrayList<String>();
-        int x;
-
-        boolean allValuesGood;
-
-
         if (this.isStubbed()) {
             log("Table::isColumnDataAppearForItemInTable === The table's table query is currently stubbed out. ===");
             returnValue = 0;
         }
         else {
-            ArrayList <String[]> entireSSMCTable = this.getAllRows();
-            int ssmcRowCount = entireSSMCTable.size();
-
-            for(int i=0;i<ssmcRowCount;i++) {
-
-
-                //Get the SSMC UI values
-                ssmcUIRow = entireSSMCTable.get(i);  // GET THE ENTIRE ROW , ARRAY OF STRINGS
-
-                myList = Arrays.asList(ssmcUIRow);
-
-                allValuesGood = true;
-
-                for (x=0; x<columnValues.length; x++)
-                {
-                    if ((myList.indexOf(columnValues[x]) == -1))
-                    {
-                        allValuesGood= false;
-                    }
-                }
-
-                if (allValuesGood)
-
-                {
-                    returnValue = i+1;
-                    break;
-
-                }
-
+            // filter the rows inside the browser, stopping at the first row holding all the values
+            TableQuery query = query();
+            for (String columnValue : columnValues) {
+                query.whereAnyColumn(TableQuery.equalTo(columnValue));
             }
-
+            returnValue = query.findFirstRow();
         }
 
-
         return returnValue;
     }
 
@@ -3218,14 +3445,20 @@ public class Table extends BaseElement {
     public ArrayList<String> getListOfselectedRow(){
 
         ArrayList<String> listOfSelectedRow = new ArrayList();
-        for(int i=1;i<=getRowCount();i++){
-            if(isRowSelected(i)){
-                log("Row with index "+i+" is selected");
-                listOfSelectedRow.add(String.valueOf(i));
+
+        if (this.isStubbed()) {
+            log("Table::getListOfselectedRow === The table's table query is currently stubbed out. ===");
+        } else {
+            // read the selected rows of the whole table with a single script execution
+            Map<String, Object> selection = runTableScript(TableScripts.SELECTED_ROWS, 1, null, 0);
+            for (Object row : ElementUtil.<List<Object>>scriptResult(selection.get("rows"))) {
+                log("Row with index "+row+" is selected");
+                listOfSelectedRow.add(String.valueOf(row));
             }
         }
         return listOfSelectedRow;
     }
+
     /**
      * This method clicks on the load more button in the table
      *
@@ -3405,7 +3638,7 @@ public class Table extends BaseElement {
         // set start time
         while (done == false) {
             try {
-                webElement = browser.getDriver().findElement(By.cssSelector(".dataTables_scrollBody > table > tbody > .hp-selected"));
+                webElement = browser().getDriver().findElement(By.cssSelector(".dataTables_scrollBody > table > tbody > .hp-selected"));
                 // good, object no longer is there
                 itemFound = true;
                 done = true;
@@ -3447,7 +3680,7 @@ public class Table extends BaseElement {
         // set start time
         while (done == false) {
             try {
-                webElement = browser.getDriver().findElement(By.cssSelector(".dataTables_scrollBody > table > tbody > .hp-selected"));
+                webElement = browser().getDriver().findElement(By.cssSelector(".dataTables_scrollBody > table > tbody > .hp-selected"));
                 // good, object no longer is there
 
 
@@ -3502,7 +3735,7 @@ public class Table extends BaseElement {
         int indexColumnTo = this.getColumnIndex(columnDestination);
         WebElement columnHeadingFromElement = getColumnHeadingElements().get(indexColumnFrom-1);
         WebElement columnHeadingToElement = getColumnHeadingElements().get(indexColumnTo-1);
-        (new Actions(browser.getDriver()))
+        (new Actions(browser().getDriver()))
                 .dragAndDrop(columnHeadingFromElement, columnHeadingToElement).perform();
     }
 
@@ -3521,13 +3754,24 @@ public class Table extends BaseElement {
     private List<WebElement> getAllElementsFromFooterTable() {
         List<WebElement> headingElements = null;
         WebElement tableElement = null;
+        TableStructure tableStructure = getStructure();
 
-        if (ElementUtil.hasCSSClass(getWebElement(),"dataTables_wrapper")){
-            tableElement = getWebElement().findElement(By.cssSelector(".dataTables_scrollFootInner > table"));
-        }
-        else{
-            // getting the table web element with the default timeout
-            tableElement = getWebElement();
+        try {
+            if (tableStructure.scrollTable) {
+                tableElement = tableStructure.tableElement.findElement(By.cssSelector(".dataTables_scrollFootInner > table"));
+            } else {
+                tableElement = tableStructure.tableElement;
+            }
+            // make sure the element is still attached to the page
+            tableElement.getTagName();
+        } catch (StaleElementReferenceException e) {
+            // the table has been rebuilt since its structure was detected
+            tableStructure = detectStructure();
+            if (tableStructure.scrollTable) {
+                tableElement = tableStructure.tableElement.findElement(By.cssSelector(".dataTables_scrollFootInner > table"));
+            } else {
+                tableElement = tableStructure.tableElement;
+            }
         }
         // Check the CSS classes of this web element to determine
         // if this is a Piano hp-master-table
@@ -3604,34 +3848,17 @@ public class Table extends BaseElement {
             log("=== The table's headings query is currently stubbed out.  Returning a value '" + returnValue + "' ===");
         } else {
             // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-
-            while (!done) {
-                try {
-
+            //     this the retry policy will catch the stale element and try again
+            returnValue = RetryPolicy.STALE_ELEMENT.call("Table::getAllValuesFromFooterTable", new RetryPolicy.Attempt<String[]>() {
+                public String[] run() {
                     // getting the table web element with the default timeout
                     // and then get its headings elements
                     List<WebElement> headingElements = getAllElementsFromFooterTable();
 
                     // get and trim the text of the heading elements
-                    returnValue = ElementUtil.getText(headingElements, true);
-
-                    done = true;
-                } catch(StaleElementReferenceException e){
-                    retries++;
-
-                    // have we tried the maximum retries?
-                    if (retries == MAXRETRIES) {
-                        done = true;
-
-                        warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
-                    }
+                    return ElementUtil.getText(headingElements, true);
                 }
-            }
+            });
         }
 
         return returnValue;
@@ -3652,20 +3879,26 @@ public class Table extends BaseElement {
     public int getTotalValueOfColumnFromFooterTable (String columnName) {
         // declaring local variables
         String returnValue;
-        int columnIndex=getColumnIndex(columnName);
         int val=0;
-        if((columnIndex < 1) || (columnIndex > getAllElementsFromFooterTable().size())){
-            throw new NoSuchElementException("No such column index, '" + columnIndex + "', within the column elements - '" + getAllElementsFromFooterTable().size() + "'");
-        }
 
         if (this.isStubbed()) {
             returnValue = "VALUE";
             log("=== The table's headings query is currently stubbed out.  Returning a value '" + returnValue + "' ===");
         } else {
-            // getting the table web element with the default timeout
-            // and then get the specified column heading element
+            final int columnIndex=getColumnIndex(columnName);
 
-            String stringVal=getAllValuesFromFooterTable()[columnIndex-1];
+            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
+            //     this the retry policy will catch the stale element and try again
+            String stringVal = RetryPolicy.STALE_ELEMENT.call("Table::getTotalValueOfColumnFromFooterTable", new RetryPolicy.Attempt<String>() {
+                public String run() {
+                    // getting the footer cell elements, and then only the text of the specified one
+                    List<WebElement> footerElements = getAllElementsFromFooterTable();
+                    if((columnIndex < 1) || (columnIndex > footerElements.size())){
+                        throw new NoSuchElementException("No such column index, '" + columnIndex + "', within the column elements - '" + footerElements.size() + "'");
+                    }
+                    return footerElements.get(columnIndex-1).getText().trim();
+                }
+            });
             log("StringValue: "+stringVal);
 
             if(stringVal.equals("")){
@@ -3678,6 +3911,64 @@ public class Table extends BaseElement {
         return val;
     }
 
+    /**
+     * This method computes an aggregate of the values of a column of the table, e.g. the total capacity of
+     * the volumes listed in the table.  The aggregate is computed inside the browser with a single script
+     * execution, so only the result is transferred, whatever the size of the table.
+     * <p>
+     * SUM, MIN and MAX use the numeric values of the column: numbers with or without thousands separators
+     * ("1,024"), percentages ("45%" counts as 45), and capacities in KiB, MiB, GiB, TiB or PiB, which are
+     * converted to GiB ("2 TiB" counts as 2048).  Other values, e.g. "--", are ignored.  COUNT and
+     * DISTINCT_COUNT count the values that are neither empty nor "--".
+     *
+     * @param columnIndex  [INT] the column to aggregate. It starts with index 1.
+     * @param aggregate    the aggregate to compute
+     * @return             the aggregate; 0 for a SUM or a count with no values, {@link Double#NaN} for a MIN
+     *                     or a MAX with no values
+     */
+    public double aggregateColumn (int columnIndex, Aggregate aggregate) {
+        double returnValue = 0;
+        Instrumentation.Operation operation = Instrumentation.start(this, "aggregateColumn");
+
+        if (this.isStubbed()) {
+            log("Table::aggregateColumn === The table's table query is currently stubbed out.  Returning value '" + returnValue + "' ===");
+        } else {
+            // Make sure the column index is valid.
+            if (columnIndex < 1) {
+                throw new NoSuchElementException("Table::aggregateColumn -- Invalid column index, " + columnIndex);
+            }
+
+            Map<String, Object> result = runTableScript(TableScripts.AGGREGATE, columnIndex, aggregate.name());
+            Object value = result.get("value");
+            returnValue = (value == null) ? Double.NaN : ((Number) value).doubleValue();
+        }
+
+        operation.stop();
+        return returnValue;
+    }
+
+    /**
+     * This method computes an aggregate of the values of a column of the table.
+     * See {@link #aggregateColumn(int, Aggregate)}.
+     *
+     * @param columnHeading  [STRING] the heading of the column to aggregate
+     * @param aggregate      the aggregate to compute
+     * @return               the aggregate
+     * @throws NoSuchElementException if the table has no such column
+     */
+    public double aggregateColumn (String columnHeading, Aggregate aggregate) {
+        if (this.isStubbed()) {
+            return aggregateColumn(1, aggregate);
+        }
+
+        int columnIndex = this.getColumnIndex(columnHeading);
+        if (columnIndex < 1) {
+            throw new NoSuchElementException("Table::aggregateColumn -- No such column, '" + columnHeading + "'");
+        }
+        return aggregateColumn(columnIndex, aggregate);
+    }
+
+
     /**
      * This function lists the activities which contains the itemName(Activity Name) in the given column Index
      * @param itemName
@@ -3685,8 +3976,7 @@ public class Table extends BaseElement {
      * @return
      */
     public ArrayList<String> findItemsInColumn (String itemName, int columnIndex){
-        ArrayList<String> returnValue ;
-        String temp, itemWithoutParenthese;
+        ArrayList<String> returnValue = null;
 
         if (this.isStubbed()) {
             log("Table::selectRow === The table's table query is currently stubbed out. ===");
@@ -3697,74 +3987,14 @@ public class Table extends BaseElement {
                 throw new NoSuchElementException("Table::findItemInColumn -- Invalid column index, " + columnIndex);
             }
 
-            // if the table refreshed while we are getting values, then a stale element is being thrown. To get around
-            //     this will catch the stale element and try again
-            boolean done = false;
-            int retries = 0;
-            returnValue = new ArrayList<String>();
-            int index =0;
-//            while (!done) {
-            try {
-                // getting the table web element with the default timeout
-                // and then get all of the row elements
-                List<WebElement> rowElements = getRowElements();
-
-                // get the row count
-                int rowCount = rowElements.size();
-
-                // for each row, check the text of the specified column
-
-                boolean found = false;
-                for (int i = 0; i < rowCount; i++) {
-                    WebElement row = rowElements.get(i);
-
-                    // get the specified column element of this row
-                    WebElement column;
-                    try {
-                        column = row.findElement(By.xpath("td[" + columnIndex + "]"));
-                    } catch (NoSuchElementException e) {
-                        // This row does not have this column; skip it.
-                        // It occurs when an empty table has a row showing "No data".
-                        continue;
-                    }
-
-                    // check the column text with the itemName -- if the same, then this is the row
-                    // the user wants
-                    temp = column.getText();
-                    itemWithoutParenthese = temp;
-                    if (temp.contains("(") && (itemName.contains("(") == false)) {
-                        itemWithoutParenthese = temp.substring(0, temp.indexOf("(")).trim();
-                    }
-                    if (itemWithoutParenthese.contains(itemName)) {
-
-                        returnValue.add(index++, itemWithoutParenthese);
-
-                        // get out of for loop
-//                            i = rowCount;
-
-//                            found = true;
-                    }
-                }
-                if( returnValue.size() ==0)
-                    found =true;
-                if(found){
-                    returnValue = null;
-                }
-                done = true;
-
-            }  catch(StaleElementReferenceException e){
-                retries++;
-
-                // have we tried the maximum retries?
-                if (retries == MAXRETRIES) {
-                    done = true;
-
-                    warning("ERROR!  StaleElementReference Exception - " + e.getMessage());
-                    e.printStackTrace();
-                    throw e;
+            // filter the rows inside the browser and only get the values of the matching ones
+            ArrayList<String[]> rows = query().where(columnIndex, TableQuery.nameContains(itemName)).select(columnIndex).getRows();
+            if (rows.size() > 0) {
+                returnValue = new ArrayList<String>();
+                for (String[] row : rows) {
+                    returnValue.add(itemName.contains("(") ? row[0] : TableSnapshot.removeParentheses(row[0]));
                 }
             }
-//            }
         }
 
         return returnValue;
@@ -3800,4 +4030,34 @@ public class Table extends BaseElement {
     }
 
 
+    /**
+     * This class holds the structure of a table, as detected by {@link Table#detectStructure()}: which elements
+     * hold the rows and the headings of the table, and where the headings are within their table.
+     */
+    protected static final class TableStructure {
+        // the element located by the table's locator
+        final WebElement tableElement;
+        // true for structure #2, i.e. when tableElement is the <div class="dataTables_wrapper">
+        boolean scrollTable = false;
+        // the <table> element holding the rows
+        WebElement bodyTable;
+        // the <table> element holding the headings
+        WebElement headerTable;
+        // the CSS classes of the header table
+        boolean masterTable = false;
+        boolean dataTable = false;
+        // the XPath, relative to the header table, that found the headings; null until they are found
+        String headingXPath = null;
+        // the browser the structure was detected in, and its navigation count then
+        final Browser browser;
+        final int navigationCount;
+
+        TableStructure(WebElement tableElement) {
+            this.browser = browser();
+            this.navigationCount = this.browser.getNavigationCount();
+            this.tableElement = tableElement;
+            this.bodyTable = tableElement;
+            this.headerTable = tableElement;
+        }
+    }
 }
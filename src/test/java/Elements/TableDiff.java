@@ -0,0 +1,116 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class holds the differences between two versions of a {@link TableView}, as returned by
+ * {@link Table#refreshView(TableView)}: the keys of the rows that were added to the table, removed from it,
+ * or whose values changed, along with the updated view.
+ */
+public class TableDiff {
+
+    // - - - - - Class attributes - - - - -
+
+    private final TableView previousView;
+    private final TableView view;
+    private final List<String> addedKeys = new ArrayList<String>();
+    private final List<String> removedKeys = new ArrayList<String>();
+    private final List<String> changedKeys = new ArrayList<String>();
+
+
+    // - - - - - Constructor - - - - -
+
+    /**
+     * Constructor used by the {@link Table} class.
+     *
+     * @param previousView  the view before the refresh
+     * @param view          the view after the refresh
+     */
+    TableDiff(TableView previousView, TableView view) {
+        this.previousView = previousView;
+        this.view = view;
+
+        if (view != previousView) {
+            Set<String> previousKeys = new HashSet<String>(previousView.getKeys());
+            Set<String> keys = new HashSet<String>(view.getKeys());
+
+            for (String key : view.getKeys()) {
+                if (!previousKeys.contains(key)) {
+                    this.addedKeys.add(key);
+                } else if (!view.getHashes().get(key).equals(previousView.getHashes().get(key))) {
+                    this.changedKeys.add(key);
+                }
+            }
+            for (String key : previousView.getKeys()) {
+                if (!keys.contains(key)) {
+                    this.removedKeys.add(key);
+                }
+            }
+        }
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method returns the updated view of the table.
+     *
+     * @return  the view after the refresh; the same view as before if the table did not change
+     */
+    public TableView getView() {
+        return this.view;
+    }
+
+    /**
+     * This method returns the view of the table before the refresh.
+     *
+     * @return  the view before the refresh
+     */
+    public TableView getPreviousView() {
+        return this.previousView;
+    }
+
+    /**
+     * This method checks whether any row was added, removed or changed.
+     *
+     * @return  {@code true} if the rows of the table changed; {@code false} otherwise
+     */
+    public boolean hasChanges() {
+        return !this.addedKeys.isEmpty() || !this.removedKeys.isEmpty() || !this.changedKeys.isEmpty();
+    }
+
+    /**
+     * This method returns the keys of the rows added to the table, in table order.
+     *
+     * @return  a list of keys; empty if no row was added
+     */
+    public List<String> getAddedKeys() {
+        return Collections.unmodifiableList(this.addedKeys);
+    }
+
+    /**
+     * This method returns the keys of the rows removed from the table, in their previous order.
+     *
+     * @return  a list of keys; empty if no row was removed
+     */
+    public List<String> getRemovedKeys() {
+        return Collections.unmodifiableList(this.removedKeys);
+    }
+
+    /**
+     * This method returns the keys of the rows whose values changed, in table order.
+     *
+     * @return  a list of keys; empty if no row changed
+     */
+    public List<String> getChangedKeys() {
+        return Collections.unmodifiableList(this.changedKeys);
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.NoSuchElementException;
+
+import static Helpers.Utility.log;
+
+/**
+ * This class builds a query on the rows of a {@link Table}, created with {@link Table#query()}.  The query is
+ * compiled into the arguments of a script (see {@link TableScripts#QUERY}) that filters the rows inside the
+ * browser, so only the indexes and the requested values of the matching rows are transferred:
+ * <pre>
+ *   ArrayList&lt;String[]&gt; volumes = volumesTable.query()
+ *           .where("Provisioning", TableQuery.equalTo("Thin"))
+ *           .and("Used", TableQuery.greaterThan(80))
+ *           .or("Name", TableQuery.matches("^temp_"))
+ *           .select("Name", "Used")
+ *           .getRows();
+ * </pre>
+ * {@link #and} adds a condition to the current alternative, and {@link #or} starts a new one; a row matches the
+ * query if all the conditions of one of the alternatives hold.  So the query above returns the thin volumes that
+ * are more than 80% used, and the volumes whose names start with "temp_".  A query without conditions matches
+ * all rows.
+ * <p>
+ * Numeric conditions use the numbers in the cells: numbers with or without thousands separators, percentages
+ * ("45%" is 45), and capacities in KiB, MiB, GiB, TiB or PiB, which are converted to GiB ("2 TiB" is 2048).
+ * Cells that do not hold a number, e.g. "--", do not match numeric conditions.
+ * <p>
+ * Like the {@link Table} class, rows and columns start with index 1.
+ */
+public class TableQuery {
+
+    /**
+     * A condition on the value of a cell, created with the static methods of {@link TableQuery}.
+     */
+    public static final class Predicate {
+        private final String op;
+        private final Object value;
+
+        private Predicate(String op, Object value) {
+            this.op = op;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return this.op + " '" + this.value + "'";
+        }
+    }
+
+
+    // - - - - - Class attributes - - - - -
+
+    private final Table table;
+    // the alternatives of the query; each of them is the list of the conditions that must all hold
+    private final List<List<Map<String, Object>>> alternatives = new ArrayList<List<Map<String, Object>>>();
+    // the columns to return; empty for all columns
+    private final List<Integer> selectedColumns = new ArrayList<Integer>();
+
+
+    // - - - - - Constructor - - - - -
+
+    TableQuery(Table table) {
+        this.table = table;
+    }
+
+
+    // - - - - - Predicates - - - - -
+
+    /** The cell value equals the specified text. */
+    public static Predicate equalTo(String text) {
+        return new Predicate("EQUALS", text);
+    }
+
+    /** The cell value equals the specified text, ignoring case. */
+    public static Predicate equalToIgnoreCase(String text) {
+        return new Predicate("EQUALS_IGNORE_CASE", text);
+    }
+
+    /** The cell value contains the specified text. */
+    public static Predicate contains(String text) {
+        return new Predicate("CONTAINS", text);
+    }
+
+    /** The cell value matches the specified JavaScript regular expression, anywhere in the value. */
+    public static Predicate matches(String regex) {
+        return new Predicate("MATCHES", regex);
+    }
+
+    /**
+     * The cell value equals the specified item name, as in {@link Table#findItemInColumn(String, int)}: unless
+     * the item name has parentheses, the "(...)" suffix of the value is ignored.
+     */
+    public static Predicate nameEqualTo(String itemName) {
+        return new Predicate("NAME_EQUALS", itemName);
+    }
+
+    /**
+     * The cell value contains the specified item name, as in {@link Table#findItemsInColumn(String, int)}: unless
+     * the item name has parentheses, the "(...)" suffix of the value is ignored.
+     */
+    public static Predicate nameContains(String itemName) {
+        return new Predicate("NAME_CONTAINS", itemName);
+    }
+
+    /** The cell value is a number equal to the specified number. */
+    public static Predicate numberEqualTo(double number) {
+        return new Predicate("NUMBER_EQUALS", number);
+    }
+
+    /** The cell value is a number less than the specified number. */
+    public static Predicate lessThan(double number) {
+        return new Predicate("LT", number);
+    }
+
+    /** The cell value is a number less than or equal to the specified number. */
+    public static Predicate atMost(double number) {
+        return new Predicate("LE", number);
+    }
+
+    /** The cell value is a number greater than the specified number. */
+    public static Predicate greaterThan(double number) {
+        return new Predicate("GT", number);
+    }
+
+    /** The cell value is a number greater than or equal to the specified number. */
+    public static Predicate atLeast(double number) {
+        return new Predicate("GE", number);
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method adds the first condition of the query.  It is the same as {@link #and(int, Predicate)}.
+     *
+     * @param columnIndex  [INT] the column of the condition. It starts with index 1.
+     * @param predicate    the condition on the value of the column
+     * @return             this query
+     */
+    public TableQuery where(int columnIndex, Predicate predicate) {
+        return and(columnIndex, predicate);
+    }
+
+    /**
+     * This method adds the first condition of the query.  It is the same as {@link #and(String, Predicate)}.
+     *
+     * @param columnHeading  [STRING] the heading of the column of the condition
+     * @param predicate      the condition on the value of the column
+     * @return               this query
+     */
+    public TableQuery where(String columnHeading, Predicate predicate) {
+        return and(columnHeading, predicate);
+    }
+
+    /**
+     * This method adds a condition that must hold in at least one column of the row.
+     *
+     * @param predicate  the condition on the value of a column
+     * @return           this query
+     */
+    public TableQuery whereAnyColumn(Predicate predicate) {
+        return addCondition(0, predicate, false);
+    }
+
+    /**
+     * This method adds a condition to the current alternative of the query.
+     *
+     * @param columnIndex  [INT] the column of the condition. It starts with index 1.
+     * @param predicate    the condition on the value of the column
+     * @return             this query
+     */
+    public TableQuery and(int columnIndex, Predicate predicate) {
+        return addCondition(checkColumn(columnIndex), predicate, false);
+    }
+
+    /**
+     * This method adds a condition to the current alternative of the query.
+     *
+     * @param columnHeading  [STRING] the heading of the column of the condition
+     * @param predicate      the condition on the value of the column
+     * @return               this query
+     */
+    public TableQuery and(String columnHeading, Predicate predicate) {
+        return addCondition(columnIndexOf(columnHeading), predicate, false);
+    }
+
+    /**
+     * This method starts a new alternative of the query with a condition.
+     *
+     * @param columnIndex  [INT] the column of the condition. It starts with index 1.
+     * @param predicate    the condition on the value of the column
+     * @return             this query
+     */
+    public TableQuery or(int columnIndex, Predicate predicate) {
+        return addCondition(checkColumn(columnIndex), predicate, true);
+    }
+
+    /**
+     * This method starts a new alternative of the query with a condition.
+     *
+     * @param columnHeading  [STRING] the heading of the column of the condition
+     * @param predicate      the condition on the value of the column
+     * @return               this query
+     */
+    public TableQuery or(String columnHeading, Predicate predicate) {
+        return addCondition(columnIndexOf(columnHeading), predicate, true);
+    }
+
+    /**
+     * This method sets the columns whose values {@link #getRows()} returns.  By default, it returns all columns.
+     *
+     * @param columnIndexes  [INT...] the columns to return. They start with index 1.
+     * @return               this query
+     */
+    public TableQuery select(int... columnIndexes) {
+        for (int columnIndex : columnIndexes) {
+            this.selectedColumns.add(checkColumn(columnIndex));
+        }
+        return this;
+    }
+
+    /**
+     * This method sets the columns whose values {@link #getRows()} returns.  By default, it returns all columns.
+     *
+     * @param columnHeadings  [STRING...] the headings of the columns to return
+     * @return                this query
+     */
+    public TableQuery select(String... columnHeadings) {
+        for (String columnHeading : columnHeadings) {
+            this.selectedColumns.add(columnIndexOf(columnHeading));
+        }
+        return this;
+    }
+
+    /**
+     * This method runs the query and returns the indexes of the matching rows.
+     *
+     * @return  a list with the indexes of the matching rows, in table order; empty if no row matches
+     */
+    public List<Integer> findRows() {
+        return toIndexes(run(null, 0));
+    }
+
+    /**
+     * This method runs the query and returns the index of the first matching row.  The browser reads the rows one
+     * at a time, and only the cells the query needs, and stops at the first match.
+     *
+     * @return  the index of the first matching row; zero if no row matches
+     */
+    public int findFirstRow() {
+        List<Integer> rows = toIndexes(run(null, 1));
+        return rows.isEmpty() ? 0 : rows.get(0);
+    }
+
+    /**
+     * This method runs the query and returns the values of the selected columns (see {@link #select(int...)})
+     * of the matching rows.
+     *
+     * @return  a list of String arrays, one per matching row, in table order; empty if no row matches
+     */
+    public ArrayList<String[]> getRows() {
+        Map<String, Object> result = run(this.selectedColumns, 0);
+        if (result == null) {
+            return new ArrayList<String[]>();
+        }
+        return Table.toRowArrays(ElementUtil.<List<List<Object>>>scriptResult(result.get("values")));
+    }
+
+    @Override
+    public String toString() {
+        return "TableQuery" + this.alternatives + " on " + this.table.getName();
+    }
+
+    // Runs the query script; returns null if the table is stubbed.
+    private Map<String, Object> run(List<Integer> columns, int limit) {
+        if (this.table.isStubbed()) {
+            log("TableQuery === The table's table query is currently stubbed out.  No row matches. ===");
+            return null;
+        }
+        return this.table.runTableScript(TableScripts.QUERY, this.alternatives, columns, limit);
+    }
+
+    private static List<Integer> toIndexes(Map<String, Object> result) {
+        List<Integer> returnValue = new ArrayList<Integer>();
+        if (result != null) {
+            for (Object row : ElementUtil.<List<Object>>scriptResult(result.get("rows"))) {
+                returnValue.add(((Number) row).intValue());
+            }
+        }
+        return returnValue;
+    }
+
+    private TableQuery addCondition(int columnIndex, Predicate predicate, boolean newAlternative) {
+        if (newAlternative || this.alternatives.isEmpty()) {
+            this.alternatives.add(new ArrayList<Map<String, Object>>());
+        }
+
+        Map<String, Object> condition = new HashMap<String, Object>();
+        condition.put("column", columnIndex);
+        condition.put("op", predicate.op);
+        condition.put("value", predicate.value);
+        this.alternatives.get(this.alternatives.size() - 1).add(condition);
+        return this;
+    }
+
+    private static int checkColumn(int columnIndex) {
+        if (columnIndex < 1) {
+            throw new NoSuchElementException("TableQuery -- Invalid column index, " + columnIndex);
+        }
+        return columnIndex;
+    }
+
+    private int columnIndexOf(String columnHeading) {
+        if (this.table.isStubbed()) {
+            return 1;
+        }
+        int columnIndex = this.table.getColumnIndex(columnHeading);
+        if (columnIndex < 1) {
+            throw new NoSuchElementException("TableQuery -- No such column, '" + columnHeading + "'");
+        }
+        return columnIndex;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static Helpers.Utility.*;
+
+/**
+ * This class iterates over all the rows of a {@link Table}, including the rows of a paged master table that are
+ * only displayed after clicking its "Load more" link.  It is returned by {@link Table#streamRows()}.
+ * <p>
+ * The rows are read one page at a time, with a single script execution per page.  The "Load more" link is only
+ * clicked when all the rows already read have been returned by {@link #next()}.  Only the rows of the current page
+ * and the last row returned are kept, so the memory used does not depend on the size of the table.
+ * <p>
+ * The iterator reads the table as it is when {@link #hasNext()} needs a new page; it is not meant to be used while
+ * the content of the table is being changed by the test.
+ */
+public final class TableRowIterator implements Iterator<String[]> {
+
+    // the maximum number of seconds to wait for the rows loaded by the "Load more" link
+    private static final int LOADTIMEOUT = 60;
+    private static final AtomicInteger ITERATORS = new AtomicInteger();
+
+    // the property of the row element that marks the last row read by this iterator; a page is only read once all
+    // the rows of the previous one have been returned, so the last row read is the last row returned
+    private final String marker = "__hpTableRowIterator" + ITERATORS.incrementAndGet();
+
+    private final Table table;
+    // the rows read but not returned yet
+    private final ArrayDeque<String[]> pending = new ArrayDeque<String[]>();
+    // the last row returned by next(); the next page starts after it
+    private String[] lastRow = null;
+    // whether the table has a "Load more" link below the rows read so far
+    private boolean more = true;
+    private boolean started = false;
+    private int rowCount = 0;
+
+    TableRowIterator(Table table) {
+        this.table = table;
+        if (table.isStubbed()) {
+            this.started = true;
+            this.more = false;
+        }
+    }
+
+    /**
+     * This method checks whether the table has more rows.  When all the rows read so far have been returned,
+     * it clicks the "Load more" link of the table, if any, and reads the rows it loads.
+     *
+     * @return  {@code true} if the table has more rows; {@code false} otherwise
+     */
+    @Override
+    public boolean hasNext() {
+        if (this.pending.isEmpty()) {
+            if (!this.started) {
+                this.started = true;
+                readNextPage();
+            } else if (this.more) {
+                loadNextPage();
+            }
+        }
+        return !this.pending.isEmpty();
+    }
+
+    /**
+     * This method returns the next row of the table.
+     *
+     * @return  the values of the cells of the next row
+     * @throws NoSuchElementException if the table has no more rows
+     */
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("TableRowIterator::next -- No more rows in table " + this.table.getName());
+        }
+        this.lastRow = this.pending.poll();
+        this.rowCount++;
+        return this.lastRow;
+    }
+
+    /**
+     * This method returns the number of rows returned so far by {@link #next()}.
+     *
+     * @return  the number of rows returned so far; the index of the last row returned, starting with 1
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    // Clicks the "Load more" link, then waits for the rows it loads.
+    private void loadNextPage() {
+        if (!this.table.loadMoreBelow()) {
+            this.more = false;
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        while (this.pending.isEmpty() && this.more) {
+            readNextPage();
+
+            if (this.pending.isEmpty() && this.more) {
+                // the new rows are not displayed yet
+                int elapsedTime = (int) TimeUnit.SECONDS.convert((System.nanoTime() - startTime), TimeUnit.NANOSECONDS);
+                if (elapsedTime >= LOADTIMEOUT) {
+                    warning("TableRowIterator -- No rows were loaded by the 'Load more' link of table " + this.table.getName()
+                            + " after " + LOADTIMEOUT + " seconds.  Stopping after " + this.rowCount + " rows.");
+                    this.more = false;
+                } else {
+                    sleep(500, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    // Reads the rows displayed after the last row returned.
+    private void readNextPage() {
+        Map<String, Object> page = this.table.readPage(this.marker, this.lastRow);
+
+        if (!Boolean.TRUE.equals(page.get("found"))) {
+            warning("TableRowIterator -- The last row read is no longer displayed in table " + this.table.getName()
+                    + ".  Reading the displayed rows again; some rows may be returned twice.");
+        }
+
+        this.pending.addAll(Table.toRowArrays(ElementUtil.<List<List<Object>>>scriptResult(page.get("rows"))));
+        this.more = Boolean.TRUE.equals(page.get("more"));
+    }
+}
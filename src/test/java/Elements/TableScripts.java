@@ -0,0 +1,518 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+/**
+ * This class holds the JavaScript code that the {@link Table} class runs inside the browser to read a table
+ * in a single WebDriver round trip instead of one round trip per row and cell.
+ * <p>
+ * Every script expects the table web element (the element located by the table's locator) as
+ * <code>arguments[0]</code>.  The helper functions in {@link #PRELUDE} resolve the same two table structures
+ * that are described in the implementation notes of the {@link Table} class, and they mirror the Java
+ * methods {@link Table#getRowElements()}, {@link Table#getColumnHeadingElements()} and the icon value lookup
+ * of the table cells.
+ */
+final class TableScripts {
+
+    /**
+     * Helper functions shared by all table scripts.
+     */
+    static final String PRELUDE =
+            "var root = arguments[0];\n" +
+            // same check as ElementUtil.hasCSSClass()
+            "function hasClass(el, name) {\n" +
+            "  if (!el || !el.getAttribute) { return false; }\n" +
+            "  var classes = (el.getAttribute('class') || '').split(' ');\n" +
+            "  for (var i = 0; i < classes.length; i++) { if (classes[i] === name) { return true; } }\n" +
+            "  return false;\n" +
+            "}\n" +
+            // equivalent of a relative XPath made of child steps only, e.g. 'tbody/tr' -> ['tbody', 'tr']
+            "function childPath(el, tags) {\n" +
+            "  var current = el ? [el] : [];\n" +
+            "  for (var t = 0; t < tags.length; t++) {\n" +
+            "    var next = [];\n" +
+            "    for (var c = 0; c < current.length; c++) {\n" +
+            "      var kids = current[c].children;\n" +
+            "      for (var k = 0; k < kids.length; k++) {\n" +
+            "        if (kids[k].tagName.toLowerCase() === tags[t]) { next.push(kids[k]); }\n" +
+            "      }\n" +
+            "    }\n" +
+            "    current = next;\n" +
+            "  }\n" +
+            "  return current;\n" +
+            "}\n" +
+            "function bodyTable(el) {\n" +
+            "  return hasClass(el, 'dataTables_wrapper') ? el.querySelector('.dataTables_scrollBody > table') : el;\n" +
+            "}\n" +
+            "function headTable(el) {\n" +
+            "  return hasClass(el, 'dataTables_wrapper') ? el.querySelector('.dataTables_scrollHeadInner > table') : el;\n" +
+            "}\n" +
+            "function isControlRow(row, loadMoreClass) {\n" +
+            "  var name = row.className;\n" +
+            "  return name === 'hp-master-table-control' || name === 'hp-master-load' ||\n" +
+            "         name === 'hp-master-table-control ' + loadMoreClass;\n" +
+            "}\n" +
+            // same as Table.getRowElements(): drop the "Load More" rows at the top and the bottom
+            "function tableRows(el) {\n" +
+            "  var rows = childPath(bodyTable(el), ['tbody', 'tr']);\n" +
+            "  if (rows.length > 0 && isControlRow(rows[0], 'hp-master-load-more-above')) { rows.shift(); }\n" +
+            "  if (rows.length > 0 && isControlRow(rows[rows.length - 1], 'hp-master-load-more')) { rows.pop(); }\n" +
+            "  return rows;\n" +
+            "}\n" +
+            // same as Table.getColumnHeadingElements()
+            "function headingCells(el) {\n" +
+            "  var table = headTable(el);\n" +
+            "  if (!table) { return []; }\n" +
+            "  var cells = [];\n" +
+            "  if (hasClass(table, 'hp-master-table')) {\n" +
+            "    var above = table.parentNode ? table.parentNode.parentNode : null;\n" +
+            "    cells = childPath(above, ['div', 'div', 'table', 'thead', 'tr', 'td']);\n" +
+            "    if (cells.length === 0) { cells = childPath(table, ['thead', 'tr', 'td']); }\n" +
+            "    if (cells.length === 0) { cells = childPath(table, ['thead', 'tr', 'th']); }\n" +
+            "  } else if (hasClass(table, 'dataTable')) {\n" +
+            "    cells = childPath(table, ['thead', 'tr', 'td']);\n" +
+            "    if (cells.length === 0) { cells = childPath(table, ['thead', 'tr', 'th']); }\n" +
+            "  } else {\n" +
+            "    cells = childPath(table, ['thead', 'tr', 'td']);\n" +
+            "  }\n" +
+            "  return cells;\n" +
+            "}\n" +
+            // approximation of WebElement.getText(): the rendered text, empty if the element is not rendered
+            "function textOf(el) {\n" +
+            "  if (el.getClientRects().length === 0) { return ''; }\n" +
+            "  return (el.innerText || '').replace(/\\u00a0/g, ' ').replace(/[ \\t]*\\n[ \\t]*/g, '\\n').trim();\n" +
+            "}\n" +
+            // same as Table.getIconValue()
+            "function iconValue(cell) {\n" +
+            "  var status = cell.getElementsByClassName('hp-status');\n" +
+            "  if (status.length > 0) {\n" +
+            "    var classes = (status[0].getAttribute('class') || '').split(' ');\n" +
+            "    for (var i = 0; i < classes.length; i++) {\n" +
+            "      if (classes[i].indexOf('hp-status-') === 0) { return classes[i]; }\n" +
+            "    }\n" +
+            "    return '';\n" +
+            "  }\n" +
+            "  var icons = cell.getElementsByClassName('hp-icon');\n" +
+            "  if (icons.length > 0) {\n" +
+            "    var parent = icons[0].parentNode;\n" +
+            "    if (hasClass(parent, 'ssmc-hp-locate-icon')) { return 'ssmc-hp-locate-icon'; }\n" +
+            "    if (hasClass(parent, 'ssmc-hp-stoplocate-icon')) { return 'ssmc-hp-stoplocate-icon'; }\n" +
+            "    return 'Unknown icon: class=\"' + icons[0].getAttribute('class') + '\"';\n" +
+            "  }\n" +
+            "  return '';\n" +
+            "}\n" +
+            // the value of a cell as returned by Table.getAllRows(): its text, or its icon value if it has no text
+            "function cellValue(cell) {\n" +
+            "  var value = textOf(cell);\n" +
+            "  return value === '' ? iconValue(cell) : value;\n" +
+            "}\n" +
+            // the cells of the rows, without their values, so that a script can read only the cells it needs: a table
+            // whose rows hold fewer cells than there are columns (e.g. a single "No data available" row) is treated
+            // as an empty table, like Table.getAllRows() does
+            "function rowCells(rows, columnCount) {\n" +
+            "  var cells = [], cellCount = 0;\n" +
+            "  for (var r = 0; r < rows.length; r++) { cells.push(childPath(rows[r], ['td'])); cellCount += cells[r].length; }\n" +
+            "  return (cellCount > 0 && cellCount >= columnCount) ? cells : [];\n" +
+            "}\n" +
+            // the value of the 0-based column of a row of cells; a missing cell is empty
+            "function valueAt(cells, column) {\n" +
+            "  return column < cells.length ? cellValue(cells[column]) : '';\n" +
+            "}\n" +
+            // the values of the rows, as returned by Table.getAllRows()
+            "function rowValues(rows, columnCount) {\n" +
+            "  var cells = rowCells(rows, columnCount), values = [];\n" +
+            "  for (var r = 0; r < cells.length; r++) {\n" +
+            "    var row = [];\n" +
+            "    for (var c = 0; c < columnCount; c++) { row.push(valueAt(cells[r], c)); }\n" +
+            "    values.push(row);\n" +
+            "  }\n" +
+            "  return values;\n" +
+            "}\n" +
+            // the number in a cell: a number with or without thousands separators, a percentage (45% is 45), or a
+            // capacity in KiB, MiB, GiB, TiB or PiB converted to GiB; null if the cell does not hold a number
+            "var GIB = { 'KIB': 1 / 1048576, 'MIB': 1 / 1024, 'GIB': 1, 'TIB': 1024, 'PIB': 1048576 };\n" +
+            "function numberOf(text) {\n" +
+            "  var match = /^(-?[0-9,]*\\.?[0-9]+)\\s*(%|[KMGTP]iB)?$/i.exec(text);\n" +
+            "  if (!match) { return null; }\n" +
+            "  var number = parseFloat(match[1].replace(/,/g, ''));\n" +
+            "  if (match[2] && match[2] !== '%') { number = number * GIB[match[2].toUpperCase()]; }\n" +
+            "  return isNaN(number) ? null : number;\n" +
+            "}\n" +
+            // same as TableSnapshot.removeParentheses(): the item name without its "(...)" suffix
+            "function nameOf(text) {\n" +
+            "  return text.indexOf('(') >= 0 ? text.substring(0, text.indexOf('(')).trim() : text;\n" +
+            "}\n" +
+            "function headingTexts(el) {\n" +
+            "  var cells = headingCells(el);\n" +
+            "  var texts = [];\n" +
+            "  for (var i = 0; i < cells.length; i++) { texts.push(textOf(cells[i]).replace(/\\n/g, ' ').trim()); }\n" +
+            "  return texts;\n" +
+            "}\n";
+
+    /**
+     * Returns an object with the column headings (<code>columns</code>) and the values of all cells of all rows
+     * (<code>rows</code>) of the table.  Like {@link Table#getAllRows()}, a table whose rows hold fewer cells
+     * than there are columns (e.g. a single "No data available" row) is treated as an empty table.
+     */
+    static final String READ_ALL =
+            PRELUDE +
+            "var columns = headingTexts(root);\n" +
+            "return { columns: columns, rows: rowValues(tableRows(root), columns.length) };\n";
+
+    /**
+     * Returns an object with the values of the rows currently displayed after a given row (<code>rows</code>),
+     * and whether the table has a "Load more" link below its rows (<code>more</code>).  The script expects the name
+     * of a marker as <code>arguments[1]</code>, and the values of the last row already read as
+     * <code>arguments[2]</code>, or <code>null</code> to read all rows.
+     * <p>
+     * Paged tables may drop their first rows when more rows are loaded, so the position of the last row read
+     * cannot be remembered as an index.  Instead, the script marks the last row of the table with the marker, a
+     * property of the row element, and the next page starts after the row that carries it, even if a new row has
+     * the same values.  If the table was rebuilt since, the row is found again by its values, starting from the
+     * bottom of the table.  If it cannot be found either, all rows are returned and <code>found</code> is
+     * <code>false</code>.
+     */
+    static final String READ_PAGE =
+            PRELUDE +
+            "var marker = arguments[1], lastRow = arguments[2];\n" +
+            "var columnCount = headingCells(root).length, rows = tableRows(root), cells = rowCells(rows, columnCount);\n" +
+            "function valuesOf(r) {\n" +
+            "  var values = [];\n" +
+            "  for (var c = 0; c < columnCount; c++) { values.push(valueAt(cells[r], c)); }\n" +
+            "  return values;\n" +
+            "}\n" +
+            "var start = 0, found = true;\n" +
+            "if (lastRow) {\n" +
+            "  found = false;\n" +
+            "  for (var r = cells.length - 1; r >= 0 && !found; r--) {\n" +
+            "    if (rows[r][marker]) { start = r + 1; found = true; }\n" +
+            "  }\n" +
+            // the table was rebuilt since the row was marked
+            "  for (var r = cells.length - 1; r >= 0 && !found; r--) {\n" +
+            "    if (valuesOf(r).join('\\u0001') === lastRow.join('\\u0001')) { start = r + 1; found = true; }\n" +
+            "  }\n" +
+            "}\n" +
+            // the next page starts after the last row of this one
+            "for (var r = 0; r < rows.length; r++) { delete rows[r][marker]; }\n" +
+            "if (cells.length > 0) { rows[cells.length - 1][marker] = true; }\n" +
+            "var values = [];\n" +
+            "for (var r = start; r < cells.length; r++) { values.push(valuesOf(r)); }\n" +
+            "var more = false;\n" +
+            "var links = root.getElementsByClassName('hp-master-load-more');\n" +
+            "for (var i = 0; i < links.length; i++) { if (links[i].getClientRects().length > 0) { more = true; } }\n" +
+            "return { rows: values, more: more, found: found };\n";
+
+    /**
+     * Waits, without polling, until an item appears in (or disappears from) a column of the table.  The script
+     * expects the item name as <code>arguments[1]</code>, the 1-based column index as <code>arguments[2]</code>,
+     * <code>true</code> to wait for the item to appear or <code>false</code> to wait for it to disappear as
+     * <code>arguments[3]</code>, and the timeout in milliseconds as <code>arguments[4]</code>.  Items are matched
+     * like {@link Table#findItemInColumn(String, int)} does.
+     * <p>
+     * It checks the table once, then again each time a MutationObserver reports a change in the table.  It calls
+     * back with <code>'matched'</code> as soon as the condition is met, <code>'timeout'</code> when the timeout
+     * expires, or <code>'detached'</code> when the table element is no longer in the page.
+     */
+    static final String WAIT_FOR_ITEM =
+            PRELUDE +
+            "var itemName = arguments[1], column = arguments[2] - 1, appear = arguments[3], timeout = arguments[4];\n" +
+            "var callback = arguments[arguments.length - 1];\n" +
+            "var observer = null, timer = null, poller = null, finished = false;\n" +
+            // same as TableSnapshot: the text before the parentheses, unless the item name has parentheses
+            "function matches(value) {\n" +
+            "  if (itemName.indexOf('(') < 0 && value.indexOf('(') >= 0) { value = value.substring(0, value.indexOf('(')).trim(); }\n" +
+            "  return value === itemName;\n" +
+            "}\n" +
+            "function present() {\n" +
+            "  var rows = tableRows(root);\n" +
+            "  for (var r = 0; r < rows.length; r++) {\n" +
+            "    var cells = childPath(rows[r], ['td']);\n" +
+            "    if (column < cells.length && matches(cellValue(cells[column]))) { return true; }\n" +
+            "  }\n" +
+            "  return false;\n" +
+            "}\n" +
+            "function finish(result) {\n" +
+            "  if (finished) { return; }\n" +
+            "  finished = true;\n" +
+            "  if (observer) { observer.disconnect(); }\n" +
+            "  clearTimeout(timer);\n" +
+            "  clearInterval(poller);\n" +
+            "  callback(result);\n" +
+            "}\n" +
+            "function check() {\n" +
+            "  if (!document.documentElement.contains(root)) { finish('detached'); }\n" +
+            "  else if (present() === appear) { finish('matched'); }\n" +
+            "}\n" +
+            "check();\n" +
+            "if (!finished) {\n" +
+            "  observer = new MutationObserver(check);\n" +
+            "  observer.observe(root, { childList: true, subtree: true, characterData: true,\n" +
+            // the value of a cell may be an icon, whose class or style changes
+            "                           attributes: true, attributeFilter: ['class', 'style'] });\n" +
+            "  timer = setTimeout(function() { finish('timeout'); }, timeout);\n" +
+            // the observer does not see the table itself being removed from the page
+            "  poller = setInterval(function() { if (!document.documentElement.contains(root)) { finish('detached'); } }, 500);\n" +
+            "}\n";
+
+    /**
+     * Returns an object with the values of a set of cells (<code>values</code>) and, for each of them, an error
+     * message if the cell does not exist (<code>errors</code>).  The script expects the 1-based coordinates of
+     * the cells, as a list of <code>[rowIndex, columnIndex]</code> pairs, as <code>arguments[1]</code>.
+     * The values are the same as the ones returned by {@link Table#getRowText(int)}: the text of the cell, its
+     * icon value if it has no text, and the percentage of its progress bar if its text contains "Running".
+     */
+    static final String READ_CELLS =
+            PRELUDE +
+            "var coordinates = arguments[1];\n" +
+            "var rows = tableRows(root);\n" +
+            "var values = [], errors = [];\n" +
+            "for (var i = 0; i < coordinates.length; i++) {\n" +
+            "  var rowIndex = coordinates[i][0], columnIndex = coordinates[i][1];\n" +
+            "  var value = '', error = null;\n" +
+            "  if (rowIndex < 1 || rowIndex > rows.length) {\n" +
+            "    error = \"No such row index, '\" + rowIndex + \"', within the row elements - '\" + rows.length + \"'\";\n" +
+            "  } else {\n" +
+            "    var cells = childPath(rows[rowIndex - 1], ['td']);\n" +
+            "    if (cells.length === 0) {\n" +
+            "      error = 'table is empty.';\n" +
+            "    } else if (columnIndex < 1 || columnIndex > cells.length) {\n" +
+            "      error = \"column index, '\" + columnIndex + \"' is greater than the number of columns, '\" + cells.length + \"'.\";\n" +
+            "    } else {\n" +
+            "      var cell = cells[columnIndex - 1];\n" +
+            "      value = cellValue(cell);\n" +
+            // same as Table.getRowText(): add the percentage of the progress bar of a running task
+            "      if (value.indexOf('Running') >= 0) {\n" +
+            "        var progress = cell.querySelectorAll('.hp-progress > .hp-progress-done');\n" +
+            "        if (progress.length === 1) {\n" +
+            "          var temp = (progress[0].getAttribute('style') || '').split(': ')[1] || '';\n" +
+            "          value += ' - ' + temp.substring(0, temp.length - 1);\n" +
+            "        }\n" +
+            "      }\n" +
+            "    }\n" +
+            "  }\n" +
+            "  values.push(value);\n" +
+            "  errors.push(error);\n" +
+            "}\n" +
+            "return { values: values, errors: errors };\n";
+
+    /**
+     * Returns the rows of the table that changed since a previous read, identified by a key and compared by a
+     * hash of their values, both computed inside the browser.  The script expects the 1-based index of the key
+     * column as <code>arguments[1]</code>, and the hashes of the rows of the previous read, by key, as
+     * <code>arguments[2]</code> (or <code>null</code> to read all rows).
+     * <p>
+     * The key of a row is the value of its key column; the second row with the same key gets the key
+     * <code>"value#2"</code>, and so on.  The hash is the 32-bit FNV-1a hash of the values of the row.  The script
+     * returns the column headings (<code>columns</code>), the keys of all rows in table order (<code>keys</code>),
+     * and the values and hashes, by key, of the rows that are new or whose hash changed (<code>rows</code>,
+     * <code>hashes</code>).
+     */
+    static final String READ_CHANGES =
+            PRELUDE +
+            "var keyColumn = arguments[1] - 1, known = arguments[2] || {};\n" +
+            // the multiplication by the FNV prime is done with shifts, since not all browsers have Math.imul
+            "function hash(values) {\n" +
+            "  var text = values.join('\\u0001'), h = 0x811c9dc5;\n" +
+            "  for (var i = 0; i < text.length; i++) { h ^= text.charCodeAt(i); h = (h + (h << 1) + (h << 4) + (h << 7) + (h << 8) + (h << 24)) >>> 0; }\n" +
+            "  return ('0000000' + h.toString(16)).slice(-8);\n" +
+            "}\n" +
+            "var columns = headingTexts(root);\n" +
+            "var values = rowValues(tableRows(root), columns.length);\n" +
+            "var keys = [], rows = {}, hashes = {}, seen = {};\n" +
+            "for (var r = 0; r < values.length; r++) {\n" +
+            "  var key = keyColumn < values[r].length ? values[r][keyColumn] : '';\n" +
+            "  seen[key] = (seen[key] || 0) + 1;\n" +
+            "  if (seen[key] > 1) { key = key + '#' + seen[key]; }\n" +
+            "  keys.push(key);\n" +
+            "  var h = hash(values[r]);\n" +
+            "  if (known[key] !== h) { rows[key] = values[r]; hashes[key] = h; }\n" +
+            "}\n" +
+            "return { columns: columns, keys: keys, rows: rows, hashes: hashes };\n";
+
+    /**
+     * Returns an aggregate of the values of a column of the table, computed inside the browser, as an object with
+     * the result (<code>value</code>, <code>null</code> if there is no value to aggregate) and the number of values
+     * aggregated (<code>count</code>).  The script expects the 1-based column index as <code>arguments[1]</code>
+     * and the name of a {@link Table.Aggregate} as <code>arguments[2]</code>.
+     * <p>
+     * SUM, MIN and MAX aggregate the numeric values of the column: numbers with or without thousands separators,
+     * percentages (e.g. "45%" counts as 45), and capacities in KiB, MiB, GiB, TiB or PiB, which are converted to
+     * GiB.  Other values, e.g. "--", are ignored.  COUNT and DISTINCT_COUNT count the values that are not empty
+     * and not "--".
+     */
+    static final String AGGREGATE =
+            PRELUDE +
+            "var column = arguments[1] - 1, aggregate = arguments[2];\n" +
+            "var columnCount = headingCells(root).length;\n" +
+            // only the cells of the column are read
+            "var rows = rowCells(tableRows(root), columnCount);\n" +
+            "var result = null, count = 0, distinct = {};\n" +
+            "for (var r = 0; r < rows.length; r++) {\n" +
+            "  var text = column < columnCount ? valueAt(rows[r], column) : '';\n" +
+            "  if (aggregate === 'COUNT' || aggregate === 'DISTINCT_COUNT') {\n" +
+            "    if (text !== '' && text !== '--') {\n" +
+            "      if (aggregate === 'COUNT' || !distinct.hasOwnProperty(text)) { count++; }\n" +
+            "      distinct[text] = true;\n" +
+            "    }\n" +
+            "    result = count;\n" +
+            "    continue;\n" +
+            "  }\n" +
+            "  var number = numberOf(text);\n" +
+            "  if (number === null) { continue; }\n" +
+            "  count++;\n" +
+            "  if (result === null) { result = number; }\n" +
+            "  else if (aggregate === 'SUM') { result += number; }\n" +
+            "  else if (aggregate === 'MIN') { result = Math.min(result, number); }\n" +
+            "  else if (aggregate === 'MAX') { result = Math.max(result, number); }\n" +
+            "}\n" +
+            "if (result === null && aggregate !== 'MIN' && aggregate !== 'MAX') { result = 0; }\n" +
+            "return { value: result, count: count };\n";
+
+    /**
+     * Resolves the rows to select with {@link Table#selectMultipleRowsInBulk(int[], int, int)}.  The script expects
+     * the 1-based indexes of the rows as <code>arguments[1]</code>, or <code>null</code> to look the rows up by name;
+     * the item names as <code>arguments[2]</code>, or <code>null</code>; the 1-based index of the column holding
+     * the item names as <code>arguments[3]</code>; and the 0-based index of the cell to click in each row as
+     * <code>arguments[4]</code>.
+     * <p>
+     * Item names are matched like {@link Table#selectMultipleRows_original(String, String[])} does, against the
+     * values of the column without their "(n)" suffixes.  The script returns the sorted row indexes
+     * (<code>rows</code>), the cell elements to click in those rows (<code>cells</code>), the item names that were
+     * not found (<code>notFound</code>) and the row indexes that are not valid (<code>invalid</code>).
+     */
+    static final String RESOLVE_ROWS =
+            PRELUDE +
+            "var indexes = arguments[1], names = arguments[2], dataColumn = arguments[3] - 1, clickColumn = arguments[4];\n" +
+            "var rows = tableRows(root);\n" +
+            "var notFound = [], invalid = [], selected = [], cells = [];\n" +
+            "if (!indexes) {\n" +
+            "  var values = [];\n" +
+            "  for (var r = 0; r < rows.length; r++) {\n" +
+            "    var dataCells = childPath(rows[r], ['td']);\n" +
+            "    var value = dataColumn < dataCells.length ? cellValue(dataCells[dataColumn]) : '';\n" +
+            "    values.push(value.indexOf('(') >= 0 ? value.replace(/\\(\\d+\\)/g, '').trim() : value);\n" +
+            "  }\n" +
+            "  indexes = [];\n" +
+            "  for (var n = 0; n < names.length; n++) {\n" +
+            "    var index = values.indexOf(names[n]);\n" +
+            "    if (index < 0) { notFound.push(names[n]); } else { indexes.push(index + 1); }\n" +
+            "  }\n" +
+            "}\n" +
+            "indexes = indexes.slice().sort(function(a, b) { return a - b; });\n" +
+            "for (var i = 0; i < indexes.length; i++) {\n" +
+            "  var rowCells = (indexes[i] >= 1 && indexes[i] <= rows.length) ? childPath(rows[indexes[i] - 1], ['td']) : [];\n" +
+            "  if (clickColumn >= rowCells.length) { invalid.push(indexes[i]); continue; }\n" +
+            "  selected.push(indexes[i]);\n" +
+            "  cells.push(rowCells[clickColumn]);\n" +
+            "}\n" +
+            "return { rows: selected, cells: cells, notFound: notFound, invalid: invalid };\n";
+
+    /**
+     * Returns the selected rows of the table, i.e. the rows with the CSS class "hp-selected", as an object with
+     * their 1-based indexes (<code>rows</code>) and their values in a column (<code>values</code>).  The script
+     * expects the 1-based index of that column as <code>arguments[1]</code>.
+     * <p>
+     * If the 1-based indexes of the rows that should be selected are passed as <code>arguments[2]</code>, the
+     * script also returns (<code>fix</code>) the cells to control-click, at the 0-based index passed as
+     * <code>arguments[3]</code>, to deselect the other rows and to select the missing ones.
+     */
+    static final String SELECTED_ROWS =
+            PRELUDE +
+            "var dataColumn = arguments[1] - 1, expected = arguments[2], clickColumn = arguments[3];\n" +
+            "var rows = tableRows(root);\n" +
+            "var selected = [], values = [], fix = [];\n" +
+            "for (var r = 0; r < rows.length; r++) {\n" +
+            "  var cells = childPath(rows[r], ['td']);\n" +
+            "  var isSelected = hasClass(rows[r], 'hp-selected');\n" +
+            "  if (isSelected) {\n" +
+            "    selected.push(r + 1);\n" +
+            "    values.push(dataColumn < cells.length ? cellValue(cells[dataColumn]) : '');\n" +
+            "  }\n" +
+            "  if (expected && isSelected !== (expected.indexOf(r + 1) >= 0) && clickColumn < cells.length) {\n" +
+            "    fix.push(cells[clickColumn]);\n" +
+            "  }\n" +
+            "}\n" +
+            "return { rows: selected, values: values, fix: fix };\n";
+
+    /**
+     * Returns the rows of the table that match a {@link TableQuery}, as an object with their 1-based indexes
+     * (<code>rows</code>) and, if requested, their values in some columns (<code>values</code>).  The script
+     * expects the conditions of the query as <code>arguments[1]</code>: a list of alternatives, each of them a list
+     * of predicates that must all hold, each predicate being an object with the 1-based index of its column
+     * (<code>column</code>, 0 for any column), its operator (<code>op</code>) and its operand
+     * (<code>value</code>).  It expects the 1-based indexes of the columns to return as <code>arguments[2]</code>
+     * (an empty list for all columns, <code>null</code> for none), and the maximum number of rows to return as
+     * <code>arguments[3]</code> (0 for all rows).
+     * <p>
+     * The rows are read one at a time, and only the cells that the predicates and the selected columns need, so
+     * that the script stops reading the table once it has found <code>limit</code> rows.
+     */
+    static final String QUERY =
+            PRELUDE +
+            "var alternatives = arguments[1], selected = arguments[2], limit = arguments[3];\n" +
+            "var columnCount = headingCells(root).length;\n" +
+            "function test(op, text, operand) {\n" +
+            "  switch (op) {\n" +
+            "    case 'EQUALS': return text === operand;\n" +
+            "    case 'EQUALS_IGNORE_CASE': return text.toLowerCase() === operand.toLowerCase();\n" +
+            "    case 'CONTAINS': return text.indexOf(operand) >= 0;\n" +
+            // like Table.findItemInColumn() and Table.findItemsInColumn(): the "(...)" suffix is ignored,
+            // unless the item name has one
+            "    case 'NAME_EQUALS': return (operand.indexOf('(') >= 0 ? text : nameOf(text)) === operand;\n" +
+            "    case 'NAME_CONTAINS': return (operand.indexOf('(') >= 0 ? text : nameOf(text)).indexOf(operand) >= 0;\n" +
+            "    case 'MATCHES': return new RegExp(operand).test(text);\n" +
+            "  }\n" +
+            "  var number = numberOf(text);\n" +
+            "  if (number === null) { return false; }\n" +
+            "  switch (op) {\n" +
+            "    case 'LT': return number < operand;\n" +
+            "    case 'LE': return number <= operand;\n" +
+            "    case 'GT': return number > operand;\n" +
+            "    case 'GE': return number >= operand;\n" +
+            "    case 'NUMBER_EQUALS': return number === operand;\n" +
+            "  }\n" +
+            "  throw new Error('Unknown operator: ' + op);\n" +
+            "}\n" +
+            // a row whose cell values are read when a predicate or a selected column needs them, then kept
+            "function lazyRow(cells) {\n" +
+            "  var values = {};\n" +
+            "  return function(column) {\n" +
+            "    if (!values.hasOwnProperty(column)) { values[column] = valueAt(cells, column); }\n" +
+            "    return values[column];\n" +
+            "  };\n" +
+            "}\n" +
+            "function holds(predicate, value) {\n" +
+            "  if (predicate.column === 0) {\n" +
+            "    for (var c = 0; c < columnCount; c++) { if (test(predicate.op, value(c), predicate.value)) { return true; } }\n" +
+            "    return false;\n" +
+            "  }\n" +
+            "  return predicate.column <= columnCount && test(predicate.op, value(predicate.column - 1), predicate.value);\n" +
+            "}\n" +
+            "function matches(value) {\n" +
+            "  if (alternatives.length === 0) { return true; }\n" +
+            "  for (var a = 0; a < alternatives.length; a++) {\n" +
+            "    var all = true;\n" +
+            "    for (var p = 0; p < alternatives[a].length && all; p++) { all = holds(alternatives[a][p], value); }\n" +
+            "    if (all) { return true; }\n" +
+            "  }\n" +
+            "  return false;\n" +
+            "}\n" +
+            "var rows = rowCells(tableRows(root), columnCount);\n" +
+            "var indexes = [], values = [];\n" +
+            "for (var r = 0; r < rows.length && (limit === 0 || indexes.length < limit); r++) {\n" +
+            "  var value = lazyRow(rows[r]);\n" +
+            "  if (!matches(value)) { continue; }\n" +
+            "  indexes.push(r + 1);\n" +
+            "  if (selected === null) { continue; }\n" +
+            "  var row = [];\n" +
+            "  if (selected.length === 0) { for (var c = 0; c < columnCount; c++) { row.push(value(c)); } }\n" +
+            "  for (var s = 0; s < selected.length; s++) { row.push(selected[s] <= columnCount ? value(selected[s] - 1) : ''); }\n" +
+            "  values.push(row);\n" +
+            "}\n" +
+            "return { rows: indexes, values: values };\n";
+
+    private TableScripts() {
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an immutable, in-memory copy of the column headings and cell values of a {@link Table},
+ * taken with {@link Table#getSnapshot()}.
+ * <p>
+ * When the snapshot is taken, every column is indexed by its exact values, by its values ignoring case, and
+ * by its values with the trailing parentheses removed (e.g. "MyVolume (1)" is also indexed as "MyVolume"),
+ * which is the normalization applied by {@link Table#findItemInColumn(String, int)}.  Looking up an item
+ * is then a hash lookup instead of one WebDriver round trip per row.  Use a snapshot when a test needs to
+ * verify many items against a table that does not change in the meantime:
+ * <pre>
+ *   TableSnapshot snapshot = volumesTable.getSnapshot();
+ *   for (String name : expectedNames) {
+ *       Assert.assertTrue(snapshot.findItemInColumn(name, 1) > 0);
+ *   }
+ * </pre>
+ * Like the {@link Table} class, rows and columns start with index 1.
+ */
+public class TableSnapshot {
+
+    // - - - - - Class attributes - - - - -
+
+    private final String[] columns;
+    private final List<String[]> rows;
+
+    // one map per column, from a (normalized) cell value to the indexes of the rows holding that value
+    private final List<Map<String, List<Integer>>> exactIndex;
+    private final List<Map<String, List<Integer>>> ignoreCaseIndex;
+    private final List<Map<String, List<Integer>>> strippedIndex;
+    private final List<Map<String, List<Integer>>> strippedIgnoreCaseIndex;
+
+    // from a cell value to the indexes of the rows holding that value in any column
+    private final Map<String, List<Integer>> anyColumnIndex;
+
+
+    // - - - - - Constructor - - - - -
+
+    /**
+     * Constructor used by the {@link Table} class.
+     *
+     * @param columns  the column headings of the table
+     * @param rows     the cell values of the rows of the table, as returned by {@link Table#getAllRows()}
+     */
+    TableSnapshot(String[] columns, List<String[]> rows) {
+        this.columns = columns.clone();
+
+        List<String[]> rowsCopy = new ArrayList<String[]>(rows.size());
+        for (String[] row : rows) {
+            rowsCopy.add(row.clone());
+        }
+        this.rows = Collections.unmodifiableList(rowsCopy);
+
+        int columnCount = this.columns.length;
+        for (String[] row : this.rows) {
+            columnCount = Math.max(columnCount, row.length);
+        }
+
+        this.exactIndex = new ArrayList<Map<String, List<Integer>>>(columnCount);
+        this.ignoreCaseIndex = new ArrayList<Map<String, List<Integer>>>(columnCount);
+        this.strippedIndex = new ArrayList<Map<String, List<Integer>>>(columnCount);
+        this.strippedIgnoreCaseIndex = new ArrayList<Map<String, List<Integer>>>(columnCount);
+        this.anyColumnIndex = new HashMap<String, List<Integer>>();
+
+        for (int j = 0; j < columnCount; j++) {
+            this.exactIndex.add(new HashMap<String, List<Integer>>());
+            this.ignoreCaseIndex.add(new HashMap<String, List<Integer>>());
+            this.strippedIndex.add(new HashMap<String, List<Integer>>());
+            this.strippedIgnoreCaseIndex.add(new HashMap<String, List<Integer>>());
+        }
+
+        for (int i = 0; i < this.rows.size(); i++) {
+            String[] row = this.rows.get(i);
+            Integer rowIndex = i + 1;
+
+            for (int j = 0; j < row.length; j++) {
+                String value = row[j];
+                String stripped = removeParentheses(value);
+
+                addToIndex(this.exactIndex.get(j), value, rowIndex);
+                addToIndex(this.ignoreCaseIndex.get(j), value.toLowerCase(), rowIndex);
+                addToIndex(this.strippedIndex.get(j), stripped, rowIndex);
+                addToIndex(this.strippedIgnoreCaseIndex.get(j), stripped.toLowerCase(), rowIndex);
+                addToIndex(this.anyColumnIndex, value, rowIndex);
+            }
+        }
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method returns the number of rows in the snapshot.
+     *
+     * @return  the number of rows
+     */
+    public int getRowCount() {
+        return this.rows.size();
+    }
+
+    /**
+     * This method returns the number of columns in the snapshot.
+     *
+     * @return  the number of column headings
+     */
+    public int getColumnCount() {
+        return this.columns.length;
+    }
+
+    /**
+     * This method returns the column headings of the snapshot.
+     *
+     * @return  a copy of the column headings
+     */
+    public String[] getColumnHeadingsList() {
+        return this.columns.clone();
+    }
+
+    /**
+     * This method returns the index of the specified column heading, ignoring case, or -1 if there is
+     * no such column.
+     *
+     * @param columnHeading  [STRING] the name of the column heading
+     * @return               the index of the column, starting with 1; -1 if not found
+     */
+    public int getColumnIndex(String columnHeading) {
+        for (int j = 0; j < this.columns.length; j++) {
+            if (this.columns[j].equalsIgnoreCase(columnHeading)) {
+                return j + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This method returns the values of a row of the snapshot.
+     *
+     * @param rowIndex  [INT] the row number.  Rows start with index 1.
+     * @return          a copy of the values of the row
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public String[] getRowText(int rowIndex) {
+        return this.rows.get(rowIndex - 1).clone();
+    }
+
+    /**
+     * This method returns the values of all rows of the snapshot.
+     *
+     * @return  a copy of the values of all rows, in the same form as {@link Table#getAllRows()}
+     */
+    public ArrayList<String[]> getAllRows() {
+        ArrayList<String[]> returnList = new ArrayList<String[]>(this.rows.size());
+        for (String[] row : this.rows) {
+            returnList.add(row.clone());
+        }
+        return returnList;
+    }
+
+    /**
+     * This method returns the value of a cell of the snapshot.
+     *
+     * @param rowIndex     [INT] representing the row.  Rows start with index 1.
+     * @param columnIndex  [INT] representing the column.  Columns start with index 1.
+     * @return             the value of the cell
+     * @throws IndexOutOfBoundsException if there is no such cell
+     */
+    public String getCellData(int rowIndex, int columnIndex) {
+        return this.rows.get(rowIndex - 1)[columnIndex - 1];
+    }
+
+    /**
+     * Same as {@link Table#findItemInColumn(String, int)}: if the item name has no parentheses, the
+     * parentheses (and whatever follows them) are removed from the cell values before comparing.
+     *
+     * @param itemName      [STRING] the item name to look for
+     * @param columnIndex   [INT] the column to search the item for. It starts with index 1.
+     * @return              the first row index that matches the item name; zero if there is no match
+     */
+    public int findItemInColumn(String itemName, int columnIndex) {
+        if (itemName.contains("(")) {
+            return firstRow(this.exactIndex, columnIndex, itemName);
+        } else {
+            return firstRow(this.strippedIndex, columnIndex, itemName);
+        }
+    }
+
+    /**
+     * Same as {@link Table#findItemInColumnEqualsIgnoreCase(String, int)}.
+     *
+     * @param itemName      [STRING] the item name to look for
+     * @param columnIndex   [INT] the column to search the item for. It starts with index 1.
+     * @return              the first row index that matches the item name ignoring case; zero if there is no match
+     */
+    public int findItemInColumnEqualsIgnoreCase(String itemName, int columnIndex) {
+        if (itemName.contains("(")) {
+            return firstRow(this.ignoreCaseIndex, columnIndex, itemName.toLowerCase());
+        } else {
+            return firstRow(this.strippedIgnoreCaseIndex, columnIndex, itemName.toLowerCase());
+        }
+    }
+
+    /**
+     * Same as {@link Table#containsItemInColumn(String, int)}.  A substring search cannot use the indexes,
+     * so the values of the column are scanned in memory.
+     *
+     * @param itemName      [STRING] the text to look for
+     * @param columnIndex   [INT] the column to search the text for. It starts with index 1.
+     * @return              the first row index whose value contains the text; zero if there is no match;
+     *                      -1 if the table has rows but no such column
+     */
+    public int containsItemInColumn(String itemName, int columnIndex) {
+        for (int i = 0; i < this.rows.size(); i++) {
+            String[] row = this.rows.get(i);
+            if ((columnIndex < 1) || (columnIndex > row.length)) {
+                return -1;
+            }
+            if (row[columnIndex - 1].contains(itemName)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Same as {@link Table#findItemsInColumn(String, int)}: it returns the values of the column, with the
+     * parentheses removed as described in {@link #findItemInColumn(String, int)}, that contain the item name.
+     *
+     * @param itemName      [STRING] the text to look for
+     * @param columnIndex   [INT] the column to search the text for. It starts with index 1.
+     * @return              the list of matching values; <code>null</code> if there is no match
+     */
+    public ArrayList<String> findItemsInColumn(String itemName, int columnIndex) {
+        ArrayList<String> returnValue = new ArrayList<String>();
+
+        for (String[] row : this.rows) {
+            if ((columnIndex < 1) || (columnIndex > row.length)) {
+                continue;
+            }
+            String value = row[columnIndex - 1];
+            if (!itemName.contains("(")) {
+                value = removeParentheses(value);
+            }
+            if (value.contains(itemName)) {
+                returnValue.add(value);
+            }
+        }
+
+        if (returnValue.size() == 0) {
+            returnValue = null;
+        }
+        return returnValue;
+    }
+
+    /**
+     * Same as {@link Table#getRowForItemNameAndSystem(String, String, String, String)}: it returns the first row
+     * whose item column, with the parentheses removed, equals the item name and whose system column equals the
+     * system name.
+     *
+     * @param itemName                [STRING] the item name to look for
+     * @param columnNameForItem       [STRING] the heading of the item column
+     * @param systemName              [STRING] the system name to look for
+     * @param systemColumnHeaderName  [STRING] the heading of the system column
+     * @return                        the first matching row index; zero if there is no match
+     */
+    public int getRowForItemNameAndSystem(String itemName, String columnNameForItem,
+                                          String systemName, String systemColumnHeaderName) {
+        int itemColumn = indexOfHeading(columnNameForItem);
+        int systemColumn = indexOfHeading(systemColumnHeaderName);
+        if ((itemColumn < 1) || (systemColumn < 1)) {
+            return 0;
+        }
+
+        List<Integer> itemRows = rowsOf(this.strippedIndex, itemColumn, itemName);
+        List<Integer> systemRows = rowsOf(this.exactIndex, systemColumn, systemName);
+
+        // both lists are in ascending order; return the first row they have in common
+        int i = 0;
+        int j = 0;
+        while ((i < itemRows.size()) && (j < systemRows.size())) {
+            int compare = itemRows.get(i).compareTo(systemRows.get(j));
+            if (compare == 0) {
+                return itemRows.get(i);
+            } else if (compare < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Same as {@link Table#getRowContainingAllColumnValues(String[])}: it returns the first row that has
+     * every one of the specified values in one of its columns.
+     *
+     * @param columnValues  [ARRAY OF STRING] the values to look for
+     * @return              the first matching row index; zero if there is no match
+     */
+    public int getRowContainingAllColumnValues(String[] columnValues) {
+        if (this.rows.size() == 0) {
+            return 0;
+        }
+        if (columnValues.length == 0) {
+            return 1;
+        }
+
+        // start with the rows holding the least common value, and check the other values on those rows only
+        List<Integer> candidates = null;
+        for (String value : columnValues) {
+            List<Integer> valueRows = this.anyColumnIndex.get(value);
+            if (valueRows == null) {
+                return 0;
+            }
+            if ((candidates == null) || (valueRows.size() < candidates.size())) {
+                candidates = valueRows;
+            }
+        }
+
+        for (Integer rowIndex : candidates) {
+            boolean allValuesGood = true;
+            for (String value : columnValues) {
+                if (Collections.binarySearch(this.anyColumnIndex.get(value), rowIndex) < 0) {
+                    allValuesGood = false;
+                    break;
+                }
+            }
+            if (allValuesGood) {
+                return rowIndex;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * This method returns the indexes of all rows whose value in the specified column equals the specified value.
+     *
+     * @param value         [STRING] the value to look for
+     * @param columnIndex   [INT] the column to search the value for. It starts with index 1.
+     * @return              the row indexes in ascending order; an empty list if there is no match
+     */
+    public List<Integer> getRowsWithValue(String value, int columnIndex) {
+        return rowsOf(this.exactIndex, columnIndex, value);
+    }
+
+    /**
+     * Removes the parentheses and whatever follows them from a value, e.g. "MyVolume (1)" becomes "MyVolume".
+     * A value without parentheses is returned unchanged.
+     */
+    static String removeParentheses(String value) {
+        if (value.contains("(")) {
+            return value.substring(0, value.indexOf("(")).trim();
+        }
+        return value;
+    }
+
+    private static void addToIndex(Map<String, List<Integer>> index, String key, Integer rowIndex) {
+        List<Integer> rowIndexes = index.get(key);
+        if (rowIndexes == null) {
+            rowIndexes = new ArrayList<Integer>(1);
+            index.put(key, rowIndexes);
+        }
+        rowIndexes.add(rowIndex);
+    }
+
+    private static List<Integer> rowsOf(List<Map<String, List<Integer>>> indexes, int columnIndex, String key) {
+        if ((columnIndex < 1) || (columnIndex > indexes.size())) {
+            return Collections.emptyList();
+        }
+        List<Integer> rowIndexes = indexes.get(columnIndex - 1).get(key);
+        if (rowIndexes == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(rowIndexes);
+    }
+
+    private static int firstRow(List<Map<String, List<Integer>>> indexes, int columnIndex, String key) {
+        List<Integer> rowIndexes = rowsOf(indexes, columnIndex, key);
+        return rowIndexes.isEmpty() ? 0 : rowIndexes.get(0);
+    }
+
+    // exact-case lookup of a heading, like the List.indexOf() lookups of the Table class
+    private int indexOfHeading(String columnHeading) {
+        for (int j = 0; j < this.columns.length; j++) {
+            if (this.columns[j].equals(columnHeading)) {
+                return j + 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Elements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an immutable, versioned copy of the rows of a {@link Table}, taken with {@link Table#getView(int)}
+ * and updated with {@link Table#refreshView(TableView)}.
+ * <p>
+ * Each row is identified by a key, which is the value of the key column of the view; when several rows have the
+ * same value, the second one gets the key "value#2", the third one "value#3", and so on.  The view also keeps a
+ * hash of the values of each row, computed inside the browser, so that a refresh only transfers the rows that
+ * changed.  Every refresh that finds a change returns a new view with the next version number.
+ * <p>
+ * Like the {@link Table} class, columns start with index 1.
+ */
+public class TableView {
+
+    // - - - - - Class attributes - - - - -
+
+    private final int version;
+    private final int keyColumnIndex;
+    private final String[] columns;
+    // the rows of the table by key, in table order
+    private final Map<String, String[]> rows;
+    private final Map<String, String> hashes;
+
+
+    // - - - - - Constructors - - - - -
+
+    /**
+     * Constructor of the empty view that a table is first read into.
+     *
+     * @param keyColumnIndex  the column that identifies the rows. It starts with index 1.
+     */
+    TableView(int keyColumnIndex) {
+        this(0, keyColumnIndex, new String[0], new LinkedHashMap<String, String[]>(), new HashMap<String, String>());
+    }
+
+    private TableView(int version, int keyColumnIndex, String[] columns, Map<String, String[]> rows, Map<String, String> hashes) {
+        this.version = version;
+        this.keyColumnIndex = keyColumnIndex;
+        this.columns = columns;
+        this.rows = Collections.unmodifiableMap(rows);
+        this.hashes = Collections.unmodifiableMap(hashes);
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method returns a view updated with the rows read by {@link Table#refreshView(TableView)}.
+     *
+     * @param columns        the column headings of the table
+     * @param keys           the keys of all rows of the table, in table order
+     * @param changedRows    the values of the rows that are new or changed, by key
+     * @param changedHashes  the hashes of the rows that are new or changed, by key
+     * @return               this view if nothing changed; otherwise a new view with the next version number
+     */
+    TableView update(String[] columns, List<String> keys, Map<String, String[]> changedRows, Map<String, String> changedHashes) {
+        boolean changed = !Arrays.equals(columns, this.columns) || !getKeys().equals(keys);
+
+        Map<String, String[]> newRows = new LinkedHashMap<String, String[]>();
+        Map<String, String> newHashes = new HashMap<String, String>();
+        for (String key : keys) {
+            String hash = changedHashes.get(key);
+            if (hash != null && !hash.equals(this.hashes.get(key))) {
+                newRows.put(key, changedRows.get(key));
+                newHashes.put(key, hash);
+                changed = true;
+            } else if (this.rows.containsKey(key)) {
+                newRows.put(key, this.rows.get(key));
+                newHashes.put(key, this.hashes.get(key));
+            } else {
+                // the script sends the values of every row that this view does not have, so this should not happen
+                throw new IllegalStateException("TableView::update -- No values for new row '" + key + "'");
+            }
+        }
+
+        if (!changed) {
+            return this;
+        }
+        return new TableView(this.version + 1, this.keyColumnIndex, columns.clone(), newRows, newHashes);
+    }
+
+    /**
+     * This method returns the version of this view.  The view first read from a table has version 1, and each
+     * refresh that finds a change increments it.
+     *
+     * @return  the version of this view
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * This method returns the column that identifies the rows of this view.
+     *
+     * @return  the key column. It starts with index 1.
+     */
+    public int getKeyColumnIndex() {
+        return this.keyColumnIndex;
+    }
+
+    /**
+     * This method returns the number of rows in this view.
+     *
+     * @return  the number of rows
+     */
+    public int getRowCount() {
+        return this.rows.size();
+    }
+
+    /**
+     * This method returns the column headings of the table.
+     *
+     * @return  a String array with the column headings
+     */
+    public String[] getColumnHeadingsList() {
+        return this.columns.clone();
+    }
+
+    /**
+     * This method returns the keys of the rows of this view, in table order.
+     *
+     * @return  a list with the keys of the rows
+     */
+    public List<String> getKeys() {
+        return new ArrayList<String>(this.rows.keySet());
+    }
+
+    /**
+     * This method returns the values of the row with the specified key.
+     *
+     * @param key  the key of the row
+     * @return     a String array with the values of the row; {@code null} if this view has no such row
+     */
+    public String[] getRow(String key) {
+        String[] row = this.rows.get(key);
+        return (row == null) ? null : row.clone();
+    }
+
+    /**
+     * This method returns the values of all the rows of this view, in table order, as {@link Table#getAllRows()}
+     * does.
+     *
+     * @return  a list of String arrays, one per row
+     */
+    public ArrayList<String[]> getAllRows() {
+        ArrayList<String[]> returnList = new ArrayList<String[]>(this.rows.size());
+        for (String[] row : this.rows.values()) {
+            returnList.add(row.clone());
+        }
+        return returnList;
+    }
+
+    /**
+     * This method returns a {@link TableSnapshot} of the rows of this view, to look up its items.
+     *
+     * @return  a snapshot of this view
+     */
+    public TableSnapshot getSnapshot() {
+        return new TableSnapshot(this.columns, new ArrayList<String[]>(this.rows.values()));
+    }
+
+    /**
+     * This method returns the hashes of the rows of this view, by key.
+     *
+     * @return  the hashes of the rows
+     */
+    Map<String, String> getHashes() {
+        return this.hashes;
+    }
+}
@@ -62,6 +62,10 @@ public class Text extends BaseElement {
             returnValue = "VALUE";
             log("=== This text's query is currently stubbed out. Returning value '" + returnValue + "' ===");
         } else {
+            ElementState freshState = getFreshState();
+            if (freshState != null && freshState.isDisplayed() && !freshState.getText().isEmpty()) {
+                return freshState.getText();
+            }
 
             webElement = getWebElement();
             returnValue = webElement.getText().trim();
@@ -83,7 +87,8 @@ public class Text extends BaseElement {
     {
         String returnValue = null;
 
-        int timeOutSeconds = 120; //TODO
+        String timeoutKey = AdaptiveTimeouts.keyOf(this, "waitWebElementValueNotNull");
+        int timeOutSeconds = AdaptiveTimeouts.getTimeout(timeoutKey, 120);
 
         String title;
 
@@ -104,6 +109,7 @@ public class Text extends BaseElement {
                     // good
                     itemFound = true;
                     done = true;
+                    AdaptiveTimeouts.record(timeoutKey, System.nanoTime() - startTime);
                 }
 
 
@@ -10,11 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebElement;
 
-import static Helpers.Utility.warning;
-
 /**
  * This class is used to interact with the TopologyGraphs that appear in remote copy config panels
  *
@@ -25,6 +22,14 @@ public class TopologyGraph extends BaseElement {
     // - - - - - Class Attributes - - - - -
     protected final int MAXRETRIES = 5;
 
+    // the nested lookups done in each node of the graph, compiled so that they run for all nodes in one script
+    private static final CompiledLocator SYSTEM_NAME_LINK = LocatorCompiler.compilePath(By.className("hp-contents"),
+            By.className("hp-summary"), By.id("topology-graph-system-name"), By.className("hp-name"), By.tagName("a"));
+    private static final CompiledLocator SYSTEM_PORT_LINK = LocatorCompiler.compilePath(By.className("hp-contents"),
+            By.className("hp-summary"), By.id("topology-graph-system-conn"), By.className("hp-name"), By.tagName("a"));
+    private static final CompiledLocator SYSTEM_PORT_STATUS = LocatorCompiler.compilePath(By.className("hp-contents"),
+            By.className("hp-summary"), By.id("topology-graph-system-conn"), By.className("hp-status"));
+
     // - - - - - Constructor - - - - -
 
     /**
@@ -64,37 +69,13 @@ public class TopologyGraph extends BaseElement {
      * @return  An integer representing the number of system names in the topology graph
      */
     public ArrayList<String> getNodeSystemNames() {
-        ArrayList<String> returnValue = new ArrayList<String>();
-
-        boolean done = false;
-        int retries = 0;
-
-        while(!done) {
-            try {
-                List<WebElement> nodes = getGraphNodes();
-
-                for(WebElement n : nodes) {
-                    // Check that a link exists for the name
-                    if(n.findElement(By.className("hp-contents")).findElement(By.className("hp-summary")).findElement(By.id("topology-graph-system-name")).findElement(By.className("hp-name")).findElement(By.tagName("a")) != null) {
-                        returnValue.add(n.findElement(By.className("hp-contents")).findElement(By.className("hp-summary")).findElement(By.id("topology-graph-system-name")).findElement(By.className("hp-name")).findElement(By.tagName("a")).getText());
-                    }
-                }
-
-                done = true;
+        // each attempt builds a new list, so a stale node does not add its values twice
+        return RetryPolicy.STALE_ELEMENT.call("TopologyGraph::getNodeSystemNames", new RetryPolicy.Attempt<ArrayList<String>>() {
+            public ArrayList<String> run() {
+                // the text of the name link of each node; a node without the link throws a NoSuchElementException
+                return new ArrayList<String>(SYSTEM_NAME_LINK.getTexts(getGraphNodes()));
             }
-            catch(StaleElementReferenceException e) {
-                retries ++;
-                if(retries == MAXRETRIES) {
-                    done = true;
-
-                    warning("Error! StaleElementReference Exception - " + e.getMessage());
-                    e.printStackTrace();
-                    throw e;
-                }
-            }
-        }
-
-        return returnValue;
+        });
     }
     /**
      * This method returns the number of nodes that have system ports in the topology graph.
@@ -102,37 +83,13 @@ public class TopologyGraph extends BaseElement {
      * @return  An integer representing the number of system ports in the topology graph
      */
     public ArrayList<String> getNodeSystemPorts() {
-        ArrayList<String> returnValue = new ArrayList<String>();
-
-        boolean done = false;
-        int retries = 0;
-
-        while(!done) {
-            try {
-                List<WebElement> nodes = getGraphNodes();
-
-                for(WebElement n : nodes) {
-                    // Check that a link exists for the port
-                    if(n.findElement(By.className("hp-contents")).findElement(By.className("hp-summary")).findElement(By.id("topology-graph-system-conn")).findElement(By.className("hp-name")).findElement(By.tagName("a")) != null) {
-                        returnValue.add(n.findElement(By.className("hp-contents")).findElement(By.className("hp-summary")).findElement(By.id("topology-graph-system-conn")).findElement(By.className("hp-name")).findElement(By.tagName("a")).getText());
-                    }
-                }
-
-                done = true;
-            }
-            catch(StaleElementReferenceException e) {
-                retries ++;
-                if(retries == MAXRETRIES) {
-                    done = true;
-
-                    warning("Error! StaleElementReference Exception - " + e.getMessage());
-                    e.printStackTrace();
-                    throw e;
-                }
+        // each attempt builds a new list, so a stale node does not add its values twice
+        return RetryPolicy.STALE_ELEMENT.call("TopologyGraph::getNodeSystemPorts", new RetryPolicy.Attempt<ArrayList<String>>() {
+            public ArrayList<String> run() {
+                // the text of the port link of each node; a node without the link throws a NoSuchElementException
+                return new ArrayList<String>(SYSTEM_PORT_LINK.getTexts(getGraphNodes()));
             }
-        }
-
-        return returnValue;
+        });
     }
 
     /**
@@ -141,34 +98,12 @@ public class TopologyGraph extends BaseElement {
      * @return  An integer representing the number of system port statuses in the topology graph
      */
     public ArrayList<String> getNodeSystemPortStatuses() {
-        ArrayList<String> returnValue = new ArrayList<String>();
-
-        boolean done = false;
-        int retries = 0;
-
-        while(!done) {
-            try {
-                List<WebElement> nodes = getGraphNodes();
-
-                for(WebElement n : nodes) {
-                    returnValue.add(n.findElement(By.className("hp-contents")).findElement(By.className("hp-summary")).findElement(By.id("topology-graph-system-conn")).findElement(By.className("hp-status")).getAttribute("class"));
-                }
-
-                done = true;
+        // each attempt builds a new list, so a stale node does not add its values twice
+        return RetryPolicy.STALE_ELEMENT.call("TopologyGraph::getNodeSystemPortStatuses", new RetryPolicy.Attempt<ArrayList<String>>() {
+            public ArrayList<String> run() {
+                return new ArrayList<String>(SYSTEM_PORT_STATUS.getAttributes(getGraphNodes(), "class"));
             }
-            catch(StaleElementReferenceException e) {
-                retries ++;
-                if(retries == MAXRETRIES) {
-                    done = true;
-
-                    warning("Error! StaleElementReference Exception - " + e.getMessage());
-                    e.printStackTrace();
-                    throw e;
-                }
-            }
-        }
-
-        return returnValue;
+        });
     }
 
 }
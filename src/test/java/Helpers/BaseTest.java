@@ -4,8 +4,18 @@ package Helpers;
 
 
 
+import Elements.AdaptiveTimeouts;
 import Elements.Browser;
+import Elements.BrowserPool;
+import Elements.Globals;
+import Elements.Instrumentation;
+import Elements.PageLoadReport;
+import Elements.RetryPolicy;
+import Elements.ScreenshotWriter;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
+import org.testng.xml.XmlSuite;
 import sun.security.krb5.Credentials;
 
 import java.io.*;
@@ -16,7 +26,9 @@ import java.lang.annotation.Target;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import static Elements.Globals.browser;
@@ -45,21 +57,46 @@ public abstract class BaseTest {
     protected static String testClassName = "" ;
     private String propertyFile ="automation_plugin.properties";
     private boolean loginSuccess = false;
+    // the browsers checked out of BrowserPool by the threads of the current test, checked in after it
+    private static final List<Browser> checkedOutBrowsers = new CopyOnWriteArrayList<Browser>();
 
-    @BeforeTest
-    public void beforeTest() {
-            String username = testUserName;
-            String password = testPassword;
+    @BeforeSuite
+    public void beforeSuite() {
+        // start Chrome in the background while TestNG sets up the first test
+        BrowserPool.warmUp();
+    }
 
+    @BeforeTest
+    public void beforeTest(ITestContext context) {
+        // in a parallel run, the test methods do not run in this thread; beforeMethod() opens a browser in each of
+        // their threads instead
+        XmlSuite.ParallelMode parallelMode = context.getCurrentXmlTest().getParallel();
+        if (parallelMode != null && parallelMode.isParallel()) {
+            return;
+        }
             log("");
            // log(testClassName + "." + getTestName() + ": @Before - beforeTest() - open browser and login");
             log(": @Before - beforeTest() - open browser and login");
+        openBrowserAndLogin();
+    }
+
+    /**
+     * This method checks a browser out of {@link BrowserPool} for the current thread, binds it to the thread (see
+     * {@link Globals#bindBrowser(Browser)}) and logs into SSMC with it.  It is called by beforeTest(), and by beforeMethod() in each thread of a parallel run,
+     * e.g. with parallel="methods" in testng.xml, so that each thread drives its own browser.
+     */
+    protected void openBrowserAndLogin() {
+            String username = testUserName;
+            String password = testPassword;
+
         // browserType is provided by the getTestParameters method
         try {
-            browser = browser.chrome();
+            Browser threadBrowser = BrowserPool.checkout();
+            checkedOutBrowsers.add(threadBrowser);
+            Globals.bindBrowser(threadBrowser);
 
             // navigate to the SSMC login window
-            browser.navigate(testUrl);
+            browser().navigate(testUrl);
 
 //            if (ssmc.logInScreen.adminConsoleCheckBox.exists()) // wait for indication taht the page is finished rendering
 //                browser.disableTutorialPopup();
@@ -78,11 +115,60 @@ public abstract class BaseTest {
             }
         } catch (Exception e) {
             e.printStackTrace();
-            browser.takeScreenShot("beforeTest_");
+            browser().takeScreenShot("beforeTest_");
             testFail(testClassName + " - may be issue with browser driver.");
         }
     }
 
+    @BeforeMethod
+    public void beforeMethod(Method method) {
+        // in a parallel run, the test methods run in other threads than beforeTest(); each one gets its own browser,
+        // again if its browser was checked in after a previous test
+        if (!Globals.hasBoundBrowser() || !BrowserPool.isCheckedOut(browser())) {
+            log(": @Before - beforeMethod() - open browser and login in thread " + Thread.currentThread().getName());
+            openBrowserAndLogin();
+        }
+        // record the latencies of the web element calls of this test method separately
+        Instrumentation.startTest(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+    }
+
+    @AfterMethod
+    public void afterMethod(ITestResult result) {
+        Instrumentation.endTest();
+        // a failed test may leave its browser in a state that a reset does not undo, e.g. an open alert
+        if (result.getStatus() == ITestResult.FAILURE) {
+            BrowserPool.markFailed(browser());
+        }
+    }
+
+    @AfterTest
+    public void afterTest() {
+        // log the call sites that had to retry, and how much time the retries cost, then count the next test apart
+        RetryPolicy.logStats();
+        RetryPolicy.resetStats();
+
+        // give the browsers back to the pool, which resets them for the next test instead of closing them
+        for (Browser checkedOutBrowser : checkedOutBrowsers) {
+            BrowserPool.checkin(checkedOutBrowser);
+        }
+        checkedOutBrowsers.clear();
+        Globals.unbindBrowser();
+    }
+
+    @AfterSuite
+    public void afterSuite() {
+        // write the p50/p95/p99 latencies of the web element calls, per test method and for the suite
+        Instrumentation.export();
+        // write the load times, bytes and slowest endpoints of the SSMC screens, if they were recorded
+        PageLoadReport.export();
+        // keep the durations of the waits, from which the next runs derive their timeouts
+        AdaptiveTimeouts.save();
+        // let the screenshots of the last tests reach the disk
+        ScreenshotWriter.flush(30);
+
+        BrowserPool.shutdown();
+    }
+
 
 
 
@@ -2,6 +2,9 @@ package Helpers;
 
 import org.apache.commons.lang3.RandomStringUtils;
 
+import Elements.Globals;
+import Elements.PageQuiescence;
+
 import java.util.concurrent.TimeUnit;
 
 import static Elements.Globals.browser;
@@ -14,6 +17,18 @@ import static Helpers.Utility.warning;
  */
 public class Login {
 
+    // the time the console has to show up with a restored session, before logging in through the UI
+    private static final int RESTOREDSESSIONTIMEOUT = 30;  // seconds
+
+    /**
+     * This method logs into the SSMC management console.  If the user already logged into the same server in this
+     * run, it restores that session (see {@link SessionSnapshot}) and only checks that the console shows up with it;
+     * it logs in through the Log In screen if there is no such session, or if the server rejects it.
+     *
+     * @param username   [STRING] the user name
+     * @param password   [STRING] the password
+     * @return           'true' if the user is logged in, 'false' otherwise
+     */
     public static boolean login (String username, String password) {
         // declaring local variables
         boolean returnValue = true;
@@ -21,8 +36,22 @@ public class Login {
         log("");
         log("Log into SSMC management console.");
 
+        if (Globals.reuseLoginSessions && SessionSnapshot.restore(username)) {
+            // a single check that the console shows up, instead of the Log In screen
+            if (ssmc.isAvailable(RESTOREDSESSIONTIMEOUT)) {
+                log("Logged in with the session kept for '" + username + "'.");
+                return true;
+            }
+            log("The session kept for '" + username + "' was rejected, logging in through the Log In screen.");
+            SessionSnapshot.discard(username);
+        }
+
         returnValue = loginToSSMC(username, password, false);
 
+        if (returnValue && Globals.reuseLoginSessions) {
+            SessionSnapshot.capture(username);
+        }
+
         return returnValue;
     }
 
@@ -47,7 +76,7 @@ public class Login {
                 }
             } else {
                 warning("The Administrator Console CheckBox on the Log In screen does not appear to exist.");
-                browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                 returnValue = true; //when admin console opened by clicking on user icon from management console, checkbox doesn't exist, so making the return value true
             }
 
@@ -57,8 +86,9 @@ public class Login {
 
             // CRAIG: Jun 21 2016 - As of the new login UI, with picture background, we are seeing some timing issues
             // where the User name field is not getting set properly.  I'm temporarily adding a short sleep
-            // prio to setting the user name textfield to start debugging this problem
-            Utility.sleep(4, TimeUnit.SECONDS);
+            // prio to setting the user name textfield to start debugging this problem.  The wait now ends as soon as the
+            // Log In screen is done loading.
+            PageQuiescence.settle(4000);
 
 
             // setting textfields
@@ -70,7 +100,7 @@ public class Login {
                 ssmc.logInScreen.usernameTextField.clearText();
                 ssmc.logInScreen.usernameTextField.setText(username);
             } else {
-                browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                 warning("The username text field on the Log In screen does not appear to exist.");
                 //browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                 returnValue = false;
@@ -87,7 +117,7 @@ public class Login {
 
             } else {
                 warning("The password text field on the Log In screen does not appear to exist.");
-                browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                 returnValue = false;
             }
         }
@@ -100,12 +130,12 @@ public class Login {
                     ssmc.logInScreen.logInButton.click();
                 } else {
                     warning("The Log In button on the Log In screen is not enabled.");
-                    browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                    browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                     returnValue = false;
                 }
             } else {
                 warning("The Log In button on the Log In screen does not appear to exist.");
-                browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                 returnValue = false;
             }
         }
@@ -123,14 +153,14 @@ public class Login {
                 log("Switch to the new window");
 
                 // making the new window active
-                if (!browser.getWindow(ADMINTITLE)) {
+                if (!browser().getWindow(ADMINTITLE)) {
                     warning("The Administrator Console page does not appear to be available. (getWindow)");
-                    browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                    browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                     returnValue = false;
 
                     if (!ssmc.adminConsoleScreen.isAvailable()) {
                         warning("The Administrator Console page does not appear to be available. (isAvailable)");
-                        browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                        browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                         returnValue = false;
                     }
                 }
@@ -139,15 +169,16 @@ public class Login {
                 // checking for the title on the main console page
                 if (!ssmc.isAvailable()) {
                     warning("The SSMC console web page does not appear to be available.");
-                    browser.takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
+                    browser().takeScreenShot("loginToSSMC_" + RandomStringUtils.random(4, true, true));
                     returnValue = false;
                 }
             }
         }
 
         if(returnValue){
-            //Popups do not have an exist() method, so checking for the popup title instead
-            if(ssmc.tutorialPopup.dialogTitleText.exists(15)) {
+            //Popups do not have an exist() method, so checking for the popup title instead; the popup is often not
+            //shown at all, so do not wait out the timeout once the page is quiet without it
+            if(!ssmc.tutorialPopup.dialogTitleText.isAbsent(15)) {
                 //Closing the Tutorial window
                 if (ssmc.tutorialPopup.closeLink.exists(5)) {
                     if (ssmc.tutorialPopup.closeLink.isEnabled()) {
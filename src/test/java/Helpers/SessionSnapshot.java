@@ -0,0 +1,180 @@
+/*
+ * © Copyright 2002-2016 Hewlett Packard Enterprise Development LP
+ */
+
+package Helpers;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import Elements.ElementUtil;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import static Elements.Globals.browser;
+import static Helpers.Utility.log;
+import static Helpers.Utility.warning;
+
+/**
+ * This class keeps the authenticated session of a user on a server after a login through the UI: the cookies, the
+ * local storage and the session storage of the page.  A later browser session of the same run restores them instead
+ * of logging in again:
+ * <pre>
+ *   if (SessionSnapshot.restore(username) &amp;&amp; ssmc.isAvailable(...)) {
+ *       // logged in
+ *   } else {
+ *       SessionSnapshot.discard(username);
+ *       ... log in through the UI ...
+ *       SessionSnapshot.capture(username);
+ *   }
+ * </pre>
+ * The snapshots are keyed by the origin of the current page and the user name, and are only kept in memory, so that
+ * no session token is left on disk after the run.
+ */
+public final class SessionSnapshot {
+
+    // - - - - - Class attributes - - - - -
+
+    private static final String CAPTURE_SCRIPT =
+            "function read(storage) {\n" +
+            "  var values = {};\n" +
+            "  for (var i = 0; storage && i < storage.length; i++) { values[storage.key(i)] = storage.getItem(storage.key(i)); }\n" +
+            "  return values;\n" +
+            "}\n" +
+            "try { return { local: read(window.localStorage), session: read(window.sessionStorage) }; }\n" +
+            "catch (e) { return { local: {}, session: {} }; }\n";
+
+    private static final String RESTORE_SCRIPT =
+            "function write(storage, values) {\n" +
+            "  storage.clear();\n" +
+            "  for (var key in values) { if (values.hasOwnProperty(key)) { storage.setItem(key, values[key]); } }\n" +
+            "}\n" +
+            "write(window.localStorage, arguments[0]);\n" +
+            "write(window.sessionStorage, arguments[1]);\n";
+
+    private static final String CLEAR_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) { }";
+
+    // the snapshots, by origin and user name
+    private static final ConcurrentMap<String, SessionSnapshot> SNAPSHOTS = new ConcurrentHashMap<String, SessionSnapshot>();
+
+    private final Set<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+
+
+    // - - - - - Constructor - - - - -
+
+    private SessionSnapshot(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+    }
+
+
+    // - - - - - Class Methods - - - - -
+
+    /**
+     * This method keeps the session of the current page, after the user logged in through the UI.
+     *
+     * @param username  the user that logged in
+     */
+    public static void capture(String username) {
+        try {
+            WebDriver driver = browser().getDriver();
+            Map<String, Map<String, String>> storage =
+                    ElementUtil.scriptResult(browser().executeScript(CAPTURE_SCRIPT));
+            SessionSnapshot snapshot = new SessionSnapshot(new HashSet<Cookie>(driver.manage().getCookies()),
+                    copyOf(storage.get("local")), copyOf(storage.get("session")));
+            SNAPSHOTS.put(keyOf(username), snapshot);
+            log("Kept the session of '" + username + "' (" + snapshot.cookies.size() + " cookies) for the next logins.");
+        } catch (WebDriverException e) {
+            warning("SessionSnapshot::capture -- Could not keep the session of '" + username + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method restores the session kept for a user on the server of the current page, and reloads the page.  It
+     * does not check that the server still accepts the session; the caller should check that the page is not the
+     * Log In screen, and call {@link #discard(String)} if it is.
+     *
+     * @param username  the user to log in
+     * @return          {@code true} if a session was restored; {@code false} if there is none for this user and server
+     */
+    public static boolean restore(String username) {
+        SessionSnapshot snapshot = SNAPSHOTS.get(keyOf(username));
+        if (snapshot == null) {
+            return false;
+        }
+
+        try {
+            WebDriver driver = browser().getDriver();
+            String url = driver.getCurrentUrl();
+            Date now = new Date();
+
+            driver.manage().deleteAllCookies();
+            for (Cookie cookie : snapshot.cookies) {
+                if (cookie.getExpiry() == null || cookie.getExpiry().after(now)) {
+                    driver.manage().addCookie(cookie);
+                }
+            }
+            browser().executeScript(RESTORE_SCRIPT, snapshot.localStorage, snapshot.sessionStorage);
+            browser().navigate(url);
+            log("Restored the session of '" + username + "'.");
+            return true;
+        } catch (WebDriverException e) {
+            warning("SessionSnapshot::restore -- Could not restore the session of '" + username + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * This method forgets the session kept for a user on the server of the current page, e.g. because the server
+     * rejected it, and clears the cookies and the storage of the page, then reloads it, so that the user can log in
+     * through the UI.
+     *
+     * @param username  the user
+     */
+    public static void discard(String username) {
+        if (SNAPSHOTS.remove(keyOf(username)) == null) {
+            return;
+        }
+
+        try {
+            WebDriver driver = browser().getDriver();
+            String url = driver.getCurrentUrl();
+            browser().executeScript(CLEAR_SCRIPT);
+            driver.manage().deleteAllCookies();
+            browser().navigate(url);
+        } catch (WebDriverException e) {
+            warning("SessionSnapshot::discard -- Could not clear the session of '" + username + "': " + e.getMessage());
+        }
+    }
+
+    // The key of a snapshot: the origin of the current page, e.g. "https://ssmc:8443", and the user name.
+    private static String keyOf(String username) {
+        String url = browser().getDriver().getCurrentUrl();
+        try {
+            URL parsedUrl = new URL(url);
+            return parsedUrl.getProtocol() + "://" + parsedUrl.getAuthority() + "|" + username;
+        } catch (MalformedURLException e) {
+            return url + "|" + username;
+        }
+    }
+
+    private static Map<String, String> copyOf(Map<String, String> values) {
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+        return new HashMap<String, String>(values);
+    }
+}
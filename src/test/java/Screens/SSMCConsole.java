@@ -6,6 +6,8 @@ package Screens;/*
 
 
 
+import Elements.PageQuiescence;
+
 import java.util.concurrent.TimeUnit;
 
 import static Helpers.Utility.sleep;
@@ -212,8 +214,8 @@ public class SSMCConsole  {
         // declaring local variables
         boolean returnValue = true;
 
-        // waiting a second, because the web driver seems to be going too fast
-        sleep(1, TimeUnit.SECONDS);
+        // waiting for the page to settle, because the web driver seems to be going too fast
+        PageQuiescence.settle(1000);
 
         if (!titleText.exists(timeOutSeconds)) {
             returnValue = false;